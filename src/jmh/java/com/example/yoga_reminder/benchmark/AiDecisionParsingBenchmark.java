@@ -0,0 +1,44 @@
+package com.example.yoga_reminder.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.yoga_reminder.dto.AiDecision;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson parsing of model responses into {@link AiDecision}, as done for every single-reply AI call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AiDecisionParsingBenchmark {
+
+    private static final String PAY_LATER = "{\"intent\": \"PAY_LATER\", \"followUpDays\": 3, \"followUpHours\": null}";
+    private static final String PAY_NOW = "{\"intent\":\"PAY_NOW\",\"followUpDays\":null}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Benchmark
+    public AiDecision parsePayLater() throws JsonProcessingException {
+        return objectMapper.readValue(PAY_LATER, AiDecision.class);
+    }
+
+    @Benchmark
+    public AiDecision parsePayNowWithoutHours() throws JsonProcessingException {
+        return objectMapper.readValue(PAY_NOW, AiDecision.class);
+    }
+}
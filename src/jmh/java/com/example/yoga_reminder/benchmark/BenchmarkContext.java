@@ -0,0 +1,185 @@
+package com.example.yoga_reminder.benchmark;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import com.example.yoga_reminder.YogaReminderApplication;
+import com.example.yoga_reminder.domain.enums.IntentType;
+import com.example.yoga_reminder.dto.AiDecision;
+import com.example.yoga_reminder.service.AiService;
+import com.example.yoga_reminder.service.WhatsAppService;
+import com.example.yoga_reminder.service.whatsapp.RateLimitedWhatsAppService;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Boots the application against a throwaway PostgreSQL container with the AI service and the WhatsApp
+ * provider replaced by instant stubs, and seeds a dataset of the requested size. PostgreSQL rather than H2
+ * because the renewal and reminder-run paths use native SQL (ON CONFLICT, nextval, count(*) filter) that
+ * only PostgreSQL runs. Needs a Docker daemon.
+ */
+final class BenchmarkContext {
+
+    private static final int BATCH = 1000;
+    private static final String POSTGRES_IMAGE = "postgres:16-alpine";
+    private static final Map<ConfigurableApplicationContext, PostgreSQLContainer<?>> CONTAINERS =
+            new ConcurrentHashMap<>();
+
+    private BenchmarkContext() {
+    }
+
+    /**
+     * Starts a PostgreSQL container holding database {@code databaseName} and the application on top of it.
+     * Release both with {@link #stop}.
+     */
+    static ConfigurableApplicationContext start(String databaseName) {
+        PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(POSTGRES_IMAGE).withDatabaseName(databaseName);
+        postgres.start();
+        try {
+            ConfigurableApplicationContext application = new SpringApplicationBuilder(YogaReminderApplication.class)
+                    .initializers(context -> {
+                        GenericApplicationContext generic = (GenericApplicationContext) context;
+                        generic.registerBean("benchmarkAiService", AiService.class, StubAiService::new,
+                                definition -> definition.setPrimary(true));
+                        generic.registerBean(RateLimitedWhatsAppService.PROVIDER_BEAN, WhatsAppService.class,
+                                () -> (phoneNumber, message) -> {
+                                });
+                    })
+                    // Command-line style arguments so they win over application.yaml.
+                    .run("--spring.main.web-application-type=none",
+                            "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                            "--spring.datasource.username=" + postgres.getUsername(),
+                            "--spring.datasource.password=" + postgres.getPassword(),
+                            // The container is thrown away afterwards, so there is nothing to drop.
+                            "--spring.jpa.hibernate.ddl-auto=create",
+                            "--spring.jpa.show-sql=false",
+                            "--spring.jpa.properties.hibernate.format_sql=false",
+                            "--spring.ai.openai.api-key=benchmark",
+                            "--logging.level.root=WARN",
+                            "--reminder.whatsapp.provider=stub",
+                            "--reminder.whatsapp.global-permits-per-second=1000000",
+                            "--reminder.whatsapp.global-burst=100000",
+                            "--reminder.whatsapp.recipient-permits-per-second=1000",
+                            "--reminder.whatsapp.recipient-burst=1000",
+                            "--reminder.whatsapp.queue-capacity=1000000");
+            CONTAINERS.put(application, postgres);
+            return application;
+        } catch (RuntimeException ex) {
+            postgres.stop();
+            throw ex;
+        }
+    }
+
+    /**
+     * Closes the application first, so its connection pool shuts down cleanly, then the database container.
+     */
+    static void stop(ConfigurableApplicationContext context) {
+        try {
+            context.close();
+        } finally {
+            PostgreSQLContainer<?> postgres = CONTAINERS.remove(context);
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+    }
+
+    /**
+     * One plan, and per subscription one user; end dates are spread over the 5-day notice window so every
+     * reminder step occurs.
+     */
+    static void seed(JdbcTemplate jdbcTemplate, int subscriptions) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        jdbcTemplate.update("insert into plans (name, duration_in_days, price) values ('Monthly', 30, 1500.00)");
+        Long planId = jdbcTemplate.queryForObject("select max(id) from plans", Long.class);
+
+        List<Object[]> users = new ArrayList<>(BATCH);
+        for (int i = 0; i < subscriptions; i++) {
+            users.add(new Object[]{"Student " + i, "+91" + (9_000_000_000L + i), Timestamp.valueOf(now)});
+            if (users.size() == BATCH || i == subscriptions - 1) {
+                jdbcTemplate.batchUpdate("insert into users (name, phone_number, created_at) values (?, ?, ?)", users);
+                users.clear();
+            }
+        }
+
+        List<Long> userIds = jdbcTemplate.queryForList("select id from users order by id", Long.class);
+        List<Object[]> rows = new ArrayList<>(BATCH);
+        for (int i = 0; i < userIds.size(); i++) {
+            LocalDate endDate = today.plusDays(i % 6);
+            rows.add(new Object[]{userIds.get(i), planId, Date.valueOf(endDate.minusDays(30)), Date.valueOf(endDate),
+                    Timestamp.valueOf(now)});
+            if (rows.size() == BATCH || i == userIds.size() - 1) {
+                jdbcTemplate.batchUpdate("""
+                        insert into subscriptions (user_id, plan_id, start_date, end_date, status,
+                                                   renewal_notice_sent, created_at)
+                        values (?, ?, ?, ?, 'ACTIVE', false, ?)
+                        """, rows);
+                rows.clear();
+            }
+        }
+    }
+
+    /**
+     * Waits until the outbox relay has delivered or failed every queued reminder.
+     */
+    static void awaitOutboxDrained(JdbcTemplate jdbcTemplate, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (jdbcTemplate.queryForObject(
+                "select count(*) from reminder_outbox where status in ('PENDING', 'SENDING')", Long.class) > 0) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Outbox not drained within " + timeout);
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the outbox", ex);
+            }
+        }
+    }
+
+    /**
+     * Drops all reminder state so the next renewal pass starts from scratch.
+     */
+    static void resetReminderState(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("delete from reminder_outbox");
+        jdbcTemplate.update("delete from reminder_run_items");
+        jdbcTemplate.update("delete from reminder_runs");
+        jdbcTemplate.update("delete from reminder_logs");
+        jdbcTemplate.update("delete from payment_actions");
+        jdbcTemplate.update("delete from invoices");
+    }
+
+    static final class StubAiService implements AiService {
+
+        @Override
+        public AiDecision detectIntent(String userReply) {
+            return new AiDecision(IntentType.PAY_LATER, 1);
+        }
+
+        @Override
+        public String generateReminderMessage(String userName, LocalDate expiryDate) {
+            return "Hi " + userName + ", your yoga plan expires on " + expiryDate
+                    + ". Reply PAY NOW to renew or PAY LATER to choose a new reminder date.";
+        }
+
+        @Override
+        public Mono<String> streamReminderMessage(String userName, LocalDate expiryDate) {
+            return Mono.just(generateReminderMessage(userName, expiryDate));
+        }
+    }
+}
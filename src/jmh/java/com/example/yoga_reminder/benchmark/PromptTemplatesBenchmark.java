@@ -0,0 +1,55 @@
+package com.example.yoga_reminder.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.yoga_reminder.service.ai.PromptTemplates;
+import com.example.yoga_reminder.service.ai.ReminderTemplateCache;
+
+/**
+ * Prompt construction per AI call and local rendering of a cached reminder template.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PromptTemplatesBenchmark {
+
+    private static final String TEMPLATE = "Hi " + PromptTemplates.NAME_PLACEHOLDER
+            + ", your yoga plan ends on " + PromptTemplates.DATE_PLACEHOLDER
+            + ". Keep your practice going - reply PAY NOW to renew or PAY LATER for a reminder.";
+
+    private final LocalDate expiryDate = LocalDate.of(2026, 1, 20);
+
+    @Benchmark
+    public String intentUserPrompt() {
+        return PromptTemplates.intentUserPrompt("I'll pay next week once my salary comes in");
+    }
+
+    @Benchmark
+    public String reminderUserPrompt() {
+        return PromptTemplates.reminderUserPrompt("Ananya", expiryDate);
+    }
+
+    @Benchmark
+    public String reminderTemplateUserPrompt() {
+        return PromptTemplates.reminderTemplateUserPrompt(5, 3, "en", "warm");
+    }
+
+    @Benchmark
+    public String renderCachedTemplate() {
+        return ReminderTemplateCache.render(TEMPLATE, "Ananya", expiryDate);
+    }
+}
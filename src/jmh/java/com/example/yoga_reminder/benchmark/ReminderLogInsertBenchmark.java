@@ -0,0 +1,134 @@
+package com.example.yoga_reminder.benchmark;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.yoga_reminder.domain.entity.ReminderLog;
+import com.example.yoga_reminder.domain.enums.ReminderChannel;
+import com.example.yoga_reminder.repository.InvoiceRepository;
+import com.example.yoga_reminder.repository.ReminderLogRepository;
+
+/**
+ * Reminder log inserts before and after the switch from IDENTITY to pooled sequence ids, in rows per second.
+ * {@code identityPerRow} reproduces what IDENTITY forced on Hibernate: every row is its own INSERT whose
+ * generated key is read back before the next one. {@code pooledSequenceBatch} is the current path, the
+ * entities saved through the repository with one sequence call per 50 ids and hibernate.jdbc.batch_size
+ * inserts. Both write {@value #ROWS} rows in one transaction.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReminderLogInsertBenchmark {
+
+    static final int ROWS = 500;
+
+    private static final String INSERT_RETURNING_ID = """
+            insert into reminder_logs (id, invoice_id, channel, sent_at, message_preview)
+            values (nextval('reminder_logs_seq'), ?, 'WHATSAPP', ?, ?)
+            """;
+    private static final String INSERT_INVOICES = """
+            insert into invoices (id, subscription_id, payment_status, next_reminder_date, reminder_count,
+                                  created_at, version)
+            select nextval('invoices_seq'), s.id, 'PENDING', null, 0, now(), 0
+            from subscriptions s
+            """;
+    private static final String PREVIEW = "Hi Student, your yoga plan expires soon. Reply PAY NOW to renew or "
+            + "PAY LATER to choose a new reminder date.";
+
+    @Param("1000")
+    private int subscriptions;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private ReminderLogRepository reminderLogRepository;
+    private InvoiceRepository invoiceRepository;
+    private List<Long> invoiceIds;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkContext.start("reminder_logs");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        reminderLogRepository = context.getBean(ReminderLogRepository.class);
+        invoiceRepository = context.getBean(InvoiceRepository.class);
+        BenchmarkContext.seed(jdbcTemplate, subscriptions);
+        // The invoices the log rows point at, written directly and without a reminder date so no scheduler
+        // sends reminders (and writes logs) for them during the measurement.
+        jdbcTemplate.update(INSERT_INVOICES);
+        invoiceIds = jdbcTemplate.queryForList("select id from invoices order by id", Long.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void clearLogs() {
+        jdbcTemplate.update("delete from reminder_logs");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void identityPerRow() {
+        Timestamp sentAt = Timestamp.valueOf(LocalDateTime.now());
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < ROWS; i++) {
+                Long invoiceId = invoiceIds.get(i % invoiceIds.size());
+                jdbcTemplate.update(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(INSERT_RETURNING_ID,
+                            new String[]{"id"});
+                    statement.setLong(1, invoiceId);
+                    statement.setTimestamp(2, sentAt);
+                    statement.setString(3, PREVIEW);
+                    return statement;
+                }, new GeneratedKeyHolder());
+            }
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void pooledSequenceBatch() {
+        LocalDateTime sentAt = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            List<ReminderLog> entries = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                ReminderLog entry = new ReminderLog();
+                entry.setInvoice(invoiceRepository.getReferenceById(invoiceIds.get(i % invoiceIds.size())));
+                entry.setChannel(ReminderChannel.WHATSAPP);
+                entry.setSentAt(sentAt);
+                entry.setMessagePreview(PREVIEW);
+                entries.add(entry);
+            }
+            reminderLogRepository.saveAll(entries);
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        BenchmarkContext.stop(context);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.yoga_reminder.benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.yoga_reminder.scheduler.RenewalReminderScheduler;
+
+/**
+ * Reminder policy evaluation ({@code calculateNextReminderDate}) across every reminder count and a spread of
+ * end dates, including catch-up and exhausted schedules.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReminderPolicyBenchmark {
+
+    private static final int CASES = 64;
+
+    private final LocalDate[] endDates = new LocalDate[CASES];
+    private final int[] reminderCounts = new int[CASES];
+    private LocalDate today;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        today = LocalDate.of(2026, 1, 15);
+        for (int i = 0; i < CASES; i++) {
+            endDates[i] = today.plusDays(i % 8);
+            reminderCounts[i] = i % 4;
+        }
+    }
+
+    @Benchmark
+    public LocalDate calculateNextReminderDate() {
+        int i = next++ & (CASES - 1);
+        return RenewalReminderScheduler.calculateNextReminderDate(today, endDates[i], reminderCounts[i]);
+    }
+}
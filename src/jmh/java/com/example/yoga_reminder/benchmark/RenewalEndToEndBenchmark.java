@@ -0,0 +1,66 @@
+package com.example.yoga_reminder.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.yoga_reminder.scheduler.RenewalReminderScheduler;
+
+/**
+ * One full daily pass ({@code processRenewals}) over a fresh window of {@code subscriptions} rows: invoice
+ * materialization, keyset selection, generation through the stubbed AI service, and the batched reminder
+ * log / invoice / outbox writes. Delivery runs asynchronously in the outbox relay and is not part of the
+ * measured time. Rows per second for a run is subscriptions divided by the reported time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RenewalEndToEndBenchmark {
+
+    @Param("1000")
+    private int subscriptions;
+
+    private ConfigurableApplicationContext context;
+    private RenewalReminderScheduler scheduler;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkContext.start("renewals");
+        scheduler = context.getBean(RenewalReminderScheduler.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkContext.seed(jdbcTemplate, subscriptions);
+    }
+
+    @Setup(Level.Invocation)
+    public void resetReminders() {
+        BenchmarkContext.resetReminderState(jdbcTemplate);
+    }
+
+    @Benchmark
+    public void processRenewals() {
+        scheduler.processRenewals();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        BenchmarkContext.stop(context);
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.yoga_reminder.benchmark;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.yoga_reminder.dto.response.WhatsAppResponse;
+import com.example.yoga_reminder.scheduler.RenewalReminderScheduler;
+import com.example.yoga_reminder.service.PaymentService;
+
+/**
+ * {@code processReply} for invoices that were just reminded: guard checks, the (stubbed) intent call, and the
+ * locked, versioned PAY_LATER update. PAY_LATER keeps the invoice PENDING, so every invoice stays replyable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReplyEndToEndBenchmark {
+
+    @Param("1000")
+    private int subscriptions;
+
+    private ConfigurableApplicationContext context;
+    private PaymentService paymentService;
+    private List<Long> remindedInvoiceIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = BenchmarkContext.start("replies");
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkContext.seed(jdbcTemplate, subscriptions);
+        context.getBean(RenewalReminderScheduler.class).processRenewals();
+        // Replies are only accepted once the reminder was delivered, which the relay does asynchronously.
+        BenchmarkContext.awaitOutboxDrained(jdbcTemplate, Duration.ofMinutes(1));
+
+        paymentService = context.getBean(PaymentService.class);
+        remindedInvoiceIds = jdbcTemplate.queryForList(
+                "select distinct invoice_id from reminder_outbox where status = 'DELIVERED' order by invoice_id",
+                Long.class);
+        if (remindedInvoiceIds.isEmpty()) {
+            throw new IllegalStateException("Renewal pass sent no reminders; nothing to reply to");
+        }
+    }
+
+    @Benchmark
+    public void processReply() {
+        WhatsAppResponse reply = new WhatsAppResponse();
+        reply.setInvoiceId(remindedInvoiceIds.get(Math.floorMod(next++, remindedInvoiceIds.size())));
+        reply.setMessage("I'll pay tomorrow");
+        paymentService.processReply(reply);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        BenchmarkContext.stop(context);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.yoga_reminder.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import com.example.yoga_reminder.config.AiResilienceProperties;
+import com.example.yoga_reminder.config.ReminderTemplateProperties;
+import com.example.yoga_reminder.config.ReplyIntentProperties;
+import com.example.yoga_reminder.dto.AiDecision;
+import com.example.yoga_reminder.service.Impl.AiServiceImpl;
+import com.example.yoga_reminder.service.ai.ChatClientGuard;
+import com.example.yoga_reminder.service.ai.IntentBatcher;
+import com.example.yoga_reminder.service.ai.ReminderTemplateCache;
+import com.example.yoga_reminder.service.ai.ReplyIntentCache;
+import com.example.yoga_reminder.service.ai.ReplyIntentMatcher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Intent detection without a model: the rule tier alone, and detectIntent for replies the rules cannot
+ * settle, which end in fallbackIntent and intent normalization because no ChatClient is available.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReplyIntentBenchmark {
+
+    private static final String[] RULE_REPLIES = {
+            "Pay now", "paying now!", "tomorrow", "next week", "no", "I won't pay", "later", "done"
+    };
+
+    private static final String[] FALLBACK_REPLIES = {
+            "hmm I think I can sort this out sometime after my salary comes in",
+            "can you send me the bank details again please, will check",
+            "I'm travelling this week, maybe later when I'm back home",
+            "please stop messaging me about this yoga plan thing"
+    };
+
+    private ReplyIntentMatcher matcher;
+    private AiServiceImpl aiService;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ReplyIntentProperties intentProperties = new ReplyIntentProperties();
+        // Measure the tiers themselves; a warm cache would answer every repeated reply.
+        intentProperties.getCache().setEnabled(false);
+        ReminderTemplateProperties templateProperties = new ReminderTemplateProperties();
+        ObjectProvider<ChatClient> noClient = new StaticListableBeanFactory().getBeanProvider(ChatClient.class);
+        ObjectMapper objectMapper = new ObjectMapper();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ChatClientGuard guard = new ChatClientGuard(new AiResilienceProperties(), meterRegistry);
+
+        matcher = new ReplyIntentMatcher(intentProperties);
+        aiService = new AiServiceImpl(noClient, objectMapper,
+                new ReminderTemplateCache(templateProperties, meterRegistry), templateProperties, matcher,
+                new IntentBatcher(noClient, objectMapper, guard, intentProperties), intentProperties, meterRegistry,
+                guard, new ReplyIntentCache(intentProperties, meterRegistry));
+    }
+
+    @Benchmark
+    public ReplyIntentMatcher.RuleMatch ruleMatch() {
+        return matcher.match(RULE_REPLIES[next++ & (RULE_REPLIES.length - 1)]);
+    }
+
+    @Benchmark
+    public AiDecision detectIntentRuleTier() {
+        return aiService.detectIntent(RULE_REPLIES[next++ & (RULE_REPLIES.length - 1)]);
+    }
+
+    @Benchmark
+    public AiDecision detectIntentFallback() {
+        return aiService.detectIntent(FALLBACK_REPLIES[next++ & (FALLBACK_REPLIES.length - 1)]);
+    }
+}
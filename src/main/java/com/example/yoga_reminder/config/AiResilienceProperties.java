@@ -0,0 +1,93 @@
+package com.example.yoga_reminder.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Deadlines, circuit breaking and hedging for ChatClient calls (see {@code ChatClientGuard}).
+ */
+@ConfigurationProperties(prefix = "reminder.ai.resilience")
+@Getter
+@Setter
+public class AiResilienceProperties {
+
+    /**
+     * When false, calls go straight to the client and only its own timeouts apply.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Deadline for operations without an entry in {@code deadlines}.
+     */
+    private Duration defaultDeadline = Duration.ofSeconds(10);
+
+    /**
+     * Per-operation deadlines, keyed by operation name (intent, intent-batch, generate, templates).
+     */
+    private Map<String, Duration> deadlines = new HashMap<>();
+
+    private final Circuit circuit = new Circuit();
+
+    private final Hedge hedge = new Hedge();
+
+    /**
+     * One breaker per operation, evaluated over the last {@code windowSize} calls.
+     */
+    @Getter
+    @Setter
+    public static class Circuit {
+
+        private int windowSize = 50;
+
+        /**
+         * Calls recorded before the rates are evaluated at all.
+         */
+        private int minimumCalls = 10;
+
+        /**
+         * Opens when this fraction of the window failed or hit its deadline...
+         */
+        private double failureRateThreshold = 0.5;
+
+        /**
+         * ...or when this fraction took at least {@code slowCallDuration}.
+         */
+        private double slowCallRateThreshold = 0.8;
+
+        private Duration slowCallDuration = Duration.ofSeconds(5);
+
+        /**
+         * Time spent open (every call falls back immediately) before probing.
+         */
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        /**
+         * Probe calls let through while half-open; all must succeed to close again.
+         */
+        private int halfOpenProbes = 3;
+    }
+
+    /**
+     * Hedged requests: if the first call has not answered by the observed latency percentile, a second
+     * identical call is started and whichever answers first wins.
+     */
+    @Getter
+    @Setter
+    public static class Hedge {
+
+        private boolean enabled = false;
+
+        private double percentile = 0.95;
+
+        /**
+         * Successful calls observed before hedging starts; the percentile is meaningless on fewer.
+         */
+        private int minSamples = 20;
+    }
+}
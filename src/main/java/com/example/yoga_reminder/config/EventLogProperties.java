@@ -0,0 +1,55 @@
+package com.example.yoga_reminder.config;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import com.example.yoga_reminder.service.logging.ReminderEvent;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Sampling and rate caps for the structured pipeline events. Failure events bypass both.
+ */
+@ConfigurationProperties(prefix = "reminder.logging")
+@Getter
+@Setter
+public class EventLogProperties {
+
+    /**
+     * Spring Boot structured log format of the JSON lines (ecs, logstash, gelf); read by logback-spring.xml.
+     */
+    private String format = "ecs";
+
+    /**
+     * Fraction of routine events kept when an event type has no override (0 drops all, 1 keeps all).
+     */
+    private double sampleRate = 0.01;
+
+    /**
+     * Upper bound per event type and second, applied after sampling.
+     */
+    private double maxPerSecond = 20;
+
+    /**
+     * Per event type overrides, keyed by the enum name in kebab case (e.g. {@code reminder-sent}).
+     */
+    private Map<ReminderEvent, Limit> events = new EnumMap<>(ReminderEvent.class);
+
+    @Getter
+    @Setter
+    public static class Limit {
+
+        /**
+         * Overrides {@code reminder.logging.sample-rate}; unset keeps the default.
+         */
+        private Double sampleRate;
+
+        /**
+         * Overrides {@code reminder.logging.max-per-second}; unset keeps the default.
+         */
+        private Double maxPerSecond;
+    }
+}
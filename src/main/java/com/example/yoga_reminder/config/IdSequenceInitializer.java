@@ -0,0 +1,57 @@
+package com.example.yoga_reminder.config;
+
+import java.util.Map;
+
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves the pooled id sequences of tables that used IDENTITY ids before (invoices, reminder_logs) past the ids
+ * already in them. On an existing database ddl-auto creates these sequences starting at 1, so the first
+ * batched inserts would collide with old rows. Runs at startup after the schema update and before any
+ * scheduler fires; safe to re-run and never moves a sequence backwards. PostgreSQL only: the other
+ * database this runs on (H2 for tests) starts empty, as do the benchmark containers.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class IdSequenceInitializer {
+
+    /**
+     * Sequence name to table; allocation sizes must match the entities' @SequenceGenerator.
+     */
+    static final Map<String, String> SEQUENCES = Map.of(
+            "invoices_seq", "invoices",
+            "reminder_logs_seq", "reminder_logs");
+    static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdSequenceInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void alignSequences() {
+        String database = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        SEQUENCES.forEach((sequence, table) -> {
+            jdbcTemplate.execute("create sequence if not exists " + sequence
+                    + " start with 1 increment by " + ALLOCATION_SIZE);
+            // One allocation of headroom: the pooled optimizer hands out the block below the value it reads.
+            Long value = jdbcTemplate.queryForObject("""
+                    select setval('%1$s', greatest((select coalesce(max(id), 0) from %2$s) + %3$d,
+                                                   (select last_value from %1$s)))
+                    """.formatted(sequence, table, ALLOCATION_SIZE), Long.class);
+            log.info("Id sequence {} positioned at {} for table {}", sequence, value, table);
+        });
+    }
+}
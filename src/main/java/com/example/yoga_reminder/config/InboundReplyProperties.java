@@ -0,0 +1,38 @@
+package com.example.yoga_reminder.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Durable inbound reply queue drained by {@code InboundReplyWorker}. The poll interval is read directly by
+ * the worker's {@code @Scheduled} annotation ({@code reminder.inbound.poll-interval}).
+ */
+@ConfigurationProperties(prefix = "reminder.inbound")
+@Getter
+@Setter
+public class InboundReplyProperties {
+
+    /**
+     * Invoices claimed per drain cycle (all queued replies of an invoice are claimed together).
+     */
+    private int batchSize = 200;
+
+    /**
+     * Invoices processed concurrently within a drain cycle.
+     */
+    private int workers = 8;
+
+    /**
+     * Attempts before a reply is marked FAILED.
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * Claims older than this are assumed abandoned (worker died) and requeued.
+     */
+    private Duration claimTimeout = Duration.ofMinutes(5);
+}
@@ -0,0 +1,32 @@
+package com.example.yoga_reminder.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * In-process striped locking and optimistic-retry policy for invoice updates.
+ */
+@ConfigurationProperties(prefix = "reminder.concurrency")
+@Getter
+@Setter
+public class InvoiceConcurrencyProperties {
+
+    /**
+     * Number of lock stripes (rounded up to a power of two). Invoices sharing a stripe serialize.
+     */
+    private int lockStripes = 1024;
+
+    /**
+     * Attempts per operation when the invoice version check fails.
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * Base delay between attempts; doubled per retry with random jitter.
+     */
+    private Duration retryBackoff = Duration.ofMillis(20);
+}
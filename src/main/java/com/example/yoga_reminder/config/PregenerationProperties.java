@@ -0,0 +1,31 @@
+package com.example.yoga_reminder.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Overnight generation of the next day's reminder texts. The schedule is read directly by the job's
+ * {@code @Scheduled} annotation ({@code reminder.pregeneration.cron}).
+ */
+@ConfigurationProperties(prefix = "reminder.pregeneration")
+@Getter
+@Setter
+public class PregenerationProperties {
+
+    /**
+     * When false nothing is staged and the morning pass generates every message itself.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Invoices per keyset page; each page's messages are written in one JDBC batch.
+     */
+    private int pageSize = 200;
+
+    /**
+     * Messages generated concurrently.
+     */
+    private int concurrency = 8;
+}
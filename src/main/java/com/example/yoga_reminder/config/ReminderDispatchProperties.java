@@ -0,0 +1,42 @@
+package com.example.yoga_reminder.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Concurrency and batching limits for the reminder dispatch pipeline (selection -> generation -> persistence).
+ */
+@ConfigurationProperties(prefix = "reminder.dispatch")
+@Getter
+@Setter
+public class ReminderDispatchProperties {
+
+    /**
+     * Reminders admitted into the pipeline at once. Selection blocks when this many are in flight.
+     */
+    private int maxInFlight = 256;
+
+    /**
+     * Concurrent AI message generations.
+     */
+    private int generationConcurrency = 16;
+
+    /**
+     * Concurrent persistence transactions; keep below the connection pool size.
+     */
+    private int persistenceConcurrency = 4;
+
+    /**
+     * Generated reminders written (and queued in the outbox) per JDBC batch.
+     */
+    private int persistenceBatchSize = 100;
+
+    /**
+     * Longest a generated reminder waits in the write buffer before a partial batch is flushed.
+     */
+    private Duration persistenceFlushInterval = Duration.ofMillis(200);
+}
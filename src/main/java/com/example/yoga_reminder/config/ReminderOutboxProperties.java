@@ -0,0 +1,49 @@
+package com.example.yoga_reminder.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Relay draining reminder_outbox to WhatsApp. The poll interval is read directly by the relay's
+ * {@code @Scheduled} annotation ({@code reminder.outbox.poll-interval}).
+ */
+@ConfigurationProperties(prefix = "reminder.outbox")
+@Getter
+@Setter
+public class ReminderOutboxProperties {
+
+    /**
+     * Rows claimed per relay cycle at most.
+     */
+    private int batchSize = 200;
+
+    /**
+     * Messages handed to WhatsApp and not yet answered. The relay claims no more than this leaves room for,
+     * independently of how fast the dispatch pipeline fills the outbox.
+     */
+    private int maxInFlight = 64;
+
+    /**
+     * Attempts before a row is marked FAILED.
+     */
+    private int maxAttempts = 5;
+
+    /**
+     * Delay before the first retry; doubled on every further attempt.
+     */
+    private Duration retryBackoff = Duration.ofSeconds(30);
+
+    /**
+     * Claims older than this belong to a relay that died mid-send; their delivery is unknown.
+     */
+    private Duration claimTimeout = Duration.ofMinutes(5);
+
+    /**
+     * Delivered and failed rows are deleted once older than this.
+     */
+    private Duration retention = Duration.ofDays(7);
+}
@@ -0,0 +1,32 @@
+package com.example.yoga_reminder.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Checkpointed renewal passes (reminder_runs / reminder_run_items).
+ */
+@ConfigurationProperties(prefix = "reminder.runs")
+@Getter
+@Setter
+public class ReminderRunProperties {
+
+    /**
+     * A RUNNING pass whose checkpoint has not moved for this long is treated as dead and may be resumed.
+     */
+    private Duration staleAfter = Duration.ofMinutes(5);
+
+    /**
+     * How often a live pass refreshes its checkpoint while sends drain. Must be well below staleAfter.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(30);
+
+    /**
+     * Runs and send states older than this are purged when a new pass starts.
+     */
+    private Duration retention = Duration.ofDays(7);
+}
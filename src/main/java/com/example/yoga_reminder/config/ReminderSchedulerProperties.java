@@ -0,0 +1,37 @@
+package com.example.yoga_reminder.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Tuning knobs for the daily renewal pass.
+ */
+@ConfigurationProperties(prefix = "reminder.scheduler")
+@Getter
+@Setter
+public class ReminderSchedulerProperties {
+
+    /**
+     * Maximum number of rows loaded (and committed) per keyset chunk.
+     */
+    private int pageSize = 500;
+
+    /**
+     * How the daily pass finds reminders to send.
+     */
+    private SelectionMode selectionMode = SelectionMode.WINDOW;
+
+    public enum SelectionMode {
+        /**
+         * Walk every active subscription in the notice window and evaluate its invoice in Java.
+         */
+        WINDOW,
+        /**
+         * Read only PENDING invoices whose nextReminderDate is due; work scales with the reminders due
+         * rather than the window size.
+         */
+        DUE_QUEUE
+    }
+}
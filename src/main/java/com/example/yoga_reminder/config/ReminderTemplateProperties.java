@@ -0,0 +1,41 @@
+package com.example.yoga_reminder.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Cache of AI-generated reminder templates keyed by (days-to-expiry, locale, tone).
+ */
+@ConfigurationProperties(prefix = "reminder.ai.templates")
+@Getter
+@Setter
+public class ReminderTemplateProperties {
+
+    /**
+     * When false, every reminder is generated with its own AI call.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Templates requested per key; one is picked at random per reminder for variety.
+     */
+    private int poolSize = 5;
+
+    /**
+     * Maximum number of cached keys.
+     */
+    private long maxKeys = 256;
+
+    /**
+     * How long a template pool is reused before it is regenerated.
+     */
+    private Duration ttl = Duration.ofHours(12);
+
+    private String locale = "en";
+
+    private String tone = "warm";
+}
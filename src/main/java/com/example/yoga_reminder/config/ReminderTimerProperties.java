@@ -0,0 +1,41 @@
+package com.example.yoga_reminder.config;
+
+import java.time.Duration;
+import java.time.LocalTime;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * In-process reminder timer that fires reminders continuously instead of once at 9 AM. The reload interval
+ * is read directly by the timer's {@code @Scheduled} annotation ({@code reminder.timer.reload-interval}).
+ */
+@ConfigurationProperties(prefix = "reminder.timer")
+@Getter
+@Setter
+public class ReminderTimerProperties {
+
+    /**
+     * When true the daily pass only materializes invoices and the timer does the sending.
+     */
+    private boolean enabled = false;
+
+    /**
+     * How far ahead invoices are loaded into memory on each reload.
+     */
+    private Duration horizon = Duration.ofHours(24);
+
+    /**
+     * Reminders without an explicit time of day are spread over [sendWindowStart, sendWindowEnd).
+     */
+    private LocalTime sendWindowStart = LocalTime.of(9, 0);
+
+    private LocalTime sendWindowEnd = LocalTime.of(18, 0);
+
+    /**
+     * Maximum invoices handed to the scheduler per firing.
+     */
+    private int batchSize = 100;
+}
@@ -0,0 +1,89 @@
+package com.example.yoga_reminder.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Intent detection for WhatsApp replies.
+ */
+@ConfigurationProperties(prefix = "reminder.ai.intent")
+@Getter
+@Setter
+public class ReplyIntentProperties {
+
+    /**
+     * Rule matches at or above this confidence are answered locally without calling the AI.
+     */
+    private double ruleConfidenceThreshold = 0.75;
+
+    /**
+     * Normalized replies longer than this always escalate to the AI (the rules only target short replies).
+     */
+    private int ruleMaxLength = 64;
+
+    private final Batch batch = new Batch();
+
+    private final Cache cache = new Cache();
+
+    /**
+     * Micro-batching of AI intent calls: replies arriving close together share one prompt.
+     */
+    @Getter
+    @Setter
+    public static class Batch {
+
+        private boolean enabled = false;
+
+        /**
+         * A batch is sent as soon as it holds this many replies...
+         */
+        private int maxSize = 20;
+
+        /**
+         * ...or when the first reply in it has waited this long.
+         */
+        private Duration window = Duration.ofMillis(50);
+
+        /**
+         * How long a caller waits for its batched answer before falling back to a single-item call.
+         */
+        private Duration timeout = Duration.ofSeconds(30);
+    }
+
+    /**
+     * Normalized reply text -> final decision, so repeated short replies skip rules and AI alike.
+     */
+    @Getter
+    @Setter
+    public static class Cache {
+
+        private boolean enabled = true;
+
+        private long maxSize = 10_000;
+
+        private Duration ttl = Duration.ofHours(24);
+
+        /**
+         * Normalized replies longer than this are not cached; long replies rarely repeat verbatim.
+         */
+        private int maxLength = 64;
+
+        /**
+         * Preloads frequent PAY_NOW replies from payment_actions at startup.
+         */
+        private boolean warmOnStartup = true;
+
+        private Duration warmLookback = Duration.ofDays(30);
+
+        /**
+         * A reply is preloaded only if it was seen this often, always with the same intent.
+         */
+        private int warmMinOccurrences = 3;
+
+        private int warmLimit = 1_000;
+    }
+}
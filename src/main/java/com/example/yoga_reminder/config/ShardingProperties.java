@@ -0,0 +1,38 @@
+package com.example.yoga_reminder.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Partitioned renewal scheduling across app nodes. The heartbeat interval is read directly by the
+ * {@code @Scheduled} annotations ({@code reminder.sharding.heartbeat-interval}).
+ */
+@ConfigurationProperties(prefix = "reminder.sharding")
+@Getter
+@Setter
+public class ShardingProperties {
+
+    /**
+     * When false every node runs the whole window (single-node mode).
+     */
+    private boolean enabled = false;
+
+    /**
+     * Number of hash shards (subscription id modulo shardCount). Must be identical on every node.
+     */
+    private int shardCount = 64;
+
+    /**
+     * Identifies this node in the lease table; generated from the host name when blank.
+     */
+    private String nodeId;
+
+    /**
+     * Leases (and node heartbeats) not renewed within this period are considered dead and taken over.
+     */
+    private Duration leaseDuration = Duration.ofSeconds(60);
+}
@@ -0,0 +1,97 @@
+package com.example.yoga_reminder.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Outbound WhatsApp sending: provider selection, client-side rate limits and throttling retries.
+ */
+@ConfigurationProperties(prefix = "reminder.whatsapp")
+@Getter
+@Setter
+public class WhatsAppSendProperties {
+
+    /**
+     * Provider behind the rate limiter: "mock" (logs only) or "http" (WhatsApp Cloud API).
+     */
+    private String provider = "mock";
+
+    /**
+     * Sustained messages per second across all recipients (the account's tier limit) and its burst.
+     */
+    private double globalPermitsPerSecond = 80;
+
+    private int globalBurst = 80;
+
+    /**
+     * Sustained messages per second to one phone number and its burst.
+     */
+    private double recipientPermitsPerSecond = 0.2;
+
+    private int recipientBurst = 2;
+
+    /**
+     * Messages waiting (including scheduled retries) before new sends are rejected.
+     */
+    private int queueCapacity = 10_000;
+
+    /**
+     * Provider calls outstanding at once.
+     */
+    private int maxInFlight = 64;
+
+    /**
+     * Attempts per message when the provider throttles (HTTP 429); other failures are not retried here.
+     */
+    private int maxAttempts = 4;
+
+    /**
+     * First retry delay after throttling; doubles per attempt (with jitter) up to maxBackoff.
+     */
+    private Duration retryBackoff = Duration.ofMillis(500);
+
+    private Duration maxBackoff = Duration.ofSeconds(30);
+
+    private final Mock mock = new Mock();
+
+    private final Http http = new Http();
+
+    @Getter
+    @Setter
+    public static class Mock {
+
+        /**
+         * Simulated provider limits; 0 disables the simulation.
+         */
+        private double globalPermitsPerSecond = 0;
+
+        private double recipientPermitsPerSecond = 0;
+    }
+
+    @Getter
+    @Setter
+    public static class Http {
+
+        /**
+         * Graph API base URL; messages are posted to {baseUrl}/{phoneNumberId}/messages.
+         */
+        private String baseUrl = "https://graph.facebook.com/v21.0";
+
+        private String phoneNumberId;
+
+        private String accessToken;
+
+        private Duration connectTimeout = Duration.ofSeconds(5);
+
+        private Duration requestTimeout = Duration.ofSeconds(10);
+
+        /**
+         * Requests in flight at once; they share pooled HTTP/2 connections as concurrent streams.
+         */
+        private int maxConcurrentRequests = 100;
+    }
+}
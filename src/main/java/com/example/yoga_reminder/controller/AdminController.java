@@ -1,8 +1,10 @@
 package com.example.yoga_reminder.controller;
 
 import com.example.yoga_reminder.dto.response.InvoiceResponse;
-import com.example.yoga_reminder.scheduler.RenewalReminderScheduler;
+import com.example.yoga_reminder.dto.response.ReminderRunResponse;
+import com.example.yoga_reminder.dto.response.RunTriggerResponse;
 import com.example.yoga_reminder.service.InvoiceService;
+import com.example.yoga_reminder.service.run.ReminderRunLauncher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -15,7 +17,7 @@ import org.springframework.web.bind.annotation.*;
 public class AdminController {
 
     private final InvoiceService invoiceService;
-    private final RenewalReminderScheduler scheduler;
+    private final ReminderRunLauncher runLauncher;
 
     @PostMapping("/subscriptions/{id}/invoice")
     public ResponseEntity<InvoiceResponse> createInvoice(@PathVariable Long id) {
@@ -27,10 +29,26 @@ public class AdminController {
         return ResponseEntity.ok(invoiceService.getInvoice(id));
     }
 
+    /**
+     * Starts the renewal pass in the background and returns its run id right away. While a pass is still
+     * running, a second trigger joins it (200 with joined=true) instead of starting another one.
+     */
     @PostMapping("/reminders/run")
-    public ResponseEntity<String> runScheduler() {
-        scheduler.processRenewals();
-        return ResponseEntity.ok("Scheduler triggered");
+    public ResponseEntity<RunTriggerResponse> runScheduler() {
+        ReminderRunLauncher.Launch launch = runLauncher.launch();
+        RunTriggerResponse body = RunTriggerResponse.builder()
+                .runId(launch.runId())
+                .joined(launch.joined())
+                .statusUrl("/admin/reminders/runs/" + launch.runId())
+                .build();
+        return launch.joined() ? ResponseEntity.ok(body) : ResponseEntity.accepted().body(body);
+    }
+
+    @GetMapping("/reminders/runs/{id}")
+    public ResponseEntity<ReminderRunResponse> getRun(@PathVariable String id) {
+        return runLauncher.progress(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 }
 
@@ -1,7 +1,7 @@
 package com.example.yoga_reminder.controller;
 
 import com.example.yoga_reminder.dto.response.WhatsAppResponse;
-import com.example.yoga_reminder.service.PaymentService;
+import com.example.yoga_reminder.service.inbound.InboundReplyQueue;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -16,12 +16,16 @@ import org.springframework.web.bind.annotation.RestController;
 @Slf4j
 public class WhatsAppWebhookController {
 
-    private final PaymentService paymentService;
+    private final InboundReplyQueue inboundReplyQueue;
 
+    /**
+     * Acknowledges the provider as soon as the reply is durably queued; intent detection and invoice
+     * updates run in {@code InboundReplyWorker}.
+     */
     @PostMapping("/reply")
     public ResponseEntity<String> handleReply(@RequestBody WhatsAppResponse dto) {
-        paymentService.processReply(dto);
-        return ResponseEntity.ok("Reply processed");
+        inboundReplyQueue.enqueue(dto);
+        return ResponseEntity.accepted().body("Reply queued");
     }
 }
 
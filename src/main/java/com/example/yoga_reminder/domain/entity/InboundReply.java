@@ -0,0 +1,79 @@
+package com.example.yoga_reminder.domain.entity;
+
+import java.time.LocalDateTime;
+
+import com.example.yoga_reminder.domain.enums.InboundReplyStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Durable inbound queue entry for a WhatsApp reply. The webhook only appends rows; workers claim and
+ * process them. invoice_id is deliberately not a foreign key so enqueueing never waits on invoice lookups.
+ */
+@Entity
+@Table(
+        name = "inbound_replies",
+        indexes = {
+                @Index(name = "idx_inbound_reply_status", columnList = "status, id"),
+                @Index(name = "idx_inbound_reply_claim_token", columnList = "claim_token")
+        }
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InboundReply {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "invoice_id", nullable = false)
+    private Long invoiceId;
+
+    @Size(max = 1000)
+    @Column(length = 1000)
+    private String message;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private InboundReplyStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @NotNull
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @Size(max = 500)
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
@@ -2,7 +2,9 @@ package com.example.yoga_reminder.domain.entity;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import com.example.yoga_reminder.domain.enums.PaymentIntent;
@@ -19,7 +21,9 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -32,7 +36,7 @@ import lombok.Setter;
 @Table(
         name = "invoices",
         indexes = {
-                @Index(name = "idx_invoice_next_reminder_date", columnList = "next_reminder_date")
+                @Index(name = "idx_invoice_status_next_reminder_date", columnList = "payment_status, next_reminder_date")
         }
 )
 @Getter
@@ -43,7 +47,8 @@ import lombok.Setter;
 public class Invoice {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "invoice_seq")
+    @SequenceGenerator(name = "invoice_seq", sequenceName = "invoices_seq", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY, optional = false)
@@ -62,6 +67,10 @@ public class Invoice {
     @Column(name = "next_reminder_date")
     private LocalDate nextReminderDate;
 
+    // Explicit time of day requested for the next reminder (e.g. "remind me in 3 hours"); null = send window.
+    @Column(name = "next_reminder_time")
+    private LocalTime nextReminderTime;
+
     @Min(0)
     @Column(name = "reminder_count", nullable = false)
     private int reminderCount;
@@ -69,5 +78,11 @@ public class Invoice {
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
+
+    // Replies and reminders both read-modify-write this row; direct update statements bump it by hand.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
 }
 
@@ -0,0 +1,73 @@
+package com.example.yoga_reminder.domain.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Reminder text generated overnight for the next reminder step of an invoice. A row is only used while
+ * the invoice is still at invoice_version; any change to the invoice makes it stale. invoice_id is not a
+ * foreign key so staging never touches invoice rows.
+ */
+@Entity
+@Table(
+        name = "pregenerated_messages",
+        uniqueConstraints = @UniqueConstraint(name = "uk_pregenerated_invoice_step",
+                columnNames = {"invoice_id", "reminder_step"}),
+        indexes = @Index(name = "idx_pregenerated_for_date", columnList = "for_date")
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PregeneratedMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pregenerated_message_seq")
+    @SequenceGenerator(name = "pregenerated_message_seq", sequenceName = "pregenerated_messages_seq",
+            allocationSize = 50)
+    private Long id;
+
+    @NotNull
+    @Column(name = "invoice_id", nullable = false)
+    private Long invoiceId;
+
+    /**
+     * The invoice's reminderCount when generated: the message is for reminder number reminderStep + 1.
+     */
+    @Column(name = "reminder_step", nullable = false)
+    private int reminderStep;
+
+    @Column(name = "invoice_version", nullable = false)
+    private long invoiceVersion;
+
+    @NotNull
+    @Column(name = "for_date", nullable = false)
+    private LocalDate forDate;
+
+    @NotNull
+    @Size(max = 1000)
+    @Column(nullable = false, length = 1000)
+    private String message;
+
+    @NotNull
+    @Column(name = "generated_at", nullable = false)
+    private LocalDateTime generatedAt;
+}
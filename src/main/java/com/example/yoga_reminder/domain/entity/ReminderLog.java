@@ -14,6 +14,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -32,8 +33,10 @@ import lombok.Setter;
 @AllArgsConstructor
 public class ReminderLog {
 
+    // Pooled sequence instead of IDENTITY: IDENTITY forces one INSERT round trip per row and disables batching.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reminder_log_seq")
+    @SequenceGenerator(name = "reminder_log_seq", sequenceName = "reminder_logs_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
@@ -0,0 +1,103 @@
+package com.example.yoga_reminder.domain.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.example.yoga_reminder.domain.enums.OutboxStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * WhatsApp reminder waiting to be delivered. Rows are inserted in the transaction that advances the invoice
+ * and writes its reminder log, and drained by {@code ReminderOutboxRelay}, so no provider call ever runs
+ * inside a database transaction. run_date and reminder_step point back at the reminder_run_items claim.
+ */
+@Entity
+@Table(
+        name = "reminder_outbox",
+        indexes = {
+                @Index(name = "idx_reminder_outbox_ready", columnList = "status, next_attempt_at"),
+                @Index(name = "idx_reminder_outbox_claim_token", columnList = "claim_token"),
+                @Index(name = "idx_reminder_outbox_invoice", columnList = "invoice_id, status")
+        }
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reminder_outbox_seq")
+    @SequenceGenerator(name = "reminder_outbox_seq", sequenceName = "reminder_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @NotNull
+    @Column(name = "invoice_id", nullable = false)
+    private Long invoiceId;
+
+    @Column(name = "reminder_step", nullable = false)
+    private int reminderStep;
+
+    @NotNull
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    @NotNull
+    @Column(name = "phone_number", nullable = false, length = 20)
+    private String phoneNumber;
+
+    @NotNull
+    @Size(max = 1000)
+    @Column(nullable = false, length = 1000)
+    private String message;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxStatus status;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @NotNull
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Column(name = "claimed_at")
+    private LocalDateTime claimedAt;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "delivered_at")
+    private LocalDateTime deliveredAt;
+
+    @Column(name = "provider_message_id", length = 100)
+    private String providerMessageId;
+
+    @Size(max = 500)
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+}
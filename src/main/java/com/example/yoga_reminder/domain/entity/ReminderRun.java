@@ -0,0 +1,103 @@
+package com.example.yoga_reminder.domain.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.example.yoga_reminder.domain.enums.ReminderRunStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Checkpoint of one renewal pass over a (date, shard scope, selection mode). lastKey is the keyset position
+ * of the last committed chunk, so a resumed pass continues after it instead of rescanning the window. There
+ * is one run per (date, scope, mode); a later pass the same day resumes or reopens it rather than starting a
+ * second one.
+ */
+@Entity
+@Table(
+        name = "reminder_runs",
+        indexes = {
+                @Index(name = "idx_reminder_run_lookup", columnList = "run_date, scope, mode, status")
+        },
+        uniqueConstraints = @UniqueConstraint(name = "uk_reminder_run_date_scope_mode",
+                columnNames = {"run_date", "scope", "mode"})
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderRun {
+
+    @Id
+    @Column(name = "run_id", length = 36)
+    private String runId;
+
+    @NotNull
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    /**
+     * Shard scope as "shardCount:shard,shard,..."; "1:0" is the whole window.
+     */
+    @NotNull
+    @Column(nullable = false, length = 500)
+    private String scope;
+
+    @NotNull
+    @Column(nullable = false, length = 20)
+    private String mode;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ReminderRunStatus status;
+
+    @Column(name = "node_id", length = 100)
+    private String nodeId;
+
+    @Column(name = "last_key", nullable = false)
+    private long lastKey;
+
+    /**
+     * Rows in the window when the run started; an estimate for progress reporting only.
+     */
+    @Column(name = "window_size")
+    private Long windowSize;
+
+    @Column(nullable = false)
+    private long scanned;
+
+    @Column(nullable = false)
+    private long due;
+
+    @Column(nullable = false)
+    private long sent;
+
+    @Column(nullable = false)
+    private long failed;
+
+    @NotNull
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @NotNull
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
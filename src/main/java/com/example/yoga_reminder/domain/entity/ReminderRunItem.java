@@ -0,0 +1,72 @@
+package com.example.yoga_reminder.domain.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.example.yoga_reminder.domain.enums.RunItemState;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Send state of one reminder step of one invoice on one day. The unique key is what makes sends
+ * at-most-once across restarts and overlapping passes: a step is only sent by whoever moves its row to
+ * SENDING. run_id is null for sends outside a checkpointed pass (the reminder timer).
+ */
+@Entity
+@Table(
+        name = "reminder_run_items",
+        uniqueConstraints = @UniqueConstraint(name = "uk_run_item_date_invoice_step",
+                columnNames = {"run_date", "invoice_id", "reminder_step"}),
+        indexes = @Index(name = "idx_run_item_run_state", columnList = "run_id, state")
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReminderRunItem {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reminder_run_item_seq")
+    @SequenceGenerator(name = "reminder_run_item_seq", sequenceName = "reminder_run_items_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "run_id", length = 36)
+    private String runId;
+
+    @NotNull
+    @Column(name = "run_date", nullable = false)
+    private LocalDate runDate;
+
+    @NotNull
+    @Column(name = "invoice_id", nullable = false)
+    private Long invoiceId;
+
+    @Column(name = "reminder_step", nullable = false)
+    private int reminderStep;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private RunItemState state;
+
+    @NotNull
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
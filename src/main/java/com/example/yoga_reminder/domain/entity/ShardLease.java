@@ -0,0 +1,47 @@
+package com.example.yoga_reminder.domain.entity;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Ownership of one renewal shard. A node owns the shard while leaseUntil is in the future; lastRunDate
+ * records the day the shard's renewal pass last completed so a node taking it over knows whether to run it.
+ */
+@Entity
+@Table(
+        name = "shard_leases",
+        indexes = {
+                @Index(name = "idx_shard_lease_owner", columnList = "owner")
+        }
+)
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardLease {
+
+    @Id
+    @Column(name = "shard_id")
+    private Integer shardId;
+
+    @Column(length = 100)
+    private String owner;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "last_run_date")
+    private LocalDate lastRunDate;
+}
@@ -0,0 +1,9 @@
+package com.example.yoga_reminder.domain.enums;
+
+public enum InboundReplyStatus {
+    RECEIVED,    // queued by the webhook, waiting for a worker
+    PROCESSING,  // claimed by a worker
+    PROCESSED,
+    COALESCED,   // superseded by a newer reply for the same invoice in the same batch
+    FAILED       // gave up after max attempts or a non-retryable error
+}
@@ -0,0 +1,8 @@
+package com.example.yoga_reminder.domain.enums;
+
+public enum OutboxStatus {
+    PENDING,    // committed with its invoice update, waiting for the relay (or for its retry time)
+    SENDING,    // claimed by the relay, handed to WhatsApp
+    DELIVERED,  // accepted by the provider
+    FAILED      // gave up after max attempts, or the relay died mid-send and delivery is unknown
+}
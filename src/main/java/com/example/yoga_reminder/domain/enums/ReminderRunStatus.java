@@ -0,0 +1,7 @@
+package com.example.yoga_reminder.domain.enums;
+
+public enum ReminderRunStatus {
+    RUNNING,    // a node is walking the window; stale once updated_at stops moving (node died)
+    SUSPENDED,  // stopped early (lost shard lease, interrupted, error); the next pass resumes it
+    COMPLETED   // walked to the end; a later pass the same day reopens it
+}
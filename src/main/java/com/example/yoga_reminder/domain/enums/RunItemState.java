@@ -0,0 +1,8 @@
+package com.example.yoga_reminder.domain.enums;
+
+public enum RunItemState {
+    PENDING,  // selected as due and checkpointed, not yet sent
+    SENDING,  // claimed and queued in the outbox; if delivery is unknown it stays here and is not repeated
+    SENT,
+    FAILED    // send failed; a later pass may claim it again
+}
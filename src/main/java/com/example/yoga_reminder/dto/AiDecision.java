@@ -2,6 +2,13 @@ package com.example.yoga_reminder.dto;
 
 import com.example.yoga_reminder.domain.enums.IntentType;
 
-public record AiDecision(IntentType intent, Integer followUpDays) {
-}
+/**
+ * followUpHours is only set for PAY_LATER replies that ask for a same-day style follow-up
+ * ("remind me in 3 hours"); it takes precedence over followUpDays.
+ */
+public record AiDecision(IntentType intent, Integer followUpDays, Integer followUpHours) {
 
+    public AiDecision(IntentType intent, Integer followUpDays) {
+        this(intent, followUpDays, null);
+    }
+}
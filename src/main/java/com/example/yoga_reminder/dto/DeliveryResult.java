@@ -0,0 +1,21 @@
+package com.example.yoga_reminder.dto;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * Outcome of one message of a batch send. providerMessageId is set when the provider returned one;
+ * error is set when the message was not accepted.
+ */
+public record DeliveryResult(OutboundMessage message, boolean accepted, String providerMessageId, String error) {
+
+    public static DeliveryResult accepted(OutboundMessage message, String providerMessageId) {
+        return new DeliveryResult(message, true, providerMessageId, null);
+    }
+
+    public static DeliveryResult failed(OutboundMessage message, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        return new DeliveryResult(message, false, null, cause.getMessage());
+    }
+}
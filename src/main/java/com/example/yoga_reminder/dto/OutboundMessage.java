@@ -0,0 +1,4 @@
+package com.example.yoga_reminder.dto;
+
+public record OutboundMessage(String phoneNumber, String message) {
+}
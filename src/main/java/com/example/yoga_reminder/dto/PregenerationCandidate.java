@@ -0,0 +1,10 @@
+package com.example.yoga_reminder.dto;
+
+import java.time.LocalDate;
+
+/**
+ * An invoice whose next reminder is due on the pre-generation target date, with what its message needs.
+ */
+public record PregenerationCandidate(Long invoiceId, Integer reminderCount, Long invoiceVersion, String userName,
+                                     LocalDate subscriptionEndDate) {
+}
@@ -0,0 +1,53 @@
+package com.example.yoga_reminder.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import com.example.yoga_reminder.domain.enums.PaymentStatus;
+import com.example.yoga_reminder.domain.enums.SubscriptionStatus;
+
+/**
+ * Pre-hydrated view of one subscription in the renewal window: the subscription, its (optional) invoice,
+ * the user to contact and whether a reminder already went out today. Loaded set-based per chunk so the
+ * reminder path needs no per-row lookups.
+ */
+public record RenewalCandidate(
+        Long subscriptionId,
+        SubscriptionStatus subscriptionStatus,
+        LocalDate subscriptionEndDate,
+        String userName,
+        String userPhone,
+        Long invoiceId,
+        PaymentStatus paymentStatus,
+        Integer reminderCount,
+        LocalDate nextReminderDate,
+        LocalTime nextReminderTime,
+        Long invoiceVersion,
+        Boolean sentToday
+) {
+
+    public boolean hasInvoice() {
+        return invoiceId != null;
+    }
+
+    public boolean isSentToday() {
+        return Boolean.TRUE.equals(sentToday);
+    }
+
+    public int sentCount() {
+        return reminderCount == null ? 0 : reminderCount;
+    }
+
+    public long version() {
+        return invoiceVersion == null ? 0L : invoiceVersion;
+    }
+
+    /**
+     * Copy reflecting a schedule update this caller just applied (which also bumped the invoice version and
+     * cleared any explicit time of day).
+     */
+    public RenewalCandidate withNextReminderDate(LocalDate nextReminderDate) {
+        return new RenewalCandidate(subscriptionId, subscriptionStatus, subscriptionEndDate, userName, userPhone,
+                invoiceId, paymentStatus, reminderCount, nextReminderDate, null, version() + 1, sentToday);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.yoga_reminder.dto;
+
+import com.example.yoga_reminder.domain.enums.PaymentIntent;
+
+/**
+ * How often a reply text was classified with an intent, aggregated from payment_actions.
+ */
+public record ReplyIntentCount(String userReplyText, PaymentIntent detectedIntent, Long occurrences) {
+}
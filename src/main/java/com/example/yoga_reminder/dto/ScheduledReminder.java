@@ -0,0 +1,10 @@
+package com.example.yoga_reminder.dto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Minimal row the reminder timer keeps per invoice: when the next reminder is due.
+ */
+public record ScheduledReminder(Long invoiceId, LocalDate nextReminderDate, LocalTime nextReminderTime) {
+}
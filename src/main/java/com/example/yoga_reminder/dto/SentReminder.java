@@ -0,0 +1,11 @@
+package com.example.yoga_reminder.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A generated reminder waiting to be persisted (invoice transition + reminder log + outbox row). runDate is
+ * the day its send was claimed on, which the relay needs to settle the claim.
+ */
+public record SentReminder(RenewalCandidate candidate, String message, LocalDateTime sentAt, LocalDate runDate) {
+}
@@ -0,0 +1,37 @@
+package com.example.yoga_reminder.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Builder
+public class ReminderRunResponse {
+
+    private String runId;
+    private String status;
+    /**
+     * Checkpointed passes behind this id: one per shard with sharding enabled, otherwise one.
+     */
+    private List<String> passIds;
+
+    private long windowSize;
+    private long scanned;
+    private long due;
+    private long sent;
+    private long failed;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long elapsedSeconds;
+    private double scannedPerSecond;
+    private double sentPerSecond;
+    /**
+     * Seconds until scanning and sending are both expected to finish; null when finished or not yet
+     * estimable.
+     */
+    private Long etaSeconds;
+    private String error;
+}
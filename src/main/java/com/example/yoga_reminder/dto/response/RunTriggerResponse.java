@@ -0,0 +1,16 @@
+package com.example.yoga_reminder.dto.response;
+
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@Builder
+public class RunTriggerResponse {
+
+    private String runId;
+    /**
+     * True when the trigger joined a run that was already in progress instead of starting one.
+     */
+    private boolean joined;
+    private String statusUrl;
+}
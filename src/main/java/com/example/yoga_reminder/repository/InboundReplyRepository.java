@@ -0,0 +1,100 @@
+package com.example.yoga_reminder.repository;
+
+import com.example.yoga_reminder.domain.entity.InboundReply;
+import com.example.yoga_reminder.domain.enums.InboundReplyStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface InboundReplyRepository extends JpaRepository<InboundReply, Long> {
+
+    /**
+     * Invoices with queued replies, oldest first (by their earliest queued reply). Invoices that another
+     * worker is still processing are skipped, so replies of one invoice never run on two workers at once.
+     */
+    @Query("""
+            select r.invoiceId from InboundReply r
+            where r.status = 'RECEIVED'
+              and not exists (
+                  select 1 from InboundReply p
+                  where p.invoiceId = r.invoiceId
+                    and p.status = 'PROCESSING'
+              )
+            group by r.invoiceId
+            order by min(r.id)
+            """)
+    List<Long> findQueuedInvoiceIds(Pageable page);
+
+    /**
+     * Claims every queued reply of the given invoices for one drain cycle. Rows already claimed by another
+     * worker are left alone because of the status guard, and so are invoices with a reply in PROCESSING:
+     * a reply queued while an earlier one is being handled waits for the next cycle.
+     */
+    @Modifying
+    @Query("""
+            update InboundReply r
+            set r.status = com.example.yoga_reminder.domain.enums.InboundReplyStatus.PROCESSING,
+                r.claimToken = :claimToken,
+                r.claimedAt = :now,
+                r.attempts = r.attempts + 1
+            where r.invoiceId in :invoiceIds
+              and r.status = 'RECEIVED'
+              and not exists (
+                  select 1 from InboundReply p
+                  where p.invoiceId = r.invoiceId
+                    and p.status = 'PROCESSING'
+              )
+            """)
+    int claim(@Param("invoiceIds") Collection<Long> invoiceIds,
+              @Param("claimToken") String claimToken,
+              @Param("now") LocalDateTime now);
+
+    List<InboundReply> findByClaimTokenOrderByIdAsc(String claimToken);
+
+    @Modifying
+    @Query("""
+            update InboundReply r
+            set r.status = :status,
+                r.processedAt = :now,
+                r.lastError = :error
+            where r.id in :ids
+            """)
+    int complete(@Param("ids") Collection<Long> ids,
+                 @Param("status") InboundReplyStatus status,
+                 @Param("now") LocalDateTime now,
+                 @Param("error") String error);
+
+    @Modifying
+    @Query("""
+            update InboundReply r
+            set r.status = com.example.yoga_reminder.domain.enums.InboundReplyStatus.RECEIVED,
+                r.claimToken = null,
+                r.lastError = :error
+            where r.id in :ids
+            """)
+    int requeue(@Param("ids") Collection<Long> ids, @Param("error") String error);
+
+    /**
+     * Returns replies whose worker died mid-processing (claim older than the cutoff) to the queue.
+     */
+    @Modifying
+    @Query("""
+            update InboundReply r
+            set r.status = com.example.yoga_reminder.domain.enums.InboundReplyStatus.RECEIVED,
+                r.claimToken = null
+            where r.status = 'PROCESSING'
+              and r.claimedAt < :cutoff
+            """)
+    int releaseStaleClaims(@Param("cutoff") LocalDateTime cutoff);
+
+    long countByStatus(InboundReplyStatus status);
+
+    Optional<InboundReply> findFirstByStatusOrderByIdAsc(InboundReplyStatus status);
+}
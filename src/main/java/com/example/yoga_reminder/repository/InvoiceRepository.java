@@ -2,12 +2,19 @@ package com.example.yoga_reminder.repository;
 
 import com.example.yoga_reminder.domain.entity.Invoice;
 import com.example.yoga_reminder.domain.enums.PaymentStatus;
+import com.example.yoga_reminder.dto.PregenerationCandidate;
+import com.example.yoga_reminder.dto.RenewalCandidate;
+import com.example.yoga_reminder.dto.ScheduledReminder;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -45,5 +52,191 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
             where i.id = :invoiceId
             """)
     Optional<Invoice> findWithSubscriptionUserAndPlan(@Param("invoiceId") Long invoiceId);
-}
 
+    /**
+     * Keyset page over the due queue: PENDING invoices with nextReminderDate on or before today, ordered by
+     * invoice id, served by idx_invoice_status_next_reminder_date. Rows carry the same user and
+     * "already sent in [startOfDay, endOfDay]" data as the window query, restricted to the same window and shards.
+     */
+    @Query("""
+            select new com.example.yoga_reminder.dto.RenewalCandidate(
+                s.id, s.status, s.endDate, u.name, u.phoneNumber,
+                i.id, i.paymentStatus, i.reminderCount, i.nextReminderDate, i.nextReminderTime, i.version,
+                case when exists (
+                    select 1 from ReminderLog r
+                    where r.invoice = i
+                      and r.sentAt between :startOfDay and :endOfDay
+                ) then true else false end
+            )
+            from Invoice i
+            join i.subscription s
+            join s.user u
+            where i.paymentStatus = 'PENDING'
+              and i.nextReminderDate <= :today
+              and s.status = 'ACTIVE'
+              and s.endDate between :today and :noticeDate
+              and i.id > :afterId
+              and mod(s.id, :shardCount) in :shards
+            order by i.id
+            """)
+    List<RenewalCandidate> findDueCandidatesAfter(
+            @Param("today") LocalDate today,
+            @Param("noticeDate") LocalDate noticeDate,
+            @Param("startOfDay") LocalDateTime startOfDay,
+            @Param("endOfDay") LocalDateTime endOfDay,
+            @Param("afterId") Long afterId,
+            @Param("shardCount") Long shardCount,
+            @Param("shards") Collection<Long> shards,
+            Pageable page
+    );
+
+    /**
+     * Number of rows {@link #findDueCandidatesAfter} walks in total, for progress reporting.
+     */
+    @Query("""
+            select count(i)
+            from Invoice i
+            join i.subscription s
+            where i.paymentStatus = 'PENDING'
+              and i.nextReminderDate <= :today
+              and s.status = 'ACTIVE'
+              and s.endDate between :today and :noticeDate
+              and mod(s.id, :shardCount) in :shards
+            """)
+    long countDueQueue(
+            @Param("today") LocalDate today,
+            @Param("noticeDate") LocalDate noticeDate,
+            @Param("shardCount") Long shardCount,
+            @Param("shards") Collection<Long> shards
+    );
+
+    /**
+     * Same rows as {@link #findDueCandidatesAfter} but for specific invoices (the reminder timer's firings).
+     */
+    @Query("""
+            select new com.example.yoga_reminder.dto.RenewalCandidate(
+                s.id, s.status, s.endDate, u.name, u.phoneNumber,
+                i.id, i.paymentStatus, i.reminderCount, i.nextReminderDate, i.nextReminderTime, i.version,
+                case when exists (
+                    select 1 from ReminderLog r
+                    where r.invoice = i
+                      and r.sentAt between :startOfDay and :endOfDay
+                ) then true else false end
+            )
+            from Invoice i
+            join i.subscription s
+            join s.user u
+            where i.id in :invoiceIds
+              and i.paymentStatus = 'PENDING'
+              and i.nextReminderDate <= :today
+              and s.status = 'ACTIVE'
+              and s.endDate between :today and :noticeDate
+            """)
+    List<RenewalCandidate> findDueCandidatesByIds(
+            @Param("invoiceIds") Collection<Long> invoiceIds,
+            @Param("today") LocalDate today,
+            @Param("noticeDate") LocalDate noticeDate,
+            @Param("startOfDay") LocalDateTime startOfDay,
+            @Param("endOfDay") LocalDateTime endOfDay
+    );
+
+    /**
+     * Keyset page of PENDING invoices whose next reminder falls on date and that have no current staged
+     * message (same reminder step and invoice version), for overnight pre-generation.
+     */
+    @Query("""
+            select new com.example.yoga_reminder.dto.PregenerationCandidate(
+                i.id, i.reminderCount, i.version, u.name, s.endDate
+            )
+            from Invoice i
+            join i.subscription s
+            join s.user u
+            where i.paymentStatus = 'PENDING'
+              and i.nextReminderDate = :date
+              and s.status = 'ACTIVE'
+              and i.id > :afterId
+              and mod(s.id, :shardCount) in :shards
+              and not exists (
+                  select 1 from PregeneratedMessage p
+                  where p.invoiceId = i.id
+                    and p.reminderStep = i.reminderCount
+                    and p.invoiceVersion = i.version
+              )
+            order by i.id
+            """)
+    List<PregenerationCandidate> findPregenerationCandidatesAfter(
+            @Param("date") LocalDate date,
+            @Param("afterId") Long afterId,
+            @Param("shardCount") Long shardCount,
+            @Param("shards") Collection<Long> shards,
+            Pageable page
+    );
+
+    /**
+     * Keyset page of PENDING invoices with a reminder on or before until, for loading the reminder timer.
+     * Subscriptions that already ended before today are left out: the firing query would drop them anyway.
+     */
+    @Query("""
+            select new com.example.yoga_reminder.dto.ScheduledReminder(i.id, i.nextReminderDate, i.nextReminderTime)
+            from Invoice i
+            join i.subscription s
+            where i.paymentStatus = 'PENDING'
+              and i.nextReminderDate <= :until
+              and s.status = 'ACTIVE'
+              and s.endDate >= :today
+              and i.id > :afterId
+              and mod(s.id, :shardCount) in :shards
+            order by i.id
+            """)
+    List<ScheduledReminder> findScheduledAfter(
+            @Param("today") LocalDate today,
+            @Param("until") LocalDate until,
+            @Param("afterId") Long afterId,
+            @Param("shardCount") Long shardCount,
+            @Param("shards") Collection<Long> shards,
+            Pageable page
+    );
+
+    /**
+     * Creates the missing PENDING invoices of every active subscription in the window (and shards) in one
+     * INSERT ... SELECT. next_reminder_date follows the first reminder step: end_date - firstStep, caught up
+     * to today, or null when that would fall on/after the expiry day. Safe to re-run: existing invoices are
+     * filtered out and the unique subscription_id absorbs concurrent inserts.
+     */
+    @Modifying
+    @Query(value = """
+            insert into invoices (id, subscription_id, payment_status, next_reminder_date, reminder_count,
+                                  created_at, version)
+            select nextval('invoices_seq'), s.id, 'PENDING',
+                   case when greatest(s.end_date - :firstStep, :today) <= s.end_date - 1
+                        then greatest(s.end_date - :firstStep, :today) end,
+                   0, :now, 0
+            from subscriptions s
+            where s.status = 'ACTIVE'
+              and s.end_date between :today and :noticeDate
+              and mod(s.id, :shardCount) in (:shards)
+              and not exists (select 1 from invoices i where i.subscription_id = s.id)
+            on conflict (subscription_id) do nothing
+            """, nativeQuery = true)
+    int insertMissingInvoices(@Param("today") LocalDate today,
+                              @Param("noticeDate") LocalDate noticeDate,
+                              @Param("firstStep") int firstStep,
+                              @Param("shardCount") Long shardCount,
+                              @Param("shards") Collection<Long> shards,
+                              @Param("now") LocalDateTime now);
+
+    /**
+     * Direct schedule update for callers that work from a projection and hold no managed Invoice.
+     * Moving the date drops any explicit time of day.
+     */
+    @Modifying
+    @Query("""
+            update Invoice i
+            set i.nextReminderDate = :nextReminderDate,
+                i.nextReminderTime = null,
+                i.version = i.version + 1
+            where i.id = :invoiceId
+            """)
+    int updateNextReminderDate(@Param("invoiceId") Long invoiceId,
+                               @Param("nextReminderDate") LocalDate nextReminderDate);
+}
@@ -3,8 +3,13 @@ package com.example.yoga_reminder.repository;
 import com.example.yoga_reminder.domain.entity.Invoice;
 import com.example.yoga_reminder.domain.entity.PaymentAction;
 import com.example.yoga_reminder.domain.enums.PaymentIntent;
+import com.example.yoga_reminder.dto.ReplyIntentCount;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface PaymentActionRepository extends JpaRepository<PaymentAction, Long> {
@@ -20,4 +25,17 @@ public interface PaymentActionRepository extends JpaRepository<PaymentAction, Lo
      * (useful for analytics / AI tuning later)
      */
     List<PaymentAction> findByDetectedIntent(PaymentIntent detectedIntent);
+
+    /**
+     * Most frequent (reply text, intent) pairs since the given time, for warming the reply-intent cache.
+     */
+    @Query("""
+            select new com.example.yoga_reminder.dto.ReplyIntentCount(p.userReplyText, p.detectedIntent, count(p))
+            from PaymentAction p
+            where p.actionTime >= :since
+              and p.userReplyText is not null
+            group by p.userReplyText, p.detectedIntent
+            order by count(p) desc
+            """)
+    List<ReplyIntentCount> findFrequentReplies(@Param("since") LocalDateTime since, Pageable pageable);
 }
@@ -0,0 +1,39 @@
+package com.example.yoga_reminder.repository;
+
+import com.example.yoga_reminder.domain.entity.PregeneratedMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+public interface PregeneratedMessageRepository extends JpaRepository<PregeneratedMessage, Long> {
+
+    /**
+     * The staged text for this step, provided the invoice has not changed since it was generated.
+     */
+    @Query("""
+            select p.message from PregeneratedMessage p
+            where p.invoiceId = :invoiceId
+              and p.reminderStep = :reminderStep
+              and p.invoiceVersion = :invoiceVersion
+            """)
+    Optional<String> findMessage(
+            @Param("invoiceId") Long invoiceId,
+            @Param("reminderStep") int reminderStep,
+            @Param("invoiceVersion") long invoiceVersion
+    );
+
+    /**
+     * Drops every staged message of an invoice whose schedule changed.
+     */
+    @Modifying
+    @Query("delete from PregeneratedMessage p where p.invoiceId = :invoiceId")
+    int deleteByInvoiceId(@Param("invoiceId") Long invoiceId);
+
+    @Modifying
+    @Query("delete from PregeneratedMessage p where p.forDate < :date")
+    int deleteForDatesBefore(@Param("date") LocalDate date);
+}
@@ -26,8 +26,8 @@ public interface ReminderLogRepository extends JpaRepository<ReminderLog, Long>
     boolean existsByInvoiceAndSentAtBetween(Invoice invoice, LocalDateTime start, LocalDateTime end);
 
     /**
-     * Lightweight existence check to confirm at least one reminder was sent for this invoice.
-     * Used to ensure replies are only processed after a reminder was delivered.
+     * Lightweight existence check for a reminder logged before the given time. Stands in for delivered
+     * outbox rows once those have been purged.
      */
-    boolean existsByInvoice(Invoice invoice);
+    boolean existsByInvoiceAndSentAtBefore(Invoice invoice, LocalDateTime before);
 }
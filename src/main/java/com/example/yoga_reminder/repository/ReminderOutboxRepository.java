@@ -0,0 +1,143 @@
+package com.example.yoga_reminder.repository;
+
+import com.example.yoga_reminder.domain.entity.ReminderOutbox;
+import com.example.yoga_reminder.domain.enums.OutboxStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface ReminderOutboxRepository extends JpaRepository<ReminderOutbox, Long> {
+
+    /**
+     * Rows ready to send (first attempt or retry time reached), oldest first.
+     */
+    @Query("""
+            select o.id from ReminderOutbox o
+            where o.status = 'PENDING'
+              and o.nextAttemptAt <= :now
+            order by o.id
+            """)
+    List<Long> findReadyIds(@Param("now") LocalDateTime now, Pageable page);
+
+    /**
+     * Claims the given rows for one relay cycle. Rows claimed by another relay are left alone because of
+     * the status guard.
+     */
+    @Modifying
+    @Query("""
+            update ReminderOutbox o
+            set o.status = com.example.yoga_reminder.domain.enums.OutboxStatus.SENDING,
+                o.claimToken = :claimToken,
+                o.claimedAt = :now,
+                o.attempts = o.attempts + 1
+            where o.id in :ids
+              and o.status = 'PENDING'
+            """)
+    int claim(@Param("ids") Collection<Long> ids,
+              @Param("claimToken") String claimToken,
+              @Param("now") LocalDateTime now);
+
+    List<ReminderOutbox> findByClaimTokenOrderByIdAsc(String claimToken);
+
+    /**
+     * Like {@link #retry} and {@link #markFailed}, only applies to a row still in SENDING under the caller's
+     * claim: a late result cannot undo a row meanwhile failed as in doubt (and so get it resent), and the
+     * in-doubt sweep cannot overwrite a result that arrived first. Returns 0 when the row was not the caller's.
+     */
+    @Modifying
+    @Query("""
+            update ReminderOutbox o
+            set o.status = com.example.yoga_reminder.domain.enums.OutboxStatus.DELIVERED,
+                o.deliveredAt = :now,
+                o.providerMessageId = :providerMessageId,
+                o.lastError = null
+            where o.id = :id
+              and o.status = 'SENDING'
+              and o.claimToken = :claimToken
+            """)
+    int markDelivered(@Param("id") Long id,
+                      @Param("claimToken") String claimToken,
+                      @Param("providerMessageId") String providerMessageId,
+                      @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            update ReminderOutbox o
+            set o.status = com.example.yoga_reminder.domain.enums.OutboxStatus.PENDING,
+                o.claimToken = null,
+                o.nextAttemptAt = :nextAttemptAt,
+                o.lastError = :error
+            where o.id = :id
+              and o.status = 'SENDING'
+              and o.claimToken = :claimToken
+            """)
+    int retry(@Param("id") Long id,
+              @Param("claimToken") String claimToken,
+              @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+              @Param("error") String error);
+
+    @Modifying
+    @Query("""
+            update ReminderOutbox o
+            set o.status = com.example.yoga_reminder.domain.enums.OutboxStatus.FAILED,
+                o.lastError = :error
+            where o.id = :id
+              and o.status = 'SENDING'
+              and o.claimToken = :claimToken
+            """)
+    int markFailed(@Param("id") Long id,
+                   @Param("claimToken") String claimToken,
+                   @Param("error") String error);
+
+    /**
+     * Rows whose relay died between claim and result (claim older than the cutoff). Delivery is unknown,
+     * so they are failed rather than resent. Claims the calling relay still has in flight are skipped: it
+     * records their results itself.
+     */
+    default List<ReminderOutbox> findStaleClaims(LocalDateTime cutoff, Collection<String> ownClaimTokens) {
+        // An empty NOT IN list is not portable, so it gets its own query.
+        return ownClaimTokens.isEmpty()
+                ? findStaleClaims(cutoff)
+                : findStaleClaimsExcluding(cutoff, ownClaimTokens);
+    }
+
+    @Query("""
+            select o from ReminderOutbox o
+            where o.status = 'SENDING'
+              and o.claimedAt < :cutoff
+            """)
+    List<ReminderOutbox> findStaleClaims(@Param("cutoff") LocalDateTime cutoff);
+
+    @Query("""
+            select o from ReminderOutbox o
+            where o.status = 'SENDING'
+              and o.claimedAt < :cutoff
+              and o.claimToken not in :ownClaimTokens
+            """)
+    List<ReminderOutbox> findStaleClaimsExcluding(@Param("cutoff") LocalDateTime cutoff,
+                                                  @Param("ownClaimTokens") Collection<String> ownClaimTokens);
+
+    @Modifying
+    @Query("""
+            delete from ReminderOutbox o
+            where o.status in ('DELIVERED', 'FAILED')
+              and o.createdAt < :cutoff
+            """)
+    int deleteFinishedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Whether a reminder for the invoice reached the given status; served by idx_reminder_outbox_invoice.
+     */
+    boolean existsByInvoiceIdAndStatus(Long invoiceId, OutboxStatus status);
+
+    long countByStatus(OutboxStatus status);
+
+    Optional<ReminderOutbox> findFirstByStatusOrderByIdAsc(OutboxStatus status);
+}
@@ -0,0 +1,100 @@
+package com.example.yoga_reminder.repository;
+
+import com.example.yoga_reminder.domain.entity.ReminderRun;
+import com.example.yoga_reminder.domain.enums.ReminderRunStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface ReminderRunRepository extends JpaRepository<ReminderRun, String> {
+
+    Optional<ReminderRun> findFirstByRunDateAndScopeAndModeAndStatusInOrderByStartedAtDesc(
+            LocalDate runDate, String scope, String mode, Collection<ReminderRunStatus> statuses);
+
+    /**
+     * The run of a (date, scope, mode). First by start time only for databases that predate the unique key.
+     */
+    Optional<ReminderRun> findFirstByRunDateAndScopeAndModeOrderByStartedAtDesc(
+            LocalDate runDate, String scope, String mode);
+
+    /**
+     * Takes over a suspended run, or a running one whose owner stopped checkpointing before staleBefore.
+     * Returns 0 when the run is still live elsewhere (or someone else took it over first).
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update ReminderRun r
+            set r.status = com.example.yoga_reminder.domain.enums.ReminderRunStatus.RUNNING,
+                r.nodeId = :nodeId,
+                r.updatedAt = :now,
+                r.finishedAt = null
+            where r.runId = :runId
+              and (r.status = 'SUSPENDED' or (r.status = 'RUNNING' and r.updatedAt < :staleBefore))
+            """)
+    int claim(@Param("runId") String runId, @Param("nodeId") String nodeId, @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Restarts a completed run from the start of the window for another pass the same day; its items (and so
+     * what was already sent) are kept. Returns 0 when someone else reopened it first.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("""
+            update ReminderRun r
+            set r.status = com.example.yoga_reminder.domain.enums.ReminderRunStatus.RUNNING,
+                r.nodeId = :nodeId,
+                r.lastKey = 0,
+                r.windowSize = :windowSize,
+                r.scanned = 0,
+                r.due = 0,
+                r.startedAt = :now,
+                r.updatedAt = :now,
+                r.finishedAt = null
+            where r.runId = :runId
+              and r.status = 'COMPLETED'
+            """)
+    int reopen(@Param("runId") String runId, @Param("nodeId") String nodeId, @Param("windowSize") long windowSize,
+               @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            update ReminderRun r
+            set r.lastKey = :lastKey,
+                r.scanned = r.scanned + :scanned,
+                r.due = r.due + :due,
+                r.updatedAt = :now
+            where r.runId = :runId
+            """)
+    int checkpoint(@Param("runId") String runId, @Param("lastKey") long lastKey, @Param("scanned") long scanned,
+                   @Param("due") long due, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            update ReminderRun r
+            set r.sent = :sent,
+                r.failed = :failed,
+                r.updatedAt = :now
+            where r.runId = :runId
+            """)
+    int touch(@Param("runId") String runId, @Param("sent") long sent, @Param("failed") long failed,
+              @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("""
+            update ReminderRun r
+            set r.status = :status,
+                r.sent = :sent,
+                r.failed = :failed,
+                r.updatedAt = :now,
+                r.finishedAt = :now
+            where r.runId = :runId
+            """)
+    int finish(@Param("runId") String runId, @Param("status") ReminderRunStatus status, @Param("sent") long sent,
+               @Param("failed") long failed, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,114 @@
+package com.example.yoga_reminder.repository;
+
+import com.example.yoga_reminder.domain.entity.ShardLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ShardLeaseRepository extends JpaRepository<ShardLease, Integer> {
+
+    /**
+     * Creates the lease row for a shard unless another node already did.
+     */
+    @Modifying
+    @Query(value = "insert into shard_leases (shard_id) values (:shardId) on conflict (shard_id) do nothing",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("shardId") int shardId);
+
+    /**
+     * Extends every lease this node still holds. Leases that already expired are not revived here because
+     * another node may have taken them over; they go through {@link #tryAcquire} again.
+     */
+    @Modifying
+    @Query("""
+            update ShardLease l
+            set l.leaseUntil = :until
+            where l.owner = :owner
+              and l.leaseUntil > :now
+            """)
+    int renew(@Param("owner") String owner, @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Query("""
+            select l.shardId from ShardLease l
+            where l.owner = :owner
+              and l.leaseUntil > :now
+            order by l.shardId
+            """)
+    List<Integer> findOwnedShardIds(@Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    @Query("""
+            select l.shardId from ShardLease l
+            where l.owner is null
+               or l.leaseUntil <= :now
+            order by l.shardId
+            """)
+    List<Integer> findClaimableShardIds(@Param("now") LocalDateTime now);
+
+    /**
+     * Claims a free or expired shard. Returns 0 when another node won the race.
+     */
+    @Modifying
+    @Query("""
+            update ShardLease l
+            set l.owner = :owner,
+                l.leaseUntil = :until
+            where l.shardId = :shardId
+              and (l.owner is null or l.owner = :owner or l.leaseUntil <= :now)
+            """)
+    int tryAcquire(@Param("shardId") int shardId,
+                   @Param("owner") String owner,
+                   @Param("now") LocalDateTime now,
+                   @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("""
+            update ShardLease l
+            set l.owner = null,
+                l.leaseUntil = null
+            where l.owner = :owner
+              and l.shardId in :shardIds
+            """)
+    int release(@Param("owner") String owner, @Param("shardIds") List<Integer> shardIds);
+
+    @Modifying
+    @Query("""
+            update ShardLease l
+            set l.owner = null,
+                l.leaseUntil = null
+            where l.owner = :owner
+            """)
+    int releaseAll(@Param("owner") String owner);
+
+    /**
+     * Owned shards whose renewal pass has not completed on the given day.
+     */
+    @Query("""
+            select l.shardId from ShardLease l
+            where l.owner = :owner
+              and l.leaseUntil > :now
+              and (l.lastRunDate is null or l.lastRunDate < :runDate)
+            order by l.shardId
+            """)
+    List<Integer> findPendingShardIds(@Param("owner") String owner,
+                                      @Param("now") LocalDateTime now,
+                                      @Param("runDate") LocalDate runDate);
+
+    /**
+     * Records a completed pass; only the current owner may do so.
+     */
+    @Modifying
+    @Query("""
+            update ShardLease l
+            set l.lastRunDate = :runDate
+            where l.shardId = :shardId
+              and l.owner = :owner
+            """)
+    int markRun(@Param("shardId") int shardId, @Param("owner") String owner, @Param("runDate") LocalDate runDate);
+
+    boolean existsByLastRunDate(LocalDate runDate);
+}
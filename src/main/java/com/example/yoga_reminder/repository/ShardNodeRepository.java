@@ -0,0 +1,11 @@
+package com.example.yoga_reminder.repository;
+
+import com.example.yoga_reminder.domain.entity.ShardNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+
+public interface ShardNodeRepository extends JpaRepository<ShardNode, String> {
+
+    long countByLastHeartbeatAfter(LocalDateTime cutoff);
+}
@@ -1,23 +1,68 @@
 package com.example.yoga_reminder.repository;
 
 import com.example.yoga_reminder.domain.entity.Subscription;
+import com.example.yoga_reminder.dto.RenewalCandidate;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface SubscriptionRepository extends JpaRepository<Subscription, Long> {
 
+    /**
+     * Keyset page over the expiry window: the next subscriptions with id greater than afterId, ordered by id,
+     * resolved in one set-based query together with the user, the optional invoice and a
+     * "reminder already sent in [startOfDay, endOfDay]" flag. Page size comes from the pageable (offset 0).
+     * Only subscriptions whose id modulo shardCount is in shards are returned; pass 1 and [0] for all.
+     */
     @Query("""
-        SELECT s FROM Subscription s
+        SELECT new com.example.yoga_reminder.dto.RenewalCandidate(
+            s.id, s.status, s.endDate, u.name, u.phoneNumber,
+            i.id, i.paymentStatus, i.reminderCount, i.nextReminderDate, i.nextReminderTime, i.version,
+            CASE WHEN EXISTS (
+                SELECT 1 FROM ReminderLog r
+                WHERE r.invoice = i
+                  AND r.sentAt BETWEEN :startOfDay AND :endOfDay
+            ) THEN true ELSE false END
+        )
+        FROM Subscription s
+        JOIN s.user u
+        LEFT JOIN Invoice i ON i.subscription = s
         WHERE s.status = 'ACTIVE'
           AND s.endDate BETWEEN :today AND :noticeDate
+          AND s.id > :afterId
+          AND mod(s.id, :shardCount) IN :shards
+        ORDER BY s.id
     """)
-    List<Subscription> findExpiringSubscriptions(
+    List<RenewalCandidate> findRenewalCandidatesAfter(
             @Param("today") LocalDate today,
-            @Param("noticeDate") LocalDate noticeDate
+            @Param("noticeDate") LocalDate noticeDate,
+            @Param("startOfDay") LocalDateTime startOfDay,
+            @Param("endOfDay") LocalDateTime endOfDay,
+            @Param("afterId") Long afterId,
+            @Param("shardCount") Long shardCount,
+            @Param("shards") Collection<Long> shards,
+            Pageable page
     );
-}
 
+    /**
+     * Size of the expiry window for the given shards (what a WINDOW pass will scan), for progress reporting.
+     */
+    @Query("""
+        SELECT count(s) FROM Subscription s
+        WHERE s.status = 'ACTIVE'
+          AND s.endDate BETWEEN :today AND :noticeDate
+          AND mod(s.id, :shardCount) IN :shards
+    """)
+    long countRenewalWindow(
+            @Param("today") LocalDate today,
+            @Param("noticeDate") LocalDate noticeDate,
+            @Param("shardCount") Long shardCount,
+            @Param("shards") Collection<Long> shards
+    );
+}
@@ -0,0 +1,236 @@
+package com.example.yoga_reminder.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary min-heap of (deadline, invoice id) pairs kept in parallel primitive arrays. Rescheduling an id
+ * pushes a new entry and leaves the old one behind; stale entries are recognised against {@code current}
+ * when they reach the top and are discarded. {@code current} is an open-addressing long-to-long map, so a
+ * scheduled invoice costs no boxed objects either. Not thread-safe; {@link ReminderTimer} guards it.
+ */
+final class DeadlineHeap {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] deadlines = new long[INITIAL_CAPACITY];
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int size;
+
+    // Live deadline per id; heap entries that disagree with it are stale.
+    private final LiveDeadlines current = new LiveDeadlines();
+
+    /**
+     * Adds or moves the id to the given deadline (epoch millis). Returns true when the earliest deadline
+     * changed, i.e. a waiting consumer should re-evaluate its sleep.
+     */
+    boolean schedule(long id, long deadline) {
+        long previous = current.put(id, deadline);
+        if (previous == deadline) {
+            return false;
+        }
+        long earliest = peekDeadline();
+        push(deadline, id);
+        if (size > 2 * current.size() + INITIAL_CAPACITY) {
+            compact();
+        }
+        return deadline < earliest;
+    }
+
+    void remove(long id) {
+        current.remove(id);
+    }
+
+    /**
+     * Earliest live deadline, or Long.MAX_VALUE when empty.
+     */
+    long peekDeadline() {
+        discardStaleTop();
+        return size == 0 ? Long.MAX_VALUE : deadlines[0];
+    }
+
+    /**
+     * Removes and returns up to max ids whose deadline is at or before now, earliest first.
+     */
+    List<Long> pollDue(long now, int max) {
+        List<Long> due = new ArrayList<>();
+        while (due.size() < max) {
+            discardStaleTop();
+            if (size == 0 || deadlines[0] > now) {
+                break;
+            }
+            long id = ids[0];
+            current.remove(id);
+            pop();
+            due.add(id);
+        }
+        return due;
+    }
+
+    int liveSize() {
+        return current.size();
+    }
+
+    private void discardStaleTop() {
+        while (size > 0) {
+            if (current.get(ids[0]) == deadlines[0]) {
+                return;
+            }
+            pop();
+        }
+    }
+
+    private void push(long deadline, long id) {
+        if (size == deadlines.length) {
+            deadlines = Arrays.copyOf(deadlines, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (deadlines[parent] <= deadline) {
+                break;
+            }
+            deadlines[i] = deadlines[parent];
+            ids[i] = ids[parent];
+            i = parent;
+        }
+        deadlines[i] = deadline;
+        ids[i] = id;
+    }
+
+    private void pop() {
+        size--;
+        if (size == 0) {
+            return;
+        }
+        long deadline = deadlines[size];
+        long id = ids[size];
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && deadlines[child + 1] < deadlines[child]) {
+                child++;
+            }
+            if (deadline <= deadlines[child]) {
+                break;
+            }
+            deadlines[i] = deadlines[child];
+            ids[i] = ids[child];
+            i = child;
+        }
+        deadlines[i] = deadline;
+        ids[i] = id;
+    }
+
+    /**
+     * Rebuilds the heap from live entries only, once stale entries dominate.
+     */
+    private void compact() {
+        int capacity = Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, current.size())) << 1);
+        deadlines = new long[capacity];
+        ids = new long[capacity];
+        size = 0;
+        for (int slot = 0; slot < current.used.length; slot++) {
+            if (current.used[slot]) {
+                push(current.values[slot], current.keys[slot]);
+            }
+        }
+    }
+
+    /**
+     * Linear-probing id -> deadline map over primitive arrays. Removal shifts later entries of the probe run
+     * back instead of leaving tombstones, so lookups never slow down as ids come and go.
+     */
+    private static final class LiveDeadlines {
+
+        /**
+         * Returned for a missing id; deadlines are epoch millis and never take this value.
+         */
+        static final long ABSENT = Long.MIN_VALUE;
+
+        private long[] keys = new long[INITIAL_CAPACITY];
+        private long[] values = new long[INITIAL_CAPACITY];
+        private boolean[] used = new boolean[INITIAL_CAPACITY];
+        private int mask = INITIAL_CAPACITY - 1;
+        private int size;
+
+        long get(long key) {
+            for (int slot = slot(key); used[slot]; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return ABSENT;
+        }
+
+        /**
+         * Returns the previous value, or ABSENT.
+         */
+        long put(long key, long value) {
+            int slot = slot(key);
+            for (; used[slot]; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    long previous = values[slot];
+                    values[slot] = value;
+                    return previous;
+                }
+            }
+            used[slot] = true;
+            keys[slot] = key;
+            values[slot] = value;
+            if (++size > (mask + 1) / 4 * 3) {
+                resize(keys.length * 2);
+            }
+            return ABSENT;
+        }
+
+        void remove(long key) {
+            int gap = slot(key);
+            while (used[gap] && keys[gap] != key) {
+                gap = (gap + 1) & mask;
+            }
+            if (!used[gap]) {
+                return;
+            }
+            // Pull back every later entry of the run whose home slot does not lie between the gap and it.
+            for (int slot = (gap + 1) & mask; used[slot]; slot = (slot + 1) & mask) {
+                int home = slot(keys[slot]);
+                if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                    keys[gap] = keys[slot];
+                    values[gap] = values[slot];
+                    gap = slot;
+                }
+            }
+            used[gap] = false;
+            size--;
+        }
+
+        int size() {
+            return size;
+        }
+
+        private int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L; // Fibonacci hashing; ids are mostly sequential
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            long[] oldValues = values;
+            boolean[] oldUsed = used;
+            keys = new long[capacity];
+            values = new long[capacity];
+            used = new boolean[capacity];
+            mask = capacity - 1;
+            size = 0;
+            for (int i = 0; i < oldUsed.length; i++) {
+                if (oldUsed[i]) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.yoga_reminder.scheduler;
+
+import com.example.yoga_reminder.config.PregenerationProperties;
+import com.example.yoga_reminder.dto.PregenerationCandidate;
+import com.example.yoga_reminder.repository.InvoiceRepository;
+import com.example.yoga_reminder.repository.PregeneratedMessageRepository;
+import com.example.yoga_reminder.service.AiService;
+import com.example.yoga_reminder.service.sharding.ShardLeaseManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Generates tomorrow's reminder texts off-peak and stages them in pregenerated_messages, so the morning
+ * pass only reads and sends. Rows are keyed by (invoice, reminder step) and carry the invoice version;
+ * the dispatch pipeline ignores a row once the invoice changed, and PaymentServiceImpl deletes the rows
+ * of an invoice whose schedule a reply changed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReminderPregenerator {
+
+    private static final String UPSERT_SQL = """
+            insert into pregenerated_messages
+                (id, invoice_id, reminder_step, invoice_version, for_date, message, generated_at)
+            values (nextval('pregenerated_messages_seq'), ?, ?, ?, ?, ?, ?)
+            on conflict (invoice_id, reminder_step) do update
+            set invoice_version = excluded.invoice_version,
+                for_date = excluded.for_date,
+                message = excluded.message,
+                generated_at = excluded.generated_at
+            """;
+    private static final int[] UPSERT_TYPES = {Types.BIGINT, Types.INTEGER, Types.BIGINT, Types.DATE,
+            Types.VARCHAR, Types.TIMESTAMP};
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+
+    private final InvoiceRepository invoiceRepository;
+    private final PregeneratedMessageRepository pregeneratedMessageRepository;
+    private final AiService aiService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardLeaseManager shardLeaseManager;
+    private final PregenerationProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Scheduled(cron = "${reminder.pregeneration.cron:0 0 2 * * *}")
+    public void pregenerate() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate tomorrow = today.plusDays(1);
+
+        Integer purged = transactionTemplate.execute(status ->
+                pregeneratedMessageRepository.deleteForDatesBefore(today));
+        log.info("Purged {} stale pre-generated message(s)", purged);
+
+        // With sharding, each node stages the shards it currently leases.
+        long shardCount = shardLeaseManager.isEnabled() ? shardLeaseManager.getShardCount() : 1L;
+        List<Long> shards = shardLeaseManager.isEnabled() ? shardLeaseManager.ownedShardIds() : List.of(0L);
+        if (shards.isEmpty()) {
+            log.info("No shards leased; skipping reminder pre-generation");
+            return;
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Semaphore permits = new Semaphore(properties.getConcurrency());
+        long afterId = 0L;
+        int staged = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            while (true) {
+                List<PregenerationCandidate> page = invoiceRepository.findPregenerationCandidatesAfter(tomorrow,
+                        afterId, shardCount, shards, PageRequest.of(0, properties.getPageSize()));
+                if (page.isEmpty()) {
+                    break;
+                }
+                List<Object[]> rows = generate(page, tomorrow, executor, permits);
+                if (!rows.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPSERT_SQL, rows, UPSERT_TYPES);
+                    staged += rows.size();
+                }
+                afterId = page.get(page.size() - 1).invoiceId();
+            }
+        } finally {
+            sample.stop(meterRegistry.timer("reminder.pregeneration.run"));
+        }
+        meterRegistry.counter("reminder.pregeneration.staged").increment(staged);
+        log.info("Pre-generated {} reminder message(s) for {}", staged, tomorrow);
+    }
+
+    private List<Object[]> generate(List<PregenerationCandidate> page, LocalDate forDate, ExecutorService executor,
+                                    Semaphore permits) {
+        List<Future<Object[]>> running = new ArrayList<>(page.size());
+        for (PregenerationCandidate candidate : page) {
+            running.add(executor.submit(() -> {
+                permits.acquire();
+                try {
+                    String message = aiService.generateReminderMessage(candidate.userName(),
+                            candidate.subscriptionEndDate());
+                    if (message == null || message.isBlank() || message.length() > MAX_MESSAGE_LENGTH) {
+                        return null;
+                    }
+                    return new Object[]{candidate.invoiceId(), candidate.reminderCount(),
+                            candidate.invoiceVersion(), forDate, message, LocalDateTime.now()};
+                } finally {
+                    permits.release();
+                }
+            }));
+        }
+
+        List<Object[]> rows = new ArrayList<>(page.size());
+        for (Future<Object[]> result : running) {
+            try {
+                Object[] row = result.get();
+                if (row != null) {
+                    rows.add(row);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception ex) {
+                // Not staged: the morning pass generates this one itself.
+                log.warn("Pre-generation failed for one invoice. reason={}", ex.getMessage());
+            }
+        }
+        return rows;
+    }
+}
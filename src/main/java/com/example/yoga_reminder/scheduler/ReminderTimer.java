@@ -0,0 +1,200 @@
+package com.example.yoga_reminder.scheduler;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.yoga_reminder.config.ReminderSchedulerProperties;
+import com.example.yoga_reminder.config.ReminderTimerProperties;
+import com.example.yoga_reminder.dto.ScheduledReminder;
+import com.example.yoga_reminder.repository.InvoiceRepository;
+import com.example.yoga_reminder.service.sharding.ShardLeaseManager;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fires reminders continuously as they come due. Upcoming invoices (nextReminderDate within the horizon)
+ * are loaded from the database on startup and on every reload into a {@link DeadlineHeap}; one thread
+ * sleeps until the earliest deadline and hands due invoice ids to the scheduler, which re-reads them and
+ * dispatches those still due. Reminders without an explicit time of day get a stable slot in the send
+ * window derived from the invoice id, so the day's load is spread instead of spiking at 9 AM.
+ */
+@Component
+@Slf4j
+public class ReminderTimer {
+
+    private final RenewalReminderScheduler scheduler;
+    private final InvoiceRepository invoiceRepository;
+    private final ShardLeaseManager shardLeaseManager;
+    private final ReminderTimerProperties properties;
+    private final ReminderSchedulerProperties schedulerProperties;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition earliestChanged = lock.newCondition();
+    private final DeadlineHeap heap = new DeadlineHeap();
+    private final int windowMinutes;
+
+    private volatile Thread firingThread;
+
+    public ReminderTimer(RenewalReminderScheduler scheduler,
+                         InvoiceRepository invoiceRepository,
+                         ShardLeaseManager shardLeaseManager,
+                         ReminderTimerProperties properties,
+                         ReminderSchedulerProperties schedulerProperties,
+                         MeterRegistry meterRegistry) {
+        this.windowMinutes = (int) ChronoUnit.MINUTES.between(properties.getSendWindowStart(),
+                properties.getSendWindowEnd());
+        if (windowMinutes <= 0) {
+            throw new IllegalArgumentException("reminder.timer.send-window-end must be after send-window-start");
+        }
+        this.scheduler = scheduler;
+        this.invoiceRepository = invoiceRepository;
+        this.shardLeaseManager = shardLeaseManager;
+        this.properties = properties;
+        this.schedulerProperties = schedulerProperties;
+        Gauge.builder("reminder.timer.pending", this, ReminderTimer::pending)
+                .description("Invoices waiting in the in-memory reminder timer")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        reload();
+        firingThread = Thread.ofPlatform().daemon().name("reminder-timer").start(this::fireLoop);
+        log.info("Reminder timer started with {} pending invoice(s)", pending());
+    }
+
+    @PreDestroy
+    void stop() {
+        Thread thread = firingThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Re-reads upcoming invoices so the timer recovers after restarts and sees invoices scheduled by other
+     * writers (daily materialization, reminder sends, other nodes).
+     */
+    @Scheduled(fixedDelayString = "${reminder.timer.reload-interval:PT15M}",
+            initialDelayString = "${reminder.timer.reload-interval:PT15M}")
+    public void reload() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long shardCount = 1;
+        List<Long> shards = List.of(0L);
+        if (shardLeaseManager.isEnabled()) {
+            shardCount = shardLeaseManager.getShardCount();
+            shards = shardLeaseManager.ownedShardIds();
+            if (shards.isEmpty()) {
+                return;
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate until = now.plus(properties.getHorizon()).toLocalDate();
+        long lastId = 0L;
+        int loaded = 0;
+        while (true) {
+            List<ScheduledReminder> page = invoiceRepository.findScheduledAfter(now.toLocalDate(), until, lastId,
+                    shardCount, shards, PageRequest.of(0, schedulerProperties.getPageSize()));
+            if (page.isEmpty()) {
+                break;
+            }
+            for (ScheduledReminder reminder : page) {
+                schedule(reminder.invoiceId(), reminder.nextReminderDate(), reminder.nextReminderTime());
+            }
+            loaded += page.size();
+            lastId = page.get(page.size() - 1).invoiceId();
+        }
+        log.info("Reminder timer reloaded {} upcoming invoice(s) up to {}", loaded, until);
+    }
+
+    /**
+     * Arms (or moves) the timer for one invoice. No-op when the timer is disabled.
+     */
+    public void schedule(Long invoiceId, LocalDate date, LocalTime time) {
+        if (!properties.isEnabled() || invoiceId == null || date == null) {
+            return;
+        }
+        LocalTime timeOfDay = time != null ? time : spreadSlot(invoiceId);
+        long deadline = LocalDateTime.of(date, timeOfDay).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        lock.lock();
+        try {
+            if (heap.schedule(invoiceId, deadline)) {
+                earliestChanged.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void fireLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Long> due;
+            lock.lock();
+            try {
+                long wait;
+                while ((wait = heap.peekDeadline() - System.currentTimeMillis()) > 0) {
+                    earliestChanged.await(wait, TimeUnit.MILLISECONDS);
+                }
+                due = heap.pollDue(System.currentTimeMillis(), properties.getBatchSize());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                scheduler.processInvoices(due);
+            } catch (RuntimeException ex) {
+                // Dropped ids are still due in the database and come back with the next reload.
+                log.warn("Reminder timer failed to process {} invoice(s): {}", due.size(), ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Stable minute within the send window for an invoice (Fibonacci hashing of the id).
+     */
+    private LocalTime spreadSlot(long invoiceId) {
+        long mixed = invoiceId * 0x9E3779B97F4A7C15L;
+        int minute = (int) Long.remainderUnsigned(mixed, windowMinutes);
+        return properties.getSendWindowStart().plusMinutes(minute);
+    }
+
+    private double pending() {
+        lock.lock();
+        try {
+            return heap.liveSize();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,20 +1,48 @@
 package com.example.yoga_reminder.scheduler;
 
-import com.example.yoga_reminder.domain.entity.Invoice;
-import com.example.yoga_reminder.domain.entity.Subscription;
+import com.example.yoga_reminder.config.ReminderRunProperties;
+import com.example.yoga_reminder.config.ReminderSchedulerProperties;
+import com.example.yoga_reminder.config.ReminderSchedulerProperties.SelectionMode;
+import com.example.yoga_reminder.config.ReminderTimerProperties;
+import com.example.yoga_reminder.domain.entity.ReminderRun;
 import com.example.yoga_reminder.domain.enums.PaymentStatus;
+import com.example.yoga_reminder.domain.enums.ReminderRunStatus;
 import com.example.yoga_reminder.domain.enums.SubscriptionStatus;
+import com.example.yoga_reminder.dto.RenewalCandidate;
 import com.example.yoga_reminder.repository.InvoiceRepository;
 import com.example.yoga_reminder.repository.SubscriptionRepository;
 import com.example.yoga_reminder.service.ReminderService;
+import com.example.yoga_reminder.service.dispatch.DispatchOutcome;
+import com.example.yoga_reminder.service.dispatch.ReminderDispatchPipeline;
+import com.example.yoga_reminder.service.logging.ReminderEvent;
+import com.example.yoga_reminder.service.logging.ReminderEventLog;
+import com.example.yoga_reminder.service.run.ReminderRunStore;
+import com.example.yoga_reminder.service.sharding.ShardLeaseManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
@@ -27,98 +55,400 @@ public class RenewalReminderScheduler {
     private final SubscriptionRepository subscriptionRepository;
     private final InvoiceRepository invoiceRepository;
     private final ReminderService reminderService;
+    private final ReminderDispatchPipeline dispatchPipeline;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ReminderSchedulerProperties properties;
+    private final ShardLeaseManager shardLeaseManager;
+    private final ReminderTimerProperties timerProperties;
+    private final MeterRegistry meterRegistry;
+    private final ReminderEventLog eventLog;
+    private final ReminderRunStore runStore;
+    private final ReminderRunProperties runProperties;
+    private final ReentrantLock shardRunLock = new ReentrantLock();
 
     /**
-     * Runs daily to handle expiring subscriptions
+     * Runs daily to handle expiring subscriptions.
+     * The window is walked in keyset-paginated chunks (by subscription id). Each chunk commits in its own
+     * short transaction and clears the persistence context, so memory stays flat regardless of window size.
+     * Due reminders of a committed chunk are handed to the dispatch pipeline; the run ends once it drains.
+     * Each chunk also checkpoints the run (see {@link ReminderRunStore}), so a pass cut short by a restart,
+     * or triggered again, resumes after the last committed chunk instead of rescanning the window.
+     * With sharding enabled the cron fires on every node, and each node only walks the shards it leases.
      */
     @Scheduled(cron = "0 0 9 * * *") // daily at 9 AM
 //    @Scheduled(cron = "20 * * * * *") // every minute
-    @Transactional
     public void processRenewals() {
+        processRenewals(runId -> { });
+    }
+
+    /**
+     * Same as the daily pass; runObserver receives the id of every run this call starts, resumes or finds
+     * already live elsewhere (and therefore leaves to its owner).
+     */
+    public void processRenewals(Consumer<String> runObserver) {
+
+        LocalDate today = LocalDate.now();
+        if (!shardLeaseManager.isEnabled()) {
+            runPass(today, ShardScope.ALL, () -> true, runObserver);
+            return;
+        }
+        processPendingShards(today, runObserver);
+    }
 
+    /**
+     * Picks up shards this node took over from a dead (or departed) node after the daily run started.
+     */
+    @Scheduled(fixedDelayString = "${reminder.sharding.heartbeat-interval:PT15S}")
+    public void processTakenOverShards() {
+        if (!shardLeaseManager.isEnabled()) {
+            return;
+        }
         LocalDate today = LocalDate.now();
+        if (shardLeaseManager.hasRunStarted(today)) {
+            processPendingShards(today, runId -> { });
+        }
+    }
+
+    private void processPendingShards(LocalDate today, Consumer<String> runObserver) {
+        if (!shardRunLock.tryLock()) {
+            log.info("Shard pass already running on node {}", shardLeaseManager.getNodeId());
+            return;
+        }
+        try {
+            for (int shardId : shardLeaseManager.pendingShards(today)) {
+                ShardScope scope = new ShardScope(shardLeaseManager.getShardCount(), List.of((long) shardId));
+                boolean completed = runPass(today, scope, () -> shardLeaseManager.owns(shardId), runObserver);
+                if (!completed) {
+                    log.warn("Pass over shard {} did not complete; it resumes from its checkpoint", shardId);
+                } else if (!shardLeaseManager.markRun(shardId, today)) {
+                    log.warn("Shard {} changed owner before its pass was recorded", shardId);
+                }
+            }
+        } finally {
+            shardRunLock.unlock();
+        }
+    }
+
+    /**
+     * Walks the window for the given shards. Returns false when stillOwned turned false between chunks, or
+     * when the same pass is still live elsewhere.
+     */
+    private boolean runPass(LocalDate today, ShardScope scope, BooleanSupplier stillOwned,
+                            Consumer<String> runObserver) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean completed = false;
+        try {
+            completed = walkWindow(today, scope, stillOwned, runObserver);
+            return completed;
+        } finally {
+            sample.stop(meterRegistry.timer("reminder.scheduler.run",
+                    "mode", properties.getSelectionMode().name().toLowerCase(Locale.ROOT),
+                    "completed", String.valueOf(completed)));
+        }
+    }
+
+    private boolean walkWindow(LocalDate today, ShardScope scope, BooleanSupplier stillOwned,
+                               Consumer<String> runObserver) {
+
         LocalDate noticeDate = today.plusDays(NOTICE_DAYS);
 
-        log.info("Running renewal scheduler for window {} -> {}", today, noticeDate);
+        SelectionMode mode = properties.getSelectionMode();
+        log.info("Running renewal scheduler for window {} -> {} (mode={}, pageSize={}, shards={}/{})", today,
+                noticeDate, mode, properties.getPageSize(), scope.shards(), scope.shardCount());
 
-        List<Subscription> subscriptions =
-                subscriptionRepository.findExpiringSubscriptions(today, noticeDate);
+        // Both selection modes then work from existing invoices only.
+        materializeInvoices(today, noticeDate, scope);
+        if (timerProperties.isEnabled()) {
+            log.info("Reminder timer enabled; sends for window {} -> {} are fired by the timer", today, noticeDate);
+            return true;
+        }
 
-        for (Subscription subscription : subscriptions) {
+        ReminderRun run = runStore.startOrResume(today, scope.key(), mode.name(), shardLeaseManager.getNodeId(),
+                () -> countWindow(today, noticeDate, scope, mode));
+        if (run == null) {
+            log.info("Renewal pass for {} (shards={}) is already running elsewhere", today, scope.key());
+            runStore.findUnfinished(today, scope.key(), mode.name())
+                    .ifPresent(live -> runObserver.accept(live.getRunId()));
+            return false;
+        }
+        String runId = run.getRunId();
+        runObserver.accept(runId);
+
+        Map<DispatchOutcome, LongAdder> outcomes = new EnumMap<>(DispatchOutcome.class);
+        for (DispatchOutcome outcome : DispatchOutcome.values()) {
+            outcomes.put(outcome, new LongAdder());
+        }
 
-            log.info("Evaluating subscription {} (status={}, endDate={})", subscription.getId(),
-                    subscription.getStatus(), subscription.getEndDate());
+        boolean completed = false;
+        int chunks = 0;
+        try {
+            // Selected by an earlier attempt of this run but never sent, or released as definitely not delivered;
+            // re-checked before dispatch.
+            resumePending(run, today, noticeDate, outcomes);
 
-            if (!isEligibleForProcessing(subscription, today, noticeDate)) {
-                log.info("Skipping subscription {} (out of window or inactive)", subscription.getId());
-                continue;
+            long lastId = run.getLastKey();
+            completed = true;
+            while (true) {
+                if (!stillOwned.getAsBoolean()) {
+                    completed = false;
+                    break;
+                }
+                long afterId = lastId;
+                Chunk chunk = transactionTemplate.execute(status -> processChunk(today, noticeDate, afterId, scope,
+                        mode, runId));
+                if (chunk == null) {
+                    break;
+                }
+                // Submitted after commit so the persistence stage sees invoices created in this chunk.
+                for (RenewalCandidate due : chunk.due()) {
+                    dispatchPipeline.submit(due, runId, today)
+                            .thenAccept(outcome -> outcomes.get(outcome).increment());
+                }
+                lastId = chunk.lastId();
+                chunks++;
             }
 
-            Invoice invoice = invoiceRepository
-                    .findBySubscriptionId(subscription.getId())
-                    .orElseGet(() -> createInvoice(subscription, today));
+            completed &= awaitDispatch(runId);
+        } finally {
+            runStore.finish(runId, completed ? ReminderRunStatus.COMPLETED : ReminderRunStatus.SUSPENDED);
+        }
 
-            log.info("Working with invoice {} for subscription {}", invoice.getId(), subscription.getId());
+        log.info("Renewal scheduler finished window {} -> {} in {} chunk(s) (run {}); dispatch outcomes {}", today,
+                noticeDate, chunks, runId, outcomes);
+        return completed;
+    }
 
-            if (invoice.getPaymentStatus() == PaymentStatus.PAID) {
-                log.info("Skipping invoice {} for subscription {} because already PAID", invoice.getId(),
-                        subscription.getId());
-                continue;
+    private void resumePending(ReminderRun run, LocalDate today, LocalDate noticeDate,
+                               Map<DispatchOutcome, LongAdder> outcomes) {
+        List<Long> pending = runStore.pendingInvoiceIds(run.getRunId());
+        if (pending.isEmpty()) {
+            return;
+        }
+        log.info("Re-dispatching {} pending or failed reminder(s) of run {}", pending.size(), run.getRunId());
+        for (int from = 0; from < pending.size(); from += properties.getPageSize()) {
+            List<Long> ids = pending.subList(from, Math.min(from + properties.getPageSize(), pending.size()));
+            List<RenewalCandidate> due = transactionTemplate.execute(status -> {
+                List<RenewalCandidate> collected = new ArrayList<>();
+                for (RenewalCandidate candidate : invoiceRepository.findDueCandidatesByIds(ids, today, noticeDate,
+                        today.atStartOfDay(), LocalDateTime.of(today, LocalTime.MAX))) {
+                    processCandidate(candidate, today, noticeDate, collected);
+                }
+                entityManager.flush();
+                entityManager.clear();
+                return collected;
+            });
+            if (due != null) {
+                for (RenewalCandidate candidate : due) {
+                    dispatchPipeline.submit(candidate, run.getRunId(), today)
+                            .thenAccept(outcome -> outcomes.get(outcome).increment());
+                }
             }
+        }
+    }
 
-            if (isReminderDue(invoice, today)) {
-                log.info("Reminder due for invoice {} (reminderCount={}, nextReminderDate={})",
-                        invoice.getId(), invoice.getReminderCount(), invoice.getNextReminderDate());
-                reminderService.sendRenewalReminder(invoice);
-            } else {
-                log.info("Reminder not due for invoice {} (reminderCount={}, nextReminderDate={})", invoice.getId(),
-                        invoice.getReminderCount(), invoice.getNextReminderDate());
+    /**
+     * Waits for the pipeline to drain, refreshing the run's checkpoint meanwhile so it is not taken for dead.
+     */
+    private boolean awaitDispatch(String runId) {
+        try {
+            while (!dispatchPipeline.awaitIdle(runProperties.getHeartbeatInterval())) {
+                runStore.heartbeat(runId);
             }
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for reminder dispatch to drain");
+            return false;
         }
     }
 
-    private boolean isEligibleForProcessing(Subscription subscription, LocalDate today, LocalDate noticeDate) {
-        if (subscription.getStatus() != SubscriptionStatus.ACTIVE) {
-            return false;
+    /**
+     * Processes one keyset page inside the caller's transaction and collects the reminders that are due.
+     * The page is keyed by subscription id in WINDOW mode and by invoice id in DUE_QUEUE mode.
+     * The due reminders and the new keyset position are checkpointed in the same transaction.
+     * Returns null when the window is exhausted.
+     */
+    private Chunk processChunk(LocalDate today, LocalDate noticeDate, long afterId, ShardScope scope,
+                               SelectionMode mode, String runId) {
+        LocalDateTime startOfDay = today.atStartOfDay();
+        LocalDateTime endOfDay = LocalDateTime.of(today, LocalTime.MAX);
+        PageRequest page = PageRequest.of(0, properties.getPageSize());
+        List<RenewalCandidate> candidates = mode == SelectionMode.DUE_QUEUE
+                ? invoiceRepository.findDueCandidatesAfter(today, noticeDate, startOfDay, endOfDay, afterId,
+                        scope.shardCount(), scope.shards(), page)
+                : subscriptionRepository.findRenewalCandidatesAfter(today, noticeDate, startOfDay, endOfDay,
+                        afterId, scope.shardCount(), scope.shards(), page);
+        if (candidates.isEmpty()) {
+            return null;
         }
-        LocalDate endDate = subscription.getEndDate();
-        return !endDate.isBefore(today) && !endDate.isAfter(noticeDate);
+
+        List<RenewalCandidate> due = new ArrayList<>();
+        int[] scanned = new int[ScanOutcome.values().length];
+        for (RenewalCandidate candidate : candidates) {
+            scanned[processCandidate(candidate, today, noticeDate, due).ordinal()]++;
+        }
+        recordScan(scanned);
+
+        RenewalCandidate last = candidates.get(candidates.size() - 1);
+        long lastId = mode == SelectionMode.DUE_QUEUE ? last.invoiceId() : last.subscriptionId();
+        List<RenewalCandidate> admitted = runStore.recordChunk(runId, today, lastId, candidates.size(), due);
+
+        // Flush before clearing: a caller on a request thread (open-in-view) keeps one EntityManager across
+        // chunks, so commit alone would not release the managed entities.
+        entityManager.flush();
+        entityManager.clear();
+        return new Chunk(lastId, admitted);
     }
 
-    private Invoice createInvoice(Subscription subscription, LocalDate today) {
+    /**
+     * Timer entry point: re-reads the given invoices, applies the usual checks and dispatches the ones due
+     * now. An explicit time of day still in the future (the invoice moved since it was armed) is skipped;
+     * the timer picks up the new deadline on its next reload.
+     */
+    public void processInvoices(Collection<Long> invoiceIds) {
+        if (invoiceIds.isEmpty()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        LocalTime now = LocalTime.now();
+        LocalDate noticeDate = today.plusDays(NOTICE_DAYS);
 
-        Invoice invoice = new Invoice();
-        invoice.setSubscription(subscription);
-        invoice.setPaymentStatus(PaymentStatus.PENDING);
-        invoice.setNextReminderDate(calculateNextReminderDate(today, subscription.getEndDate(), 0));
-        invoice.setReminderCount(0);
+        List<RenewalCandidate> due = transactionTemplate.execute(status -> {
+            List<RenewalCandidate> collected = new ArrayList<>();
+            int[] scanned = new int[ScanOutcome.values().length];
+            for (RenewalCandidate candidate : invoiceRepository.findDueCandidatesByIds(invoiceIds, today,
+                    noticeDate, today.atStartOfDay(), LocalDateTime.of(today, LocalTime.MAX))) {
+                if (today.equals(candidate.nextReminderDate()) && candidate.nextReminderTime() != null
+                        && candidate.nextReminderTime().isAfter(now)) {
+                    continue;
+                }
+                scanned[processCandidate(candidate, today, noticeDate, collected).ordinal()]++;
+            }
+            recordScan(scanned);
+            entityManager.flush();
+            entityManager.clear();
+            return collected;
+        });
+        if (due != null) {
+            due.forEach(dispatchPipeline::submit);
+        }
+    }
 
-        log.info("Created invoice for subscription {}", subscription.getId());
-        return invoiceRepository.save(invoice);
+    /**
+     * Set-based pre-pass: inserts every missing invoice of the window with one statement instead of a lookup
+     * and an insert per subscription inside the chunk loop.
+     */
+    private void materializeInvoices(LocalDate today, LocalDate noticeDate, ShardScope scope) {
+        Integer created = transactionTemplate.execute(status -> invoiceRepository.insertMissingInvoices(today,
+                noticeDate, REMINDER_STEPS[0], scope.shardCount(), scope.shards(), LocalDateTime.now()));
+        log.info("Created {} missing invoice(s) for window {} -> {}", created, today, noticeDate);
     }
 
-    private boolean isReminderDue(Invoice invoice, LocalDate today) {
-        if (invoice.getReminderCount() >= REMINDER_STEPS.length) {
-            invoice.setNextReminderDate(null);
-            log.info("Skipping invoice {} - max reminders reached (count={})", invoice.getId(),
-                    invoice.getReminderCount());
-            return false;
+    private long countWindow(LocalDate today, LocalDate noticeDate, ShardScope scope, SelectionMode mode) {
+        return mode == SelectionMode.DUE_QUEUE
+                ? invoiceRepository.countDueQueue(today, noticeDate, scope.shardCount(), scope.shards())
+                : subscriptionRepository.countRenewalWindow(today, noticeDate, scope.shardCount(), scope.shards());
+    }
+
+    /**
+     * Adds the counts of one page to reminder.scheduler.subscriptions once, rather than per candidate.
+     */
+    private void recordScan(int[] scanned) {
+        for (ScanOutcome outcome : ScanOutcome.values()) {
+            int count = scanned[outcome.ordinal()];
+            if (count > 0) {
+                meterRegistry.counter("reminder.scheduler.subscriptions", "outcome", outcome.tag).increment(count);
+            }
         }
+    }
 
-        if (invoice.getNextReminderDate() == null) {
-            // If no next reminder is scheduled but still pending, compute from policy.
-            invoice.setNextReminderDate(calculateNextReminderDate(today,
-                    invoice.getSubscription().getEndDate(), invoice.getReminderCount()));
-            log.info("Computed nextReminderDate for invoice {} as {}", invoice.getId(), invoice.getNextReminderDate());
+    private ScanOutcome processCandidate(RenewalCandidate candidate, LocalDate today, LocalDate noticeDate,
+                                         List<RenewalCandidate> due) {
+
+        if (!isEligibleForProcessing(candidate, today, noticeDate)) {
+            logSkipped(candidate, "out_of_window_or_inactive");
+            return ScanOutcome.SKIPPED;
         }
 
-        if (invoice.getNextReminderDate() == null) {
-            log.info("No further reminders scheduled for invoice {} (schedule exhausted)", invoice.getId());
+        if (!candidate.hasInvoice()) {
+            // Entered the window after this run's materialization pass; the next run creates its invoice.
+            logSkipped(candidate, "no_invoice");
+            return ScanOutcome.SKIPPED;
+        }
+
+        if (candidate.paymentStatus() == PaymentStatus.PAID) {
+            logSkipped(candidate, "paid");
+            return ScanOutcome.SKIPPED;
+        }
+
+        LocalDate nextReminderDate = resolveNextReminderDate(candidate, today);
+        if (!Objects.equals(nextReminderDate, candidate.nextReminderDate())) {
+            invoiceRepository.updateNextReminderDate(candidate.invoiceId(), nextReminderDate);
+            candidate = candidate.withNextReminderDate(nextReminderDate);
+        }
+
+        if (nextReminderDate != null && !nextReminderDate.isAfter(today)) {
+            eventLog.routine(ReminderEvent.REMINDER_DUE)
+                    .addKeyValue("invoiceId", candidate.invoiceId())
+                    .addKeyValue("reminderCount", candidate.sentCount())
+                    .addKeyValue("nextReminderDate", nextReminderDate)
+                    .log("Reminder due");
+            // An explicit time of day is a follow-up the user asked for, even after this morning's reminder.
+            if (candidate.isSentToday() && candidate.nextReminderTime() == null) {
+                reminderService.deferSentToday(candidate);
+                return ScanOutcome.DEFERRED;
+            }
+            due.add(candidate);
+            return ScanOutcome.DUE;
+        }
+        eventLog.routine(ReminderEvent.REMINDER_NOT_DUE)
+                .addKeyValue("invoiceId", candidate.invoiceId())
+                .addKeyValue("reminderCount", candidate.sentCount())
+                .addKeyValue("nextReminderDate", nextReminderDate)
+                .log("Reminder not due");
+        return ScanOutcome.NOT_DUE;
+    }
+
+    private void logSkipped(RenewalCandidate candidate, String reason) {
+        eventLog.routine(ReminderEvent.CANDIDATE_SKIPPED)
+                .addKeyValue("subscriptionId", candidate.subscriptionId())
+                .addKeyValue("invoiceId", candidate.invoiceId())
+                .addKeyValue("reason", reason)
+                .log("Candidate skipped");
+    }
+
+    private boolean isEligibleForProcessing(RenewalCandidate candidate, LocalDate today, LocalDate noticeDate) {
+        if (candidate.subscriptionStatus() != SubscriptionStatus.ACTIVE) {
             return false;
         }
+        LocalDate endDate = candidate.subscriptionEndDate();
+        return !endDate.isBefore(today) && !endDate.isAfter(noticeDate);
+    }
+
+    /**
+     * Returns the date the invoice should be reminded on, or null once the schedule is exhausted.
+     * Callers persist the result when it differs from what is stored.
+     */
+    private LocalDate resolveNextReminderDate(RenewalCandidate candidate, LocalDate today) {
+        if (candidate.sentCount() >= REMINDER_STEPS.length) {
+            log.debug("Skipping invoice {} - max reminders reached (count={})", candidate.invoiceId(),
+                    candidate.sentCount());
+            return null;
+        }
 
-        return invoice.getNextReminderDate() != null
-                && !invoice.getNextReminderDate().isAfter(today);
+        LocalDate nextReminderDate = candidate.nextReminderDate();
+        if (nextReminderDate == null) {
+            // If no next reminder is scheduled but still pending, compute from policy.
+            nextReminderDate = calculateNextReminderDate(today, candidate.subscriptionEndDate(),
+                    candidate.sentCount());
+            log.debug("Computed nextReminderDate for invoice {} as {}", candidate.invoiceId(), nextReminderDate);
+        }
+
+        if (nextReminderDate == null) {
+            log.debug("No further reminders scheduled for invoice {} (schedule exhausted)", candidate.invoiceId());
+        }
+        return nextReminderDate;
     }
 
     /**
@@ -145,4 +475,35 @@ public class RenewalReminderScheduler {
         }
         return targetDate;
     }
+
+    /**
+     * Every scanned subscription lands in exactly one of these, so the tags sum to the scanned total.
+     */
+    private enum ScanOutcome {
+        SKIPPED("skipped"), NOT_DUE("not_due"), DEFERRED("deferred"), DUE("due");
+
+        private final String tag;
+
+        ScanOutcome(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private record Chunk(long lastId, List<RenewalCandidate> due) {
+    }
+
+    /**
+     * Subscriptions with id modulo shardCount in shards; {@link #ALL} matches every id.
+     */
+    private record ShardScope(long shardCount, List<Long> shards) {
+
+        static final ShardScope ALL = new ShardScope(1, List.of(0L));
+
+        /**
+         * Identifies the scope in reminder_runs, e.g. "64:3".
+         */
+        String key() {
+            return shardCount + ":" + shards.stream().map(String::valueOf).collect(Collectors.joining(","));
+        }
+    }
 }
@@ -4,10 +4,17 @@ import java.time.LocalDate;
 
 import com.example.yoga_reminder.dto.AiDecision;
 
+import reactor.core.publisher.Mono;
+
 public interface AiService {
 
     AiDecision detectIntent(String userReply);
 
     String generateReminderMessage(String userName, LocalDate expiryDate);
+
+    /**
+     * Non-blocking variant of {@link #generateReminderMessage}; never errors, falls back like it.
+     */
+    Mono<String> streamReminderMessage(String userName, LocalDate expiryDate);
 }
 
@@ -1,44 +1,125 @@
 package com.example.yoga_reminder.service.Impl;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.ai.chat.client.ChatClient;
 import org.springframework.stereotype.Service;
 
+import com.example.yoga_reminder.config.ReminderTemplateProperties;
+import com.example.yoga_reminder.config.ReplyIntentProperties;
 import com.example.yoga_reminder.domain.enums.IntentType;
 import com.example.yoga_reminder.dto.AiDecision;
 import com.example.yoga_reminder.service.AiService;
+import com.example.yoga_reminder.service.ai.ChatClientGuard;
+import com.example.yoga_reminder.service.ai.IntentBatcher;
 import com.example.yoga_reminder.service.ai.PromptTemplates;
+import com.example.yoga_reminder.service.ai.ReminderTemplateCache;
+import com.example.yoga_reminder.service.ai.ReplyIntentCache;
+import com.example.yoga_reminder.service.ai.ReminderTemplateCache.TemplateKey;
+import com.example.yoga_reminder.service.ai.ReplyIntentMatcher;
+import com.example.yoga_reminder.service.ai.ReplyIntentMatcher.RuleMatch;
+import com.example.yoga_reminder.service.ai.WordCap;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AiServiceImpl implements AiService {
 
+    private static final String TIER_CACHE = "cache";
+    private static final String TIER_RULES = "rules";
+    private static final String TIER_LLM = "llm";
+    private static final String TIER_FALLBACK = "fallback";
+    private static final String SOURCE_TEMPLATE = "template";
+    private static final int MAX_FOLLOW_UP_HOURS = 48;
+    private static final String OPERATION_INTENT = "intent";
+    private static final String OPERATION_GENERATE = "generate";
+    private static final String OPERATION_TEMPLATES = "templates";
+
     private final ObjectProvider<ChatClient> chatClientProvider;
     private final ObjectMapper objectMapper;
+    private final ReminderTemplateCache templateCache;
+    private final ReminderTemplateProperties templateProperties;
+    private final ReplyIntentMatcher intentMatcher;
+    private final IntentBatcher intentBatcher;
+    private final ReplyIntentProperties intentProperties;
+    private final MeterRegistry meterRegistry;
+    private final ChatClientGuard chatClientGuard;
+    private final ReplyIntentCache intentCache;
+
+    // Blocking work of the streamed path (no-client fallback, template pool loads) runs here, never on a
+    // reactor thread.
+    private final Scheduler blockingScheduler = Schedulers.fromExecutorService(
+            Executors.newVirtualThreadPerTaskExecutor(), "ai-blocking");
 
+    /**
+     * Latency lands in reminder.ai.latency{operation=intent}; the fallback rate is
+     * reminder.intent.resolved{tier=fallback} over all tiers.
+     */
     @Override
     public AiDecision detectIntent(String userReply) {
+        return meterRegistry.timer("reminder.ai.latency", "operation", "intent")
+                .record(() -> resolveIntent(userReply));
+    }
+
+    private AiDecision resolveIntent(String userReply) {
         String safeUserReply = userReply == null ? "" : userReply;
+
+        // Tier 0: the same short replies arrive over and over; reuse earlier rule and model decisions.
+        AiDecision cached = intentCache.get(safeUserReply);
+        if (cached != null) {
+            countResolved(TIER_CACHE);
+            return cached;
+        }
+
+        // Tier 1: short, unambiguous replies ("pay now", "tomorrow", "no") are answered locally.
+        RuleMatch rule = intentMatcher.match(safeUserReply);
+        if (rule != null && rule.confidence() >= intentProperties.getRuleConfidenceThreshold()) {
+            countResolved(TIER_RULES);
+            AiDecision decision = new AiDecision(rule.intent(), normalizeFollowUp(rule.intent(), rule.followUpDays()));
+            intentCache.put(safeUserReply, decision);
+            return decision;
+        }
+
+        // Tier 2: ambiguous text goes to the model; tier 3 (fallbackIntent) covers AI failures.
         ChatClient client = chatClientProvider.getIfAvailable();
         if (client == null) {
             return fallbackIntent(safeUserReply, "AI client not configured");
         }
 
+        if (intentBatcher.isEnabled()) {
+            AiDecision batched = awaitBatchedIntent(safeUserReply);
+            if (batched != null && batched.intent() != null) {
+                return normalizeDecision(batched, safeUserReply);
+            }
+            // Batch unusable for this reply: fall through to a single-item call.
+        }
+
         try {
-            log.info("Calling AI for intent detection with reply text: {}", safeUserReply);
-            String raw = client.prompt()
+            log.debug("Calling AI for intent detection with reply text: {}", safeUserReply);
+            String raw = chatClientGuard.call(OPERATION_INTENT, () -> client.prompt()
                     .system(PromptTemplates.intentSystemPrompt())
                     .user(PromptTemplates.intentUserPrompt(safeUserReply))
                     .call()
-                    .content();
-            log.info("AI raw response for intent detection: {}", raw);
+                    .content());
+            log.debug("AI raw response for intent detection: {}", raw);
 
             AiDecision parsed = objectMapper.readValue(raw, AiDecision.class);
             return normalizeDecision(parsed, safeUserReply);
@@ -48,27 +129,182 @@ public class AiServiceImpl implements AiService {
         }
     }
 
+    private AiDecision awaitBatchedIntent(String userReply) {
+        try {
+            return intentBatcher.submit(userReply)
+                    .get(intentProperties.getBatch().getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception ex) {
+            log.warn("Batched intent detection unavailable, calling AI directly. reason={}", ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Latency lands in reminder.ai.latency{operation=generate}; reminder.ai.generated{source} counts where
+     * each message came from, so fallback over the total is the fallback rate.
+     */
     @Override
     public String generateReminderMessage(String userName, LocalDate expiryDate) {
+        return meterRegistry.timer("reminder.ai.latency", "operation", "generate")
+                .record(() -> composeReminderMessage(userName, expiryDate));
+    }
+
+    private String composeReminderMessage(String userName, LocalDate expiryDate) {
         String fallback = fallbackReminderMessage(userName, expiryDate);
         ChatClient client = chatClientProvider.getIfAvailable();
         if (client == null) {
+            countGenerated(TIER_FALLBACK);
             return fallback;
         }
 
+        if (templateProperties.isEnabled()) {
+            return renderFromTemplates(client, userName, expiryDate, fallback);
+        }
+
         try {
-            log.info("Calling AI for reminder message for user {} expiring {}", userName, expiryDate);
-            return client.prompt()
+            log.debug("Calling AI for reminder message for user {} expiring {}", userName, expiryDate);
+            String message = chatClientGuard.call(OPERATION_GENERATE, () -> client.prompt()
                     .system(PromptTemplates.reminderSystemPrompt())
                     .user(PromptTemplates.reminderUserPrompt(userName, expiryDate))
                     .call()
-                    .content();
+                    .content());
+            countGenerated(TIER_LLM);
+            return message;
         } catch (Exception ex) {
             log.warn("AI reminder generation failed, using fallback. reason={}", ex.getMessage());
+            countGenerated(TIER_FALLBACK);
+            return fallback;
+        }
+    }
+
+    /**
+     * Streams the model output and stops consuming it (cancelling the request) as soon as it runs past
+     * {@link PromptTemplates#MAX_REMINDER_WORDS}. Records time to first token and total time. In template
+     * mode a cached pool is rendered locally; on a pool miss this reminder is streamed from the model while
+     * the pool is loaded in the background, so the caller never waits for a whole pool to be generated.
+     */
+    @Override
+    public Mono<String> streamReminderMessage(String userName, LocalDate expiryDate) {
+        ChatClient client = chatClientProvider.getIfAvailable();
+        if (client == null) {
+            return Mono.fromCallable(() -> generateReminderMessage(userName, expiryDate))
+                    .subscribeOn(blockingScheduler);
+        }
+
+        String fallback = fallbackReminderMessage(userName, expiryDate);
+        if (!templateProperties.isEnabled()) {
+            return streamFromModel(client, userName, expiryDate, fallback);
+        }
+        return Mono.defer(() -> {
+            TemplateKey key = templateKey(expiryDate);
+            List<String> pool = templateCache.getIfPresent(key);
+            if (pool != null) {
+                return Mono.just(renderFromPool(pool, userName, expiryDate));
+            }
+            // Concurrent misses on one key share a single load inside the cache.
+            Mono.fromRunnable(() -> templateCache.get(key, k -> loadTemplates(client, k)))
+                    .subscribeOn(blockingScheduler)
+                    .subscribe(null, ex -> log.warn("AI reminder template generation failed. reason={}",
+                            ex.getMessage()));
+            return streamFromModel(client, userName, expiryDate, fallback);
+        });
+    }
+
+    private Mono<String> streamFromModel(ChatClient client, String userName, LocalDate expiryDate, String fallback) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            AtomicBoolean firstToken = new AtomicBoolean();
+            WordCap cap = new WordCap(PromptTemplates.MAX_REMINDER_WORDS);
+            return chatClientGuard.stream(OPERATION_GENERATE, () -> client.prompt()
+                            .system(PromptTemplates.reminderSystemPrompt())
+                            .user(PromptTemplates.reminderUserPrompt(userName, expiryDate))
+                            .stream()
+                            .content()
+                            .doOnNext(chunk -> {
+                                if (firstToken.compareAndSet(false, true)) {
+                                    meterRegistry.timer("reminder.ai.stream.first_token")
+                                            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                                }
+                            })
+                            .takeUntil(cap::append)
+                            .then(Mono.fromSupplier(cap::text)))
+                    .map(message -> {
+                        meterRegistry.timer("reminder.ai.stream.duration", "truncated",
+                                String.valueOf(cap.isTruncated()))
+                                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        if (message.isBlank()) {
+                            countGenerated(TIER_FALLBACK);
+                            return fallback;
+                        }
+                        countGenerated(TIER_LLM);
+                        return message;
+                    })
+                    .onErrorResume(ex -> {
+                        log.warn("AI reminder streaming failed, using fallback. reason={}", ex.getMessage());
+                        countGenerated(TIER_FALLBACK);
+                        return Mono.just(fallback);
+                    });
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        blockingScheduler.dispose();
+    }
+
+    /**
+     * Fills a cached template locally; the AI is only called when the (days-to-expiry, locale, tone) pool
+     * is missing or expired.
+     */
+    private String renderFromTemplates(ChatClient client, String userName, LocalDate expiryDate, String fallback) {
+        TemplateKey key = templateKey(expiryDate);
+        try {
+            return renderFromPool(templateCache.get(key, k -> loadTemplates(client, k)), userName, expiryDate);
+        } catch (Exception ex) {
+            log.warn("AI reminder template generation failed, using fallback. reason={}", ex.getMessage());
+            countGenerated(TIER_FALLBACK);
             return fallback;
         }
     }
 
+    private TemplateKey templateKey(LocalDate expiryDate) {
+        return new TemplateKey(ChronoUnit.DAYS.between(LocalDate.now(), expiryDate),
+                templateProperties.getLocale(), templateProperties.getTone());
+    }
+
+    private String renderFromPool(List<String> pool, String userName, LocalDate expiryDate) {
+        String template = pool.get(ThreadLocalRandom.current().nextInt(pool.size()));
+        countGenerated(SOURCE_TEMPLATE);
+        return ReminderTemplateCache.render(template, userName, expiryDate);
+    }
+
+    private List<String> loadTemplates(ChatClient client, TemplateKey key) {
+        log.info("Calling AI for reminder templates {}", key);
+        String raw = chatClientGuard.call(OPERATION_TEMPLATES, () -> client.prompt()
+                .system(PromptTemplates.reminderTemplateSystemPrompt())
+                .user(PromptTemplates.reminderTemplateUserPrompt(templateProperties.getPoolSize(),
+                        key.daysToExpiry(), key.locale(), key.tone()))
+                .call()
+                .content());
+
+        List<String> templates;
+        try {
+            templates = objectMapper.readValue(raw, new TypeReference<List<String>>() {
+            });
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unparseable template response", ex);
+        }
+
+        List<String> usable = templates.stream().filter(ReminderTemplateCache::isUsable).toList();
+        if (usable.isEmpty()) {
+            throw new IllegalStateException("AI returned no template with both placeholders");
+        }
+        return usable;
+    }
+
     private AiDecision normalizeDecision(AiDecision decision, String userReply) {
         if (decision == null || decision.intent() == null) {
             return fallbackIntent(userReply, "missing intent");
@@ -76,7 +312,13 @@ public class AiServiceImpl implements AiService {
 
         IntentType intent = decision.intent();
         Integer followUpDays = normalizeFollowUp(intent, decision.followUpDays());
-        return new AiDecision(intent, followUpDays);
+        Integer followUpHours = intent == IntentType.PAY_LATER && decision.followUpHours() != null
+                ? Math.max(1, Math.min(MAX_FOLLOW_UP_HOURS, decision.followUpHours()))
+                : null;
+        countResolved(TIER_LLM);
+        AiDecision normalized = new AiDecision(intent, followUpDays, followUpHours);
+        intentCache.put(userReply, normalized);
+        return normalized;
     }
 
     private Integer normalizeFollowUp(IntentType intent, Integer provided) {
@@ -89,7 +331,8 @@ public class AiServiceImpl implements AiService {
     }
 
     private AiDecision fallbackIntent(String userReply, String reason) {
-        log.info("Using rule-based intent detection: {}", reason);
+        log.debug("Using rule-based intent detection: {}", reason);
+        countResolved(TIER_FALLBACK);
         String text = userReply == null ? "" : userReply.toLowerCase();
         IntentType intent;
         if (text.contains("not pay") || text.contains("cancel") || text.contains("stop") || text.contains("don't want") || text.contains("do not want") || text.equals("no")) {
@@ -104,6 +347,14 @@ public class AiServiceImpl implements AiService {
         return new AiDecision(intent, normalizeFollowUp(intent, null));
     }
 
+    private void countResolved(String tier) {
+        meterRegistry.counter("reminder.intent.resolved", "tier", tier).increment();
+    }
+
+    private void countGenerated(String source) {
+        meterRegistry.counter("reminder.ai.generated", "source", source).increment();
+    }
+
     private String fallbackReminderMessage(String userName, LocalDate expiryDate) {
         // Use a deterministic message when AI is unavailable so reminders still send.
         return "Hi %s, your yoga plan expires on %s. Reply PAY NOW to renew or PAY LATER to choose a new reminder date."
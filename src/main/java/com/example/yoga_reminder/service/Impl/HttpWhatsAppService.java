@@ -0,0 +1,151 @@
+package com.example.yoga_reminder.service.Impl;
+
+import com.example.yoga_reminder.config.WhatsAppSendProperties;
+import com.example.yoga_reminder.dto.DeliveryResult;
+import com.example.yoga_reminder.dto.OutboundMessage;
+import com.example.yoga_reminder.service.WhatsAppService;
+import com.example.yoga_reminder.service.whatsapp.RateLimitedWhatsAppService;
+import com.example.yoga_reminder.service.whatsapp.WhatsAppThrottledException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * WhatsApp Cloud API provider. One shared HTTP/2 client keeps pooled connections open, so concurrent sends
+ * are multiplexed as streams instead of paying a connection setup per message; requests are issued
+ * asynchronously and each message gets its own future.
+ */
+@Service(RateLimitedWhatsAppService.PROVIDER_BEAN)
+@ConditionalOnProperty(name = "reminder.whatsapp.provider", havingValue = "http")
+@Slf4j
+public class HttpWhatsAppService implements WhatsAppService {
+
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final ObjectMapper objectMapper;
+    private final WhatsAppSendProperties.Http properties;
+    private final URI messagesUri;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+    private final Semaphore requestPermits;
+
+    public HttpWhatsAppService(ObjectMapper objectMapper, WhatsAppSendProperties sendProperties) {
+        this.objectMapper = objectMapper;
+        this.properties = sendProperties.getHttp();
+        if (isBlank(properties.getPhoneNumberId()) || isBlank(properties.getAccessToken())) {
+            throw new IllegalArgumentException(
+                    "reminder.whatsapp.http.phone-number-id and access-token are required for the http provider");
+        }
+        this.messagesUri = URI.create(properties.getBaseUrl() + "/" + properties.getPhoneNumberId() + "/messages");
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(properties.getConnectTimeout())
+                .executor(executor)
+                .build();
+        this.requestPermits = new Semaphore(properties.getMaxConcurrentRequests());
+    }
+
+    @Override
+    public void sendMessage(String phoneNumber, String message) {
+        try {
+            send(new OutboundMessage(phoneNumber, message)).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Issues all requests concurrently (bounded by maxConcurrentRequests; the caller blocks while the
+     * window is full) and returns one future per message in input order.
+     */
+    @Override
+    public List<CompletableFuture<DeliveryResult>> sendBatch(List<OutboundMessage> messages) {
+        return messages.stream()
+                .map(outbound -> send(outbound)
+                        .handle((messageId, ex) -> ex == null
+                                ? DeliveryResult.accepted(outbound, messageId)
+                                : DeliveryResult.failed(outbound, ex)))
+                .toList();
+    }
+
+    /**
+     * Sends one message; completes with the provider message id, or exceptionally with
+     * {@link WhatsAppThrottledException} on 429 and IllegalStateException on other errors.
+     */
+    @Override
+    public CompletableFuture<String> send(OutboundMessage outbound) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(messagesUri)
+                    .timeout(properties.getRequestTimeout())
+                    .header("Authorization", "Bearer " + properties.getAccessToken())
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body(outbound))))
+                    .build();
+        } catch (JsonProcessingException ex) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Unserializable message", ex));
+        }
+
+        requestPermits.acquireUninterruptibly();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, ex) -> requestPermits.release())
+                .thenApply(this::toMessageId);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        httpClient.close();
+        executor.shutdown();
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private Map<String, Object> body(OutboundMessage outbound) {
+        return Map.of(
+                "messaging_product", "whatsapp",
+                "to", outbound.phoneNumber(),
+                "type", "text",
+                "text", Map.of("body", outbound.message()));
+    }
+
+    private String toMessageId(HttpResponse<String> response) {
+        int status = response.statusCode();
+        if (status == TOO_MANY_REQUESTS) {
+            Duration retryAfter = response.headers().firstValueAsLong("Retry-After")
+                    .stream().mapToObj(Duration::ofSeconds).findFirst().orElse(null);
+            throw new WhatsAppThrottledException("WhatsApp API returned 429", retryAfter);
+        }
+        if (status < 200 || status >= 300) {
+            throw new IllegalStateException("WhatsApp API returned " + status + ": " + response.body());
+        }
+        try {
+            JsonNode messageId = objectMapper.readTree(response.body()).path("messages").path(0).path("id");
+            return messageId.isTextual() ? messageId.asText() : null;
+        } catch (JsonProcessingException ex) {
+            log.warn("Unreadable WhatsApp API response: {}", ex.getMessage());
+            return null;
+        }
+    }
+}
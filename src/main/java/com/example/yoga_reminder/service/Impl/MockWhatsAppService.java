@@ -1,16 +1,50 @@
 package com.example.yoga_reminder.service.Impl;
 
+import com.example.yoga_reminder.config.WhatsAppSendProperties;
 import com.example.yoga_reminder.service.WhatsAppService;
+import com.example.yoga_reminder.service.whatsapp.RateLimitedWhatsAppService;
+import com.example.yoga_reminder.service.whatsapp.TokenBucket;
+import com.example.yoga_reminder.service.whatsapp.WhatsAppThrottledException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
-@Service
+import java.time.Duration;
+
+/**
+ * Logs instead of sending. When reminder.whatsapp.mock limits are set it also answers like a throttling
+ * provider, so the rate limiter in front of it can be exercised locally.
+ */
+@Service(RateLimitedWhatsAppService.PROVIDER_BEAN)
+@ConditionalOnProperty(name = "reminder.whatsapp.provider", havingValue = "mock", matchIfMissing = true)
 @Slf4j
 public class MockWhatsAppService implements WhatsAppService {
 
+    private final TokenBucket globalLimit;
+    private final double recipientPermitsPerSecond;
+    private final Cache<String, TokenBucket> recipientLimits = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .build();
+
+    public MockWhatsAppService(WhatsAppSendProperties properties) {
+        WhatsAppSendProperties.Mock mock = properties.getMock();
+        this.globalLimit = mock.getGlobalPermitsPerSecond() > 0
+                ? new TokenBucket(mock.getGlobalPermitsPerSecond(), 1)
+                : null;
+        this.recipientPermitsPerSecond = mock.getRecipientPermitsPerSecond();
+    }
+
     @Override
     public void sendMessage(String phoneNumber, String message) {
-        log.info("📲 WhatsApp message to {} : {}", phoneNumber, message);
+        if (globalLimit != null && globalLimit.tryAcquire() > 0) {
+            throw new WhatsAppThrottledException("Simulated 429: account rate limit", Duration.ofSeconds(1));
+        }
+        if (recipientPermitsPerSecond > 0 && recipientLimits
+                .get(phoneNumber, phone -> new TokenBucket(recipientPermitsPerSecond, 1)).tryAcquire() > 0) {
+            throw new WhatsAppThrottledException("Simulated 429: recipient rate limit", null);
+        }
+        log.debug("📲 WhatsApp message to {} : {}", phoneNumber, message);
     }
 }
-
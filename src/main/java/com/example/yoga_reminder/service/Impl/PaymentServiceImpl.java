@@ -1,7 +1,9 @@
 package com.example.yoga_reminder.service.Impl;
 
+import com.example.yoga_reminder.config.ReminderOutboxProperties;
 import com.example.yoga_reminder.domain.entity.Invoice;
 import com.example.yoga_reminder.domain.entity.PaymentAction;
+import com.example.yoga_reminder.domain.enums.OutboxStatus;
 import com.example.yoga_reminder.domain.enums.PaymentIntent;
 import com.example.yoga_reminder.domain.enums.PaymentStatus;
 import com.example.yoga_reminder.domain.enums.IntentType;
@@ -9,25 +11,44 @@ import com.example.yoga_reminder.dto.AiDecision;
 import com.example.yoga_reminder.dto.response.WhatsAppResponse;
 import com.example.yoga_reminder.repository.InvoiceRepository;
 import com.example.yoga_reminder.repository.PaymentActionRepository;
+import com.example.yoga_reminder.repository.PregeneratedMessageRepository;
 import com.example.yoga_reminder.repository.ReminderLogRepository;
+import com.example.yoga_reminder.repository.ReminderOutboxRepository;
+import com.example.yoga_reminder.scheduler.ReminderTimer;
 import com.example.yoga_reminder.service.AiService;
 import com.example.yoga_reminder.service.PaymentService;
+import com.example.yoga_reminder.service.concurrency.InvoiceConcurrencyControl;
+import com.example.yoga_reminder.service.logging.ReminderEvent;
+import com.example.yoga_reminder.service.logging.ReminderEventLog;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PaymentServiceImpl implements PaymentService {
 
+    private static final String PROCESS_REPLY_OPERATION = "process-reply";
+    private static final String LOCK_EXPIRED_OPERATION = "lock-expired";
+
     private final InvoiceRepository invoiceRepository;
     private final PaymentActionRepository paymentActionRepository;
     private final ReminderLogRepository reminderLogRepository;
     private final AiService aiService;
+    private final InvoiceConcurrencyControl concurrencyControl;
+    private final TransactionTemplate transactionTemplate;
+    private final ReminderTimer reminderTimer;
+    private final ReminderEventLog eventLog;
+    private final PregeneratedMessageRepository pregeneratedMessageRepository;
+    private final ReminderOutboxRepository outboxRepository;
+    private final ReminderOutboxProperties outboxProperties;
 
     @Override
     public void processReply(WhatsAppResponse dto) {
@@ -37,46 +58,59 @@ public class PaymentServiceImpl implements PaymentService {
             throw new IllegalArgumentException("Invoice id is required");
         }
 
-        Invoice invoice = invoiceRepository.findWithSubscriptionUserAndPlan(invoiceId)
-                .orElseThrow(() -> new IllegalArgumentException("Invoice not found"));
-
+        // First pass without locks: skip the AI call entirely for replies that cannot change anything.
+        Invoice snapshot = loadInvoice(invoiceId);
         LocalDate today = LocalDate.now();
-        LocalDate expiryDate = invoice.getSubscription().getEndDate();
 
-        if (expiryDate.isBefore(today)) {
-            // Banking-grade guard: never accept money flow changes on expired invoices.
-            lockExpiredInvoice(invoice);
-            log.info("Ignoring reply for invoice {} - subscription expired on {}", invoiceId, expiryDate);
+        if (isExpired(snapshot, today)) {
+            concurrencyControl.execute(invoiceId, LOCK_EXPIRED_OPERATION, () -> transactionTemplate.execute(status -> {
+                lockExpiredInvoice(loadInvoice(invoiceId));
+                return null;
+            }));
             return;
         }
 
-        if (invoice.getPaymentStatus() != PaymentStatus.PENDING) {
-            log.info("Ignoring reply for invoice {} - status is {}", invoiceId, invoice.getPaymentStatus());
-            return;
-        }
-
-        if (invoice.getNextReminderDate() == null) {
-            log.info("Ignoring reply for invoice {} - no reminder is scheduled/sent (nextReminderDate is null)", invoiceId);
-            return;
-        }
-
-        if (!reminderLogRepository.existsByInvoice(invoice)) {
-            log.info("Ignoring reply for invoice {} - no reminder sent yet; enforcing reminder-driven workflow", invoiceId);
+        if (!isAwaitingReply(snapshot)) {
             return;
         }
 
         // AI interprets the user's free-text reply into structured intent.
         AiDecision decision = aiService.detectIntent(dto.getMessage());
         PaymentIntent intent = normalizeIntent(decision.intent());
-        log.info("Processed AI intent for invoice {}: intent={}, followUpDays={}", invoiceId, intent,
+        log.debug("Processed AI intent for invoice {}: intent={}, followUpDays={}", invoiceId, intent,
                 decision.followUpDays());
 
         if (intent == null) {
             // Non-actionable: ignore without persisting or mutating invoice.
-            log.info("Ignoring non-actionable intent for invoice {} - nothing persisted", invoiceId);
+            logIgnored(invoiceId, "non_actionable");
             return;
         }
 
+        // Second pass: re-read and apply under the invoice lock; a version conflict re-runs this block.
+        Invoice updated = concurrencyControl.execute(invoiceId, PROCESS_REPLY_OPERATION, () ->
+                transactionTemplate.execute(status -> applyReply(loadInvoice(invoiceId), dto, decision, intent)));
+
+        if (updated != null && updated.getNextReminderDate() != null) {
+            // Committed: let the in-process timer fire a same-day follow-up without waiting for its next reload.
+            reminderTimer.schedule(invoiceId, updated.getNextReminderDate(), updated.getNextReminderTime());
+        }
+    }
+
+    /**
+     * Returns the updated invoice, or null when nothing was applied.
+     */
+    private Invoice applyReply(Invoice invoice, WhatsAppResponse dto, AiDecision decision, PaymentIntent intent) {
+
+        Long invoiceId = invoice.getId();
+        if (isExpired(invoice, LocalDate.now())) {
+            lockExpiredInvoice(invoice);
+            return null;
+        }
+        if (!isAwaitingReply(invoice)) {
+            // State moved on while the AI was classifying (e.g. a concurrent reply was applied first).
+            return null;
+        }
+
         PaymentAction action = new PaymentAction();
         action.setInvoice(invoice);
         action.setUserReplyText(dto.getMessage());
@@ -84,7 +118,7 @@ public class PaymentServiceImpl implements PaymentService {
         action.setActionTime(LocalDateTime.now());
 
         paymentActionRepository.save(action);
-        log.info("Saved payment action id={} for invoice {} with intent {}", action.getId(), invoiceId, intent);
+        log.debug("Saved payment action id={} for invoice {} with intent {}", action.getId(), invoiceId, intent);
 
         if (intent == PaymentIntent.PAY_NOW) {
             applyPayNow(invoice);
@@ -93,8 +127,64 @@ public class PaymentServiceImpl implements PaymentService {
         }
 
         invoiceRepository.save(invoice);
-        log.info("Updated invoice {} after processing reply: paymentIntent={}, paymentStatus={}, nextReminderDate={}",
-                invoiceId, invoice.getPaymentIntent(), invoice.getPaymentStatus(), invoice.getNextReminderDate());
+        // The staged text was written for the old schedule.
+        pregeneratedMessageRepository.deleteByInvoiceId(invoiceId);
+        eventLog.routine(ReminderEvent.REPLY_APPLIED)
+                .addKeyValue("invoiceId", invoiceId)
+                .addKeyValue("paymentIntent", invoice.getPaymentIntent())
+                .addKeyValue("paymentStatus", invoice.getPaymentStatus())
+                .addKeyValue("nextReminderDate", invoice.getNextReminderDate())
+                .log("Reply applied");
+        return invoice;
+    }
+
+    private Invoice loadInvoice(Long invoiceId) {
+        return invoiceRepository.findWithSubscriptionUserAndPlan(invoiceId)
+                .orElseThrow(() -> new IllegalArgumentException("Invoice not found"));
+    }
+
+    private boolean isExpired(Invoice invoice, LocalDate today) {
+        // Banking-grade guard: never accept money flow changes on expired invoices.
+        return invoice.getSubscription().getEndDate().isBefore(today);
+    }
+
+    private boolean isAwaitingReply(Invoice invoice) {
+        Long invoiceId = invoice.getId();
+        if (invoice.getPaymentStatus() != PaymentStatus.PENDING) {
+            logIgnored(invoiceId, "status_" + invoice.getPaymentStatus().name().toLowerCase(Locale.ROOT));
+            return false;
+        }
+
+        if (invoice.getNextReminderDate() == null) {
+            logIgnored(invoiceId, "no_reminder_scheduled");
+            return false;
+        }
+
+        if (!reminderDelivered(invoice)) {
+            // Enforces the reminder-driven workflow: a reminder still in the outbox has not reached the user.
+            logIgnored(invoiceId, "no_reminder_delivered");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reminder logs are written when a reminder is queued, so delivery is read from the outbox. Delivered
+     * rows are purged after the outbox retention; a log older than that stands in for them.
+     */
+    private boolean reminderDelivered(Invoice invoice) {
+        if (outboxRepository.existsByInvoiceIdAndStatus(invoice.getId(), OutboxStatus.DELIVERED)) {
+            return true;
+        }
+        LocalDateTime purgedBefore = LocalDateTime.now().minus(outboxProperties.getRetention());
+        return reminderLogRepository.existsByInvoiceAndSentAtBefore(invoice, purgedBefore);
+    }
+
+    private void logIgnored(Long invoiceId, String reason) {
+        eventLog.routine(ReminderEvent.REPLY_IGNORED)
+                .addKeyValue("invoiceId", invoiceId)
+                .addKeyValue("reason", reason)
+                .log("Reply ignored");
     }
 
     private PaymentIntent normalizeIntent(IntentType intentType) {
@@ -114,12 +204,17 @@ public class PaymentServiceImpl implements PaymentService {
         // Do not auto-mark paid; simulate redirect to payment and keep status pending.
         invoice.setPaymentStatus(PaymentStatus.PENDING);
         invoice.setNextReminderDate(null); // pause reminders while user pays
+        invoice.setNextReminderTime(null);
 
         log.info("PAY_NOW intent received for invoice {} - redirecting user to payment flow (mock).", invoice.getId());
     }
 
     private void applyPayLater(Invoice invoice, AiDecision decision) {
         invoice.setPaymentIntent(PaymentIntent.PAY_LATER);
+        invoice.setNextReminderTime(null);
+        if (decision.followUpHours() != null && applyPayLaterInHours(invoice, decision.followUpHours())) {
+            return;
+        }
         int followUpDays = normalizeFollowUpDays(decision.followUpDays());
         LocalDate today = LocalDate.now();
         LocalDate userPreferredDate = today.plusDays(followUpDays);
@@ -144,6 +239,24 @@ public class PaymentServiceImpl implements PaymentService {
                 followUpDays, userPreferredDate, expiryBasedLimit, finalReminderDate);
     }
 
+    /**
+     * "Remind me in N hours": schedules an exact date and time of day. Returns false (so the day-based rule
+     * applies) when that moment falls past the last reminder day.
+     */
+    private boolean applyPayLaterInHours(Invoice invoice, int followUpHours) {
+        LocalDateTime followUpAt = LocalDateTime.now().plusHours(followUpHours).truncatedTo(ChronoUnit.MINUTES);
+        LocalDate expiryBasedLimit = invoice.getSubscription().getEndDate().minusDays(1);
+        if (followUpAt.toLocalDate().isAfter(expiryBasedLimit)) {
+            return false;
+        }
+
+        invoice.setNextReminderDate(followUpAt.toLocalDate());
+        invoice.setNextReminderTime(followUpAt.toLocalTime());
+        invoice.setPaymentStatus(PaymentStatus.PENDING);
+        log.info("PAY_LATER intent; followUpHours={}, nextReminder={}", followUpHours, followUpAt);
+        return true;
+    }
+
     private int normalizeFollowUpDays(Integer followUpDays) {
         int days = followUpDays != null ? followUpDays : 3;
         days = Math.max(1, Math.min(7, days));
@@ -154,7 +267,11 @@ public class PaymentServiceImpl implements PaymentService {
         invoice.setPaymentStatus(PaymentStatus.EXPIRED);
         invoice.setPaymentIntent(null);
         invoice.setNextReminderDate(null);
+        invoice.setNextReminderTime(null);
         invoiceRepository.save(invoice);
+        pregeneratedMessageRepository.deleteByInvoiceId(invoice.getId());
+        log.info("Ignoring reply for invoice {} - subscription expired on {}", invoice.getId(),
+                invoice.getSubscription().getEndDate());
     }
 }
 
@@ -1,87 +1,129 @@
 package com.example.yoga_reminder.service.Impl;
 
-import com.example.yoga_reminder.domain.entity.Invoice;
 import com.example.yoga_reminder.domain.entity.ReminderLog;
-import com.example.yoga_reminder.domain.entity.Subscription;
-import com.example.yoga_reminder.domain.entity.User;
 import com.example.yoga_reminder.domain.enums.ReminderChannel;
+import com.example.yoga_reminder.dto.RenewalCandidate;
+import com.example.yoga_reminder.dto.SentReminder;
 import com.example.yoga_reminder.repository.InvoiceRepository;
 import com.example.yoga_reminder.repository.ReminderLogRepository;
-import com.example.yoga_reminder.service.AiService;
 import com.example.yoga_reminder.service.ReminderService;
-import com.example.yoga_reminder.service.WhatsAppService;
+import com.example.yoga_reminder.service.concurrency.InvoiceConcurrencyControl;
+import com.example.yoga_reminder.service.logging.ReminderEvent;
+import com.example.yoga_reminder.service.logging.ReminderEventLog;
 import com.example.yoga_reminder.scheduler.RenewalReminderScheduler;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Statement;
+import java.sql.Types;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ReminderServiceImpl implements ReminderService {
 
-    private final WhatsAppService whatsAppService;
+    private static final String ADVANCE_REMINDER_SQL = """
+            update invoices
+            set reminder_count = reminder_count + 1,
+                next_reminder_date = ?,
+                next_reminder_time = null,
+                version = version + 1
+            where id = ?
+              and version = ?
+            """;
+    private static final String ENQUEUE_OUTBOX_SQL = """
+            insert into reminder_outbox
+                (id, invoice_id, reminder_step, run_date, phone_number, message, status, attempts,
+                 next_attempt_at, created_at)
+            values (nextval('reminder_outbox_seq'), ?, ?, ?, ?, ?, 'PENDING', 0, ?, ?)
+            """;
+    private static final String RECORD_REMINDER_OPERATION = "record-reminder";
+    private static final int[] ADVANCE_REMINDER_TYPES = {Types.DATE, Types.BIGINT, Types.BIGINT};
+    private static final int[] ENQUEUE_OUTBOX_TYPES = {Types.BIGINT, Types.INTEGER, Types.DATE, Types.VARCHAR,
+            Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP};
+
     private final ReminderLogRepository reminderLogRepository;
     private final InvoiceRepository invoiceRepository;
-    private final AiService aiService;
+    private final JdbcTemplate jdbcTemplate;
+    private final InvoiceConcurrencyControl concurrencyControl;
+    private final MeterRegistry meterRegistry;
+    private final ReminderEventLog eventLog;
 
     @Override
     @Transactional
-    public void sendRenewalReminder(Invoice invoice) {
-
-        Invoice hydrated = invoiceRepository.findWithSubscriptionAndUser(invoice.getId())
-                .orElseThrow(() -> new IllegalArgumentException("Invoice not found"));
-
-        Subscription sub = hydrated.getSubscription();
-        User user = sub.getUser();
-        LocalDate today = LocalDate.now();
+    public void deferSentToday(RenewalCandidate candidate) {
+        LocalDate nextDate = RenewalReminderScheduler.calculateNextReminderDate(
+                LocalDate.now().plusDays(1), candidate.subscriptionEndDate(), candidate.sentCount());
+        invoiceRepository.updateNextReminderDate(candidate.invoiceId(), nextDate);
+        eventLog.routine(ReminderEvent.REMINDER_DEFERRED)
+                .addKeyValue("invoiceId", candidate.invoiceId())
+                .addKeyValue("nextReminderDate", nextDate)
+                .log("Reminder already sent today; deferred");
+    }
 
-        if (alreadySentToday(hydrated, today)) {
-            LocalDate nextDate = RenewalReminderScheduler.calculateNextReminderDate(
-                    today.plusDays(1), sub.getEndDate(), hydrated.getReminderCount());
-            hydrated.setNextReminderDate(nextDate);
-            invoiceRepository.save(hydrated);
-            log.info("Skipping reminder for invoice {} - already sent today. nextReminderDate={}",
-                    hydrated.getId(), nextDate);
-            return;
+    @Override
+    @Transactional
+    public boolean[] recordRemindersSent(List<SentReminder> sent) {
+
+        LocalDate tomorrow = LocalDate.now().plusDays(1);
+        List<Object[]> updateArgs = new ArrayList<>(sent.size());
+        for (SentReminder reminder : sent) {
+            RenewalCandidate candidate = reminder.candidate();
+            LocalDate nextReminderDate = RenewalReminderScheduler.calculateNextReminderDate(
+                    tomorrow, candidate.subscriptionEndDate(), candidate.sentCount() + 1);
+            updateArgs.add(new Object[]{nextReminderDate, candidate.invoiceId(), candidate.version()});
         }
 
-        // AI crafts a short, personalized WhatsApp reminder.
-        String message = aiService.generateReminderMessage(user.getName(), sub.getEndDate());
-        log.info("Sending reminder for invoice {} to user {} ({}) with message: {}", invoice.getId(),
-                user.getName(), user.getPhoneNumber(), message);
-
-        whatsAppService.sendMessage(user.getPhoneNumber(), message);
-
-        ReminderLog logEntry = new ReminderLog();
-        logEntry.setInvoice(invoice);
-        logEntry.setChannel(ReminderChannel.WHATSAPP);
-        logEntry.setSentAt(LocalDateTime.now());
-        logEntry.setMessagePreview(message);
-
-        reminderLogRepository.save(logEntry);
-
-        int sentCount = invoice.getReminderCount() + 1;
-        LocalDate nextReminderDate = RenewalReminderScheduler.calculateNextReminderDate(
-                today.plusDays(1), sub.getEndDate(), sentCount);
-
-        invoice.setReminderCount(sentCount);
-        invoice.setNextReminderDate(nextReminderDate);
-        log.info("Reminder logged for invoice {} (sentCount={}, nextReminderDate={})",
-                invoice.getId(), sentCount, invoice.getNextReminderDate());
-
-        invoiceRepository.save(invoice);
-    }
+        // Compare-and-set on the invoice version: the transition is applied once even if the same step is
+        // recorded twice, and never on top of a reply (e.g. PAY_NOW pausing reminders) that landed meanwhile.
+        // Plain JDBC is not covered by the repository invocation metrics, so it gets its own timer.
+        int[] updated = meterRegistry.timer("reminder.db.batch", "statement", "advance-reminder")
+                .record(() -> jdbcTemplate.batchUpdate(ADVANCE_REMINDER_SQL, updateArgs, ADVANCE_REMINDER_TYPES));
+
+        boolean[] applied = new boolean[sent.size()];
+        List<ReminderLog> logEntries = new ArrayList<>(sent.size());
+        List<Object[]> outboxRows = new ArrayList<>(sent.size());
+        for (int i = 0; i < sent.size(); i++) {
+            SentReminder reminder = sent.get(i);
+            Long invoiceId = reminder.candidate().invoiceId();
+            applied[i] = updated[i] > 0 || updated[i] == Statement.SUCCESS_NO_INFO;
+            if (!applied[i]) {
+                concurrencyControl.recordConflict(RECORD_REMINDER_OPERATION);
+                log.warn("Invoice {} changed since version {} was read; not logging reminder again",
+                        invoiceId, reminder.candidate().version());
+                continue;
+            }
+
+            ReminderLog logEntry = new ReminderLog();
+            logEntry.setInvoice(invoiceRepository.getReferenceById(invoiceId));
+            logEntry.setChannel(ReminderChannel.WHATSAPP);
+            logEntry.setSentAt(reminder.sentAt());
+            logEntry.setMessagePreview(reminder.message());
+            logEntries.add(logEntry);
+
+            RenewalCandidate candidate = reminder.candidate();
+            outboxRows.add(new Object[]{invoiceId, candidate.sentCount(), reminder.runDate(),
+                    candidate.userPhone(), reminder.message(), reminder.sentAt(), reminder.sentAt()});
+        }
 
-    private boolean alreadySentToday(Invoice invoice, LocalDate today) {
-        LocalDateTime startOfDay = today.atStartOfDay();
-        LocalDateTime endOfDay = LocalDateTime.of(today, LocalTime.MAX);
-        return reminderLogRepository.existsByInvoiceAndSentAtBetween(invoice, startOfDay, endOfDay);
+        // Sequence ids let Hibernate group these into hibernate.jdbc.batch_size inserts.
+        reminderLogRepository.saveAll(logEntries);
+        // Same transaction as the invoice transition: a reminder is queued for delivery if and only if it
+        // is recorded. Nothing is sent from here; ReminderOutboxRelay drains the outbox.
+        if (!outboxRows.isEmpty()) {
+            meterRegistry.timer("reminder.db.batch", "statement", "enqueue-outbox")
+                    .record(() -> jdbcTemplate.batchUpdate(ENQUEUE_OUTBOX_SQL, outboxRows, ENQUEUE_OUTBOX_TYPES));
+        }
+        log.info("Recorded and queued {} reminder(s) in one batch ({} skipped as already advanced)",
+                logEntries.size(), sent.size() - logEntries.size());
+        return applied;
     }
 }
-
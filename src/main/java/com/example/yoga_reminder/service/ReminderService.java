@@ -1,7 +1,23 @@
 package com.example.yoga_reminder.service;
 
-import com.example.yoga_reminder.domain.entity.Invoice;
+import com.example.yoga_reminder.dto.RenewalCandidate;
+import com.example.yoga_reminder.dto.SentReminder;
+
+import java.util.List;
 
 public interface ReminderService {
-    void sendRenewalReminder(Invoice invoice);
+
+    /**
+     * Pushes the schedule of an invoice that was already reminded today to the next policy step.
+     */
+    void deferSentToday(RenewalCandidate candidate);
+
+    /**
+     * Persistence step of generated reminders, in one transaction: advances each invoice only if it is still
+     * at the candidate's version, then writes the reminder log and the outbox row the relay delivers, all as
+     * JDBC batches. The returned flags line up with the input order; false means the invoice changed in the
+     * meantime and nothing was queued for it. Sending itself goes through ReminderDispatchPipeline, which
+     * claims each step first.
+     */
+    boolean[] recordRemindersSent(List<SentReminder> sent);
 }
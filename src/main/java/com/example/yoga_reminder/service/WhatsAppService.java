@@ -1,6 +1,39 @@
 package com.example.yoga_reminder.service;
 
+import com.example.yoga_reminder.dto.DeliveryResult;
+import com.example.yoga_reminder.dto.OutboundMessage;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 public interface WhatsAppService {
     void sendMessage(String phoneNumber, String message);
-}
 
+    /**
+     * Sends one message; completes with the provider's message id (null when the provider has none), or
+     * exceptionally when the message was not accepted. The default delegates to {@link #sendMessage}.
+     */
+    default CompletableFuture<String> send(OutboundMessage outbound) {
+        try {
+            sendMessage(outbound.phoneNumber(), outbound.message());
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    /**
+     * Sends every message and returns one future per message, in input order. A failed message completes
+     * its future with a non-accepted result rather than exceptionally. The default sends one by one.
+     */
+    default List<CompletableFuture<DeliveryResult>> sendBatch(List<OutboundMessage> messages) {
+        return messages.stream().map(outbound -> {
+            try {
+                sendMessage(outbound.phoneNumber(), outbound.message());
+                return CompletableFuture.completedFuture(DeliveryResult.accepted(outbound, null));
+            } catch (RuntimeException ex) {
+                return CompletableFuture.completedFuture(DeliveryResult.failed(outbound, ex));
+            }
+        }).toList();
+    }
+}
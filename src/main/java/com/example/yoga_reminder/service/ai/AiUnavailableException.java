@@ -0,0 +1,11 @@
+package com.example.yoga_reminder.service.ai;
+
+/**
+ * The AI call was not made (circuit open) or did not answer within its deadline. Callers fall back.
+ */
+public class AiUnavailableException extends RuntimeException {
+
+    public AiUnavailableException(String message) {
+        super(message);
+    }
+}
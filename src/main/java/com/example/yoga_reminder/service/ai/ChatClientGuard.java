@@ -0,0 +1,232 @@
+package com.example.yoga_reminder.service.ai;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.example.yoga_reminder.config.AiResilienceProperties;
+import com.example.yoga_reminder.service.ai.CircuitBreaker.Permit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Resilience layer for ChatClient calls, keyed by operation name:
+ * <ul>
+ *     <li>a deadline per operation, after which the call is abandoned (and its thread interrupted);</li>
+ *     <li>a {@link CircuitBreaker} that fails calls immediately while the model is erroring or slow, so
+ *     callers go straight to their rule/template fallback, and probes it again after a pause;</li>
+ *     <li>optional hedging: a second identical request once the first exceeds the observed p95.</li>
+ * </ul>
+ * Every refusal surfaces as {@link AiUnavailableException}. To exercise it locally, point
+ * {@code spring.ai.openai.base-url} at a fake model server that can delay or fail responses.
+ */
+@Component
+@Slf4j
+public class ChatClientGuard {
+
+    private final AiResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Operation> operations = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ChatClientGuard(AiResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs the request under the operation's deadline and breaker. Exceptions thrown by the request itself
+     * are rethrown unchanged.
+     */
+    public String call(String operation, Supplier<String> request) {
+        if (!properties.isEnabled()) {
+            return request.get();
+        }
+        Operation op = operations.computeIfAbsent(operation, this::newOperation);
+        Permit permit = op.breaker().tryAcquire(System.nanoTime());
+        if (permit == Permit.DENIED) {
+            meterRegistry.counter("reminder.ai.short_circuited", "operation", operation).increment();
+            throw new AiUnavailableException("Circuit open for AI operation " + operation);
+        }
+
+        long start = System.nanoTime();
+        boolean failure = true;
+        try {
+            String result = invoke(operation, op, request, permit == Permit.CALL);
+            failure = false;
+            return result;
+        } finally {
+            record(operation, op, permit, failure, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Reactive variant for streamed calls: the breaker is consulted on subscription and the deadline
+     * applies to the whole stream. No hedging. A stream the subscriber cancels counts as a success.
+     */
+    public <T> Mono<T> stream(String operation, Supplier<Mono<T>> request) {
+        if (!properties.isEnabled()) {
+            return Mono.defer(request);
+        }
+        return Mono.defer(() -> {
+            Operation op = operations.computeIfAbsent(operation, this::newOperation);
+            Permit permit = op.breaker().tryAcquire(System.nanoTime());
+            if (permit == Permit.DENIED) {
+                meterRegistry.counter("reminder.ai.short_circuited", "operation", operation).increment();
+                return Mono.error(new AiUnavailableException("Circuit open for AI operation " + operation));
+            }
+            long start = System.nanoTime();
+            Duration deadline = deadline(operation);
+            return request.get()
+                    .timeout(deadline, Mono.defer(() -> {
+                        meterRegistry.counter("reminder.ai.deadline_exceeded", "operation", operation).increment();
+                        return Mono.error(new AiUnavailableException("AI operation " + operation
+                                + " exceeded its deadline of " + deadline));
+                    }))
+                    .doFinally(signal -> record(operation, op, permit, signal == SignalType.ON_ERROR,
+                            System.nanoTime() - start));
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private String invoke(String operation, Operation op, Supplier<String> request, boolean mayHedge) {
+        long deadlineNanos = deadline(operation).toNanos();
+        long start = System.nanoTime();
+        CompletableFuture<String> outcome = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger();
+        List<Future<?>> attempts = new ArrayList<>(2);
+        try {
+            attempts.add(launch(request, outcome, remaining));
+
+            long hedgeAfter = mayHedge && properties.getHedge().isEnabled()
+                    ? op.latencies().percentile(properties.getHedge().getPercentile(),
+                            properties.getHedge().getMinSamples())
+                    : -1L;
+            if (hedgeAfter > 0 && hedgeAfter < deadlineNanos) {
+                try {
+                    return outcome.get(hedgeAfter, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException slow) {
+                    meterRegistry.counter("reminder.ai.hedged", "operation", operation).increment();
+                    attempts.add(launch(request, outcome, remaining));
+                }
+            }
+            return outcome.get(deadlineNanos - (System.nanoTime() - start), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            meterRegistry.counter("reminder.ai.deadline_exceeded", "operation", operation).increment();
+            throw new AiUnavailableException("AI operation " + operation + " exceeded its deadline of "
+                    + deadline(operation));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new AiUnavailableException("Interrupted while waiting for AI operation " + operation);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } finally {
+            // The loser of a hedge, or an attempt past its deadline, stops consuming a model slot.
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    /**
+     * Starts one attempt. The first success completes the outcome; it fails only once every attempt has.
+     */
+    private Future<?> launch(Supplier<String> request, CompletableFuture<String> outcome, AtomicInteger remaining) {
+        remaining.incrementAndGet();
+        return executor.submit(() -> {
+            try {
+                outcome.complete(request.get());
+            } catch (Throwable ex) {
+                if (remaining.decrementAndGet() == 0) {
+                    outcome.completeExceptionally(ex);
+                }
+            }
+        });
+    }
+
+    private void record(String operation, Operation op, Permit permit, boolean failure, long latency) {
+        CircuitBreaker.State moved = op.breaker().onResult(permit, failure, latency, System.nanoTime());
+        if (moved == CircuitBreaker.State.OPEN) {
+            log.warn("AI circuit for {} opened; falling back for {}", operation,
+                    properties.getCircuit().getOpenDuration());
+        } else if (moved == CircuitBreaker.State.CLOSED) {
+            log.info("AI circuit for {} closed after successful probes", operation);
+        }
+        if (!failure) {
+            op.latencies().record(latency);
+        }
+    }
+
+    private Duration deadline(String operation) {
+        return properties.getDeadlines().getOrDefault(operation, properties.getDefaultDeadline());
+    }
+
+    private Operation newOperation(String operation) {
+        CircuitBreaker breaker = new CircuitBreaker(properties.getCircuit());
+        Gauge.builder("reminder.ai.circuit.state", breaker, b -> b.state().ordinal())
+                .description("0 closed, 1 half-open, 2 open")
+                .tag("operation", operation)
+                .register(meterRegistry);
+        return new Operation(breaker, new LatencyWindow(properties.getCircuit().getWindowSize()));
+    }
+
+    private record Operation(CircuitBreaker breaker, LatencyWindow latencies) {
+    }
+
+    /**
+     * Latencies of the last successful calls, for the hedge delay.
+     */
+    private static final class LatencyWindow {
+
+        private final long[] samples;
+        private int size;
+        private int next;
+
+        LatencyWindow(int capacity) {
+            this.samples = new long[capacity];
+        }
+
+        synchronized void record(long nanos) {
+            samples[next] = nanos;
+            next = (next + 1) % samples.length;
+            size = Math.min(size + 1, samples.length);
+        }
+
+        /**
+         * The given percentile in nanos, or -1 with fewer than minSamples observations.
+         */
+        synchronized long percentile(double percentile, int minSamples) {
+            if (size == 0 || size < minSamples) {
+                return -1L;
+            }
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * size) - 1;
+            return sorted[Math.max(0, Math.min(size - 1, index))];
+        }
+    }
+}
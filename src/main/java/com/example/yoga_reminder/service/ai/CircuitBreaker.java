@@ -0,0 +1,129 @@
+package com.example.yoga_reminder.service.ai;
+
+import com.example.yoga_reminder.config.AiResilienceProperties;
+
+/**
+ * Count-based circuit breaker. CLOSED records every call in a ring of the last windowSize outcomes and opens
+ * once the failure or slow-call rate crosses its threshold. OPEN denies everything until openDuration has
+ * passed, then HALF_OPEN admits a few probes: all succeeding closes it, any failing reopens it.
+ * Synchronized: the guarded calls take milliseconds to seconds, so contention here is irrelevant.
+ */
+final class CircuitBreaker {
+
+    enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    enum Permit {
+        DENIED, CALL, PROBE
+    }
+
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final double slowCallRateThreshold;
+    private final long slowCallNanos;
+    private final long openNanos;
+    private final int halfOpenProbes;
+
+    private final boolean[] failed;
+    private final boolean[] slow;
+    private int size;
+    private int next;
+    private int failedCount;
+    private int slowCount;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    CircuitBreaker(AiResilienceProperties.Circuit properties) {
+        if (properties.getWindowSize() < 1 || properties.getHalfOpenProbes() < 1) {
+            throw new IllegalArgumentException("Circuit window size and half-open probes must be positive");
+        }
+        this.minimumCalls = Math.min(properties.getMinimumCalls(), properties.getWindowSize());
+        this.failureRateThreshold = properties.getFailureRateThreshold();
+        this.slowCallRateThreshold = properties.getSlowCallRateThreshold();
+        this.slowCallNanos = properties.getSlowCallDuration().toNanos();
+        this.openNanos = properties.getOpenDuration().toNanos();
+        this.halfOpenProbes = properties.getHalfOpenProbes();
+        this.failed = new boolean[properties.getWindowSize()];
+        this.slow = new boolean[properties.getWindowSize()];
+    }
+
+    synchronized Permit tryAcquire(long now) {
+        if (state == State.OPEN) {
+            if (now - openedAt < openNanos) {
+                return Permit.DENIED;
+            }
+            state = State.HALF_OPEN;
+            probesStarted = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenProbes) {
+                return Permit.DENIED;
+            }
+            probesStarted++;
+            return Permit.PROBE;
+        }
+        return Permit.CALL;
+    }
+
+    /**
+     * Records a finished call. Returns the new state when this result moved the breaker, otherwise null.
+     */
+    synchronized State onResult(Permit permit, boolean failure, long latencyNanos, long now) {
+        boolean slowCall = latencyNanos >= slowCallNanos;
+        if (permit == Permit.PROBE) {
+            if (state != State.HALF_OPEN) {
+                return null;
+            }
+            if (failure || slowCall) {
+                return open(now);
+            }
+            return ++probesSucceeded >= halfOpenProbes ? reset() : null;
+        }
+        if (state != State.CLOSED) {
+            // A call admitted before the circuit opened; its outcome no longer matters.
+            return null;
+        }
+
+        if (size == failed.length) {
+            failedCount -= failed[next] ? 1 : 0;
+            slowCount -= slow[next] ? 1 : 0;
+        } else {
+            size++;
+        }
+        failed[next] = failure;
+        slow[next] = slowCall;
+        failedCount += failure ? 1 : 0;
+        slowCount += slowCall ? 1 : 0;
+        next = (next + 1) % failed.length;
+
+        if (size >= minimumCalls && ((double) failedCount / size >= failureRateThreshold
+                || (double) slowCount / size >= slowCallRateThreshold)) {
+            return open(now);
+        }
+        return null;
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private State open(long now) {
+        state = State.OPEN;
+        openedAt = now;
+        return state;
+    }
+
+    private State reset() {
+        state = State.CLOSED;
+        size = 0;
+        next = 0;
+        failedCount = 0;
+        slowCount = 0;
+        return state;
+    }
+}
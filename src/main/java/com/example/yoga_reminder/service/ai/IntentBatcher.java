@@ -0,0 +1,136 @@
+package com.example.yoga_reminder.service.ai;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import com.example.yoga_reminder.config.ReplyIntentProperties;
+import com.example.yoga_reminder.domain.enums.IntentType;
+import com.example.yoga_reminder.dto.AiDecision;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects intent requests for up to {@code window} or {@code maxSize} replies and classifies them with one
+ * JSON-array prompt. Each caller's future completes with its raw (un-normalized) decision, or with null when
+ * the batch could not be used (AI error, unparseable output, missing id) so the caller can retry alone.
+ */
+@Component
+@Slf4j
+public class IntentBatcher {
+
+    private final ObjectProvider<ChatClient> chatClientProvider;
+    private final ObjectMapper objectMapper;
+    private final ChatClientGuard chatClientGuard;
+    private final ReplyIntentProperties.Batch properties;
+
+    private final BlockingQueue<PendingIntent> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Thread collector;
+
+    public IntentBatcher(ObjectProvider<ChatClient> chatClientProvider,
+                         ObjectMapper objectMapper,
+                         ChatClientGuard chatClientGuard,
+                         ReplyIntentProperties intentProperties) {
+        this.chatClientProvider = chatClientProvider;
+        this.objectMapper = objectMapper;
+        this.chatClientGuard = chatClientGuard;
+        this.properties = intentProperties.getBatch();
+        this.collector = properties.isEnabled()
+                ? Thread.ofVirtual().name("intent-batcher").start(this::collect)
+                : null;
+    }
+
+    public boolean isEnabled() {
+        return collector != null;
+    }
+
+    public CompletableFuture<AiDecision> submit(String userReply) {
+        PendingIntent pending = new PendingIntent(userReply, new CompletableFuture<>());
+        queue.add(pending);
+        return pending.result();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (collector != null) {
+            collector.interrupt();
+        }
+        executor.shutdown();
+    }
+
+    private void collect() {
+        long windowNanos = properties.getWindow().toNanos();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<PendingIntent> batch = new ArrayList<>(properties.getMaxSize());
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < properties.getMaxSize()) {
+                    PendingIntent next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                executor.execute(() -> classify(batch));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void classify(List<PendingIntent> batch) {
+        Map<Integer, AiDecision> decisions = new HashMap<>();
+        try {
+            List<Map<String, Object>> input = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                input.add(Map.of("id", i, "text", batch.get(i).userReply()));
+            }
+
+            log.info("Calling AI for batched intent detection of {} replies", batch.size());
+            String prompt = PromptTemplates.intentBatchUserPrompt(objectMapper.writeValueAsString(input));
+            String raw = chatClientGuard.call("intent-batch", () -> chatClientProvider.getObject().prompt()
+                    .system(PromptTemplates.intentBatchSystemPrompt())
+                    .user(prompt)
+                    .call()
+                    .content());
+
+            List<BatchItem> items = objectMapper.readValue(raw, new TypeReference<List<BatchItem>>() {
+            });
+            for (BatchItem item : items) {
+                if (item.id() != null) {
+                    decisions.put(item.id(), new AiDecision(item.intent(), item.followUpDays(),
+                            item.followUpHours()));
+                }
+            }
+        } catch (Exception ex) {
+            log.warn("Batched intent detection of {} replies failed; callers retry individually. reason={}",
+                    batch.size(), ex.getMessage());
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(decisions.get(i));
+        }
+    }
+
+    private record PendingIntent(String userReply, CompletableFuture<AiDecision> result) {
+    }
+
+    private record BatchItem(Integer id, IntentType intent, Integer followUpDays, Integer followUpHours) {
+    }
+}
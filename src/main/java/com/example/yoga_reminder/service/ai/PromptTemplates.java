@@ -4,6 +4,10 @@ import java.time.LocalDate;
 
 public final class PromptTemplates {
 
+    public static final String NAME_PLACEHOLDER = "{name}";
+    public static final String DATE_PLACEHOLDER = "{date}";
+    public static final int MAX_REMINDER_WORDS = 45;
+
     private PromptTemplates() {
     }
 
@@ -13,7 +17,8 @@ public final class PromptTemplates {
                 Respond with JSON ONLY (no markdown, no prose). Use exactly this schema:
                 {
                   "intent": "PAY_NOW" | "PAY_LATER" | "DECLINE",
-                  "followUpDays": <number|null>
+                  "followUpDays": <number|null>,
+                  "followUpHours": <number|null>
                 }
                 Intent meanings:
                 - PAY_NOW: user will pay immediately (e.g., "pay now", "pay immediately", "done").
@@ -22,10 +27,12 @@ public final class PromptTemplates {
                 Examples:
                 - "I'll pay next day" -> PAY_LATER with followUpDays between 1-7
                 - "I'll pay next week" -> PAY_LATER with followUpDays 7
+                - "Remind me in 3 hours" -> PAY_LATER with followUpHours 3 and followUpDays null
                 - "I'll not pay" -> DECLINE with followUpDays null
                 Output rules:
                 - followUpDays MUST be null for PAY_NOW and DECLINE.
                 - For PAY_LATER, followUpDays MUST be 1-7 (choose a sensible value based on phrasing).
+                - followUpHours MUST be null unless a PAY_LATER reply asks for a follow-up in hours (1-48).
                 - Do NOT guess PAY_NOW unless payment is immediate.
                 - Return only valid JSON.
                 """;
@@ -38,13 +45,43 @@ public final class PromptTemplates {
                 """.formatted(userReply);
     }
 
+    public static String intentBatchSystemPrompt() {
+        return """
+                You are an assistant that classifies WhatsApp replies about yoga class payments.
+                You receive a JSON array of replies, each {"id": <number>, "text": "<reply>"}.
+                Respond with JSON ONLY (no markdown, no prose): an array with exactly one object per input reply:
+                [
+                  {"id": <same id>, "intent": "PAY_NOW" | "PAY_LATER" | "DECLINE", "followUpDays": <number|null>,
+                   "followUpHours": <number|null>}
+                ]
+                Intent meanings:
+                - PAY_NOW: user will pay immediately (e.g., "pay now", "pay immediately", "done").
+                - PAY_LATER: user will pay later (e.g., "tomorrow", "next day", "next week", "later").
+                - DECLINE: user refuses or cancels (e.g., "not pay", "cancel", "stop", "no", "don't want").
+                Output rules:
+                - Classify each reply independently; never merge or skip ids.
+                - followUpDays MUST be null for PAY_NOW and DECLINE.
+                - For PAY_LATER, followUpDays MUST be 1-7 (choose a sensible value based on phrasing).
+                - followUpHours MUST be null unless a PAY_LATER reply asks for a follow-up in hours (1-48).
+                - Do NOT guess PAY_NOW unless payment is immediate.
+                - Return only valid JSON.
+                """;
+    }
+
+    public static String intentBatchUserPrompt(String repliesJson) {
+        return """
+                Infer the intent of every reply in this JSON array and return the JSON array only.
+                Replies: %s
+                """.formatted(repliesJson);
+    }
+
     public static String reminderSystemPrompt() {
         return """
                 You write concise, warm WhatsApp payment reminders for yoga students.
-                Output plain text only (no JSON/markdown). Keep it under 45 words.
+                Output plain text only (no JSON/markdown). Keep it under %d words.
                 The message must include the student's name, the plan expiry date, and
                 end by asking them to reply with PAY NOW or PAY LATER.
-                """;
+                """.formatted(MAX_REMINDER_WORDS);
     }
 
     public static String reminderUserPrompt(String name, LocalDate expiryDate) {
@@ -54,5 +91,23 @@ public final class PromptTemplates {
                 - Plan expiry date: %s
                 """.formatted(name, expiryDate);
     }
-}
 
+    public static String reminderTemplateSystemPrompt() {
+        return """
+                You write concise, warm WhatsApp payment reminder templates for yoga students.
+                Respond with JSON ONLY (no markdown, no prose): an array of strings, e.g. ["...", "..."].
+                Every template must contain the placeholders %s and %s exactly once each,
+                stay under %d words, and end by asking the student to reply with PAY NOW or PAY LATER.
+                Do not invent names or dates; use only the placeholders.
+                """.formatted(NAME_PLACEHOLDER, DATE_PLACEHOLDER, MAX_REMINDER_WORDS);
+    }
+
+    public static String reminderTemplateUserPrompt(int count, long daysToExpiry, String locale, String tone) {
+        return """
+                Create %d different reminder templates.
+                - The plan expires in %d day(s); reflect that urgency.
+                - Language/locale: %s
+                - Tone: %s
+                """.formatted(count, daysToExpiry, locale, tone);
+    }
+}
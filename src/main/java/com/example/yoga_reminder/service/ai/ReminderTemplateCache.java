@@ -0,0 +1,64 @@
+package com.example.yoga_reminder.service.ai;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+
+import com.example.yoga_reminder.config.ReminderTemplateProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Size- and TTL-bounded pool of reminder templates per key. Hit/miss/eviction counts are published as
+ * cache.* meters with cache=reminder.templates.
+ */
+@Component
+public class ReminderTemplateCache {
+
+    private final Cache<TemplateKey, List<String>> cache;
+
+    public ReminderTemplateCache(ReminderTemplateProperties properties, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxKeys())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "reminder.templates");
+    }
+
+    /**
+     * Returns the pool for the key, generating it with the loader on a miss. Concurrent misses on the same
+     * key share a single load. A failing loader propagates and caches nothing.
+     */
+    public List<String> get(TemplateKey key, Function<TemplateKey, List<String>> loader) {
+        return cache.get(key, loader);
+    }
+
+    /**
+     * Returns the pool for the key if it is cached and fresh, otherwise null. Never loads.
+     */
+    public List<String> getIfPresent(TemplateKey key) {
+        return cache.getIfPresent(key);
+    }
+
+    public static boolean isUsable(String template) {
+        return template != null
+                && template.contains(PromptTemplates.NAME_PLACEHOLDER)
+                && template.contains(PromptTemplates.DATE_PLACEHOLDER);
+    }
+
+    public static String render(String template, String userName, LocalDate expiryDate) {
+        // Date first, so a name that happens to contain a placeholder is never expanded.
+        return template
+                .replace(PromptTemplates.DATE_PLACEHOLDER, String.valueOf(expiryDate))
+                .replace(PromptTemplates.NAME_PLACEHOLDER, String.valueOf(userName));
+    }
+
+    public record TemplateKey(long daysToExpiry, String locale, String tone) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.yoga_reminder.service.ai;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+import org.springframework.stereotype.Component;
+
+import com.example.yoga_reminder.config.ReplyIntentProperties;
+import com.example.yoga_reminder.dto.AiDecision;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Bounded W-TinyLFU cache of normalized reply text to the final (normalized) intent decision. Only rule and
+ * model results are stored; fallback guesses made while the AI is unavailable are not. Hit/miss counts are
+ * published as cache.* meters with cache=reminder.intent.replies, and the hit ratio as
+ * reminder.intent.cache.hit_ratio.
+ */
+@Component
+public class ReplyIntentCache {
+
+    private final Cache<String, AiDecision> cache;
+    private final ReplyIntentProperties.Cache properties;
+
+    public ReplyIntentCache(ReplyIntentProperties intentProperties, MeterRegistry meterRegistry) {
+        this.properties = intentProperties.getCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "reminder.intent.replies");
+        Gauge.builder("reminder.intent.cache.hit_ratio", cache, c -> c.stats().hitRate())
+                .description("Share of intent lookups answered from the reply cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The cached decision for this reply, or null (also when caching is off or the reply is not cacheable).
+     */
+    public AiDecision get(String userReply) {
+        String key = key(userReply);
+        return key == null ? null : cache.getIfPresent(key);
+    }
+
+    public void put(String userReply, AiDecision decision) {
+        String key = key(userReply);
+        if (key != null && decision != null && decision.intent() != null) {
+            cache.put(key, decision);
+        }
+    }
+
+    /**
+     * Adds without replacing, so a warm-up never overwrites a decision learned live.
+     */
+    public void putIfAbsent(String userReply, AiDecision decision) {
+        String key = key(userReply);
+        if (key != null && decision != null && decision.intent() != null) {
+            cache.asMap().putIfAbsent(key, decision);
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    private String key(String userReply) {
+        if (!properties.isEnabled() || userReply == null) {
+            return null;
+        }
+        String key = normalize(userReply);
+        return key.isEmpty() || key.length() > properties.getMaxLength() ? null : key;
+    }
+
+    /**
+     * NFKC, lower case, typographic apostrophes folded, punctuation and whitespace runs collapsed to one
+     * space. Unlike the rule matcher's normalization, symbols such as emoji are kept: a thumbs-up is a reply too.
+     */
+    static String normalize(String userReply) {
+        String text = Normalizer.normalize(userReply, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder key = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); ) {
+            int c = text.codePointAt(i);
+            i += Character.charCount(c);
+            if (c == '\u2019') {
+                c = '\'';
+            }
+            if (Character.isWhitespace(c) || (isPunctuation(c) && c != '\'')) {
+                pendingSpace = key.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                key.append(' ');
+                pendingSpace = false;
+            }
+            key.appendCodePoint(c);
+        }
+        return key.toString();
+    }
+
+    private static boolean isPunctuation(int c) {
+        return switch (Character.getType(c)) {
+            case Character.CONNECTOR_PUNCTUATION, Character.DASH_PUNCTUATION, Character.START_PUNCTUATION,
+                 Character.END_PUNCTUATION, Character.INITIAL_QUOTE_PUNCTUATION, Character.FINAL_QUOTE_PUNCTUATION,
+                 Character.OTHER_PUNCTUATION -> true;
+            default -> false;
+        };
+    }
+}
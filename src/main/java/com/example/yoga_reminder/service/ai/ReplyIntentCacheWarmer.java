@@ -0,0 +1,84 @@
+package com.example.yoga_reminder.service.ai;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.example.yoga_reminder.config.ReplyIntentProperties;
+import com.example.yoga_reminder.domain.enums.IntentType;
+import com.example.yoga_reminder.domain.enums.PaymentIntent;
+import com.example.yoga_reminder.dto.AiDecision;
+import com.example.yoga_reminder.dto.ReplyIntentCount;
+import com.example.yoga_reminder.repository.PaymentActionRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Preloads {@link ReplyIntentCache} from the reply history at startup. Only PAY_NOW is preloaded:
+ * payment_actions does not keep the follow-up delay of a PAY_LATER, so those are learned live instead.
+ * Texts that were ever classified with more than one intent are skipped.
+ */
+@Component
+@Slf4j
+public class ReplyIntentCacheWarmer {
+
+    private final ReplyIntentCache cache;
+    private final PaymentActionRepository paymentActionRepository;
+    private final ReplyIntentProperties.Cache properties;
+
+    public ReplyIntentCacheWarmer(ReplyIntentCache cache,
+                                  PaymentActionRepository paymentActionRepository,
+                                  ReplyIntentProperties intentProperties) {
+        this.cache = cache;
+        this.paymentActionRepository = paymentActionRepository;
+        this.properties = intentProperties.getCache();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        if (!cache.isEnabled() || !properties.isWarmOnStartup()) {
+            return;
+        }
+        try {
+            List<ReplyIntentCount> history = paymentActionRepository.findFrequentReplies(
+                    LocalDateTime.now().minus(properties.getWarmLookback()),
+                    PageRequest.of(0, properties.getWarmLimit()));
+
+            // Merge by normalized text: "Pay now!" and "pay now" are one cache entry.
+            Map<String, PaymentIntent> intents = new HashMap<>();
+            Map<String, Long> occurrences = new HashMap<>();
+            Map<String, String> samples = new HashMap<>();
+            Set<String> ambiguous = new HashSet<>();
+            for (ReplyIntentCount row : history) {
+                String key = ReplyIntentCache.normalize(row.userReplyText());
+                PaymentIntent previous = intents.putIfAbsent(key, row.detectedIntent());
+                if (previous != null && previous != row.detectedIntent()) {
+                    ambiguous.add(key);
+                }
+                occurrences.merge(key, row.occurrences(), Long::sum);
+                samples.putIfAbsent(key, row.userReplyText());
+            }
+
+            int loaded = 0;
+            for (Map.Entry<String, PaymentIntent> entry : intents.entrySet()) {
+                if (entry.getValue() == PaymentIntent.PAY_NOW && !ambiguous.contains(entry.getKey())
+                        && occurrences.get(entry.getKey()) >= properties.getWarmMinOccurrences()) {
+                    cache.putIfAbsent(samples.get(entry.getKey()), new AiDecision(IntentType.PAY_NOW, null));
+                    loaded++;
+                }
+            }
+            log.info("Warmed reply intent cache with {} reply text(s) from payment history", loaded);
+        } catch (RuntimeException ex) {
+            // A cold cache only costs AI calls; never block startup on it.
+            log.warn("Could not warm reply intent cache. reason={}", ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.example.yoga_reminder.service.ai;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.example.yoga_reminder.config.ReplyIntentProperties;
+import com.example.yoga_reminder.domain.enums.IntentType;
+
+/**
+ * Precompiled Aho-Corasick matcher over normalized reply text. Phrases are matched on word boundaries in a
+ * single pass; the result is confident only when every hit agrees on one intent and the hits cover most of
+ * the reply. Anything else (conflicting phrases, long or unmatched text) is left to the AI. A negation
+ * ("can't pay now", "not paid") conflicts with whatever it qualifies unless it is part of a decline phrase
+ * such as "not pay", so negated replies never resolve locally to the opposite intent.
+ */
+@Component
+public class ReplyIntentMatcher {
+
+    private static final int MAX_TRACKED_CHARS = 128; // two 64-bit coverage masks
+
+    private static final Phrase[] PHRASES = {
+            new Phrase("pay now", IntentType.PAY_NOW, null),
+            new Phrase("paying now", IntentType.PAY_NOW, null),
+            new Phrase("pay immediately", IntentType.PAY_NOW, null),
+            new Phrase("immediately", IntentType.PAY_NOW, null),
+            new Phrase("right now", IntentType.PAY_NOW, null),
+            new Phrase("done", IntentType.PAY_NOW, null),
+            new Phrase("paid", IntentType.PAY_NOW, null),
+            new Phrase("pay later", IntentType.PAY_LATER, null),
+            new Phrase("later", IntentType.PAY_LATER, null),
+            new Phrase("tomorrow", IntentType.PAY_LATER, 1),
+            new Phrase("pay tomorrow", IntentType.PAY_LATER, 1),
+            new Phrase("next day", IntentType.PAY_LATER, 1),
+            new Phrase("next week", IntentType.PAY_LATER, 7),
+            new Phrase("week", IntentType.PAY_LATER, 7),
+            new Phrase("not pay", IntentType.DECLINE, null),
+            new Phrase("won't pay", IntentType.DECLINE, null),
+            new Phrase("will not pay", IntentType.DECLINE, null),
+            new Phrase("don't want", IntentType.DECLINE, null),
+            new Phrase("do not want", IntentType.DECLINE, null),
+            new Phrase("not interested", IntentType.DECLINE, null),
+            new Phrase("cancel", IntentType.DECLINE, null),
+            new Phrase("stop", IntentType.DECLINE, null),
+            new Phrase("no", IntentType.DECLINE, null),
+            // Negation cues (no intent of their own).
+            new Phrase("not", null, null),
+            new Phrase("never", null, null),
+            new Phrase("can't", null, null),
+            new Phrase("cant", null, null),
+            new Phrase("cannot", null, null),
+            new Phrase("haven't", null, null),
+            new Phrase("havent", null, null),
+            new Phrase("didn't", null, null),
+            new Phrase("didnt", null, null),
+            new Phrase("don't", null, null),
+            new Phrase("dont", null, null),
+            new Phrase("won't", null, null),
+            new Phrase("wont", null, null)
+    };
+
+    private final int maxLength;
+
+    // Trie in flat arrays: per node, parallel arrays of edge chars and targets (nodes have few children).
+    private char[][] edgeChars;
+    private int[][] edgeTargets;
+    private int[] failure;
+    private int[] output;      // longest phrase ending at this node, or -1
+    private int[] outputLink;  // next node on the failure chain that has an output, or -1
+
+    public ReplyIntentMatcher(ReplyIntentProperties properties) {
+        this.maxLength = Math.min(properties.getRuleMaxLength(), MAX_TRACKED_CHARS - 2);
+        build();
+    }
+
+    /**
+     * Returns the rule verdict for the reply, or null when no phrase matched.
+     */
+    public RuleMatch match(String userReply) {
+        char[] text = normalizeBounded(userReply);
+        if (text == null) {
+            return null;
+        }
+
+        long covered0 = 0L;
+        long covered1 = 0L;
+        long declined0 = 0L;   // characters inside decline phrases
+        long declined1 = 0L;
+        long negated0 = 0L;    // characters of negation cues
+        long negated1 = 0L;
+        IntentType intent = null;
+        boolean conflicting = false;
+        Integer followUpDays = null;
+        int followUpPhraseLength = 0;
+
+        int state = 0;
+        for (int i = 0; i < text.length; i++) {
+            state = step(state, text[i]);
+            for (int node = output[state] >= 0 ? state : outputLink[state]; node >= 0; node = outputLink[node]) {
+                Phrase phrase = PHRASES[output[node]];
+                // Pattern is " phrase " ending at i; the phrase characters (without padding) are [start, end).
+                int end = i;                                // exclusive (trailing space)
+                int start = i - phrase.text().length();     // inclusive (after leading space)
+                if (phrase.intent() == null) {
+                    negated0 |= span(start, end, 0);
+                    negated1 |= span(start, end, 64);
+                    continue;
+                }
+                if (phrase.intent() == IntentType.DECLINE) {
+                    declined0 |= span(start, end, 0);
+                    declined1 |= span(start, end, 64);
+                }
+                if (intent == null) {
+                    intent = phrase.intent();
+                } else if (intent != phrase.intent()) {
+                    conflicting = true;
+                }
+                if (phrase.followUpDays() != null && phrase.text().length() > followUpPhraseLength) {
+                    followUpDays = phrase.followUpDays();
+                    followUpPhraseLength = phrase.text().length();
+                }
+                covered0 |= span(start, end, 0);
+                covered1 |= span(start, end, 64);
+            }
+        }
+
+        if (intent == null) {
+            return null;
+        }
+        if ((negated0 & ~declined0) != 0 || (negated1 & ~declined1) != 0) {
+            // A negation outside any decline phrase may flip the matched intent ("can't pay now").
+            conflicting = true;
+        }
+        if (conflicting) {
+            return new RuleMatch(intent, followUpDays, 0.0);
+        }
+
+        int letters = 0;
+        int coveredLetters = 0;
+        for (int p = 0; p < text.length; p++) {
+            if (text[p] == ' ') {
+                continue;
+            }
+            letters++;
+            boolean isCovered = p < 64 ? (covered0 & (1L << p)) != 0 : (covered1 & (1L << (p - 64))) != 0;
+            if (isCovered) {
+                coveredLetters++;
+            }
+        }
+        double coverage = letters == 0 ? 0.0 : (double) coveredLetters / letters;
+        return new RuleMatch(intent, followUpDays, 0.5 + 0.5 * coverage);
+    }
+
+    /**
+     * Lower-cases, maps punctuation to spaces, collapses whitespace and pads with one space on each side so
+     * phrase patterns (also space-padded) only match whole words. Returns null for blank or over-long text.
+     */
+    static char[] normalize(String userReply) {
+        if (userReply == null) {
+            return null;
+        }
+        char[] buffer = new char[userReply.length() + 2];
+        int length = 0;
+        buffer[length++] = ' ';
+        for (int i = 0; i < userReply.length(); i++) {
+            char c = userReply.charAt(i);
+            if (c == '\u2019') { // typographic apostrophe
+                c = '\'';
+            }
+            if (Character.isLetterOrDigit(c) || c == '\'') {
+                buffer[length++] = Character.toLowerCase(c);
+            } else if (buffer[length - 1] != ' ') {
+                buffer[length++] = ' ';
+            }
+        }
+        if (buffer[length - 1] != ' ') {
+            buffer[length++] = ' ';
+        }
+        if (length <= 1) {
+            return null;
+        }
+        return Arrays.copyOf(buffer, length);
+    }
+
+    /**
+     * Bits of the character range [start, end) that fall into the 64-bit mask word covering positions
+     * offset..offset+63.
+     */
+    private static long span(int start, int end, int offset) {
+        int from = Math.max(start - offset, 0);
+        int to = Math.min(end - offset, 64);
+        if (from >= to) {
+            return 0L;
+        }
+        long bits = to - from == 64 ? -1L : (1L << (to - from)) - 1;
+        return bits << from;
+    }
+
+    private char[] normalizeBounded(String userReply) {
+        char[] text = normalize(userReply);
+        return text == null || text.length - 2 > maxLength ? null : text;
+    }
+
+    private int step(int state, char c) {
+        while (true) {
+            int next = transition(state, c);
+            if (next >= 0) {
+                return next;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = failure[state];
+        }
+    }
+
+    private int transition(int state, char c) {
+        char[] chars = edgeChars[state];
+        for (int i = 0; i < chars.length; i++) {
+            if (chars[i] == c) {
+                return edgeTargets[state][i];
+            }
+        }
+        return -1;
+    }
+
+    private void build() {
+        List<char[]> chars = new ArrayList<>();
+        List<int[]> targets = new ArrayList<>();
+        List<Integer> outputs = new ArrayList<>();
+        chars.add(new char[0]);
+        targets.add(new int[0]);
+        outputs.add(-1);
+
+        for (int p = 0; p < PHRASES.length; p++) {
+            String pattern = " " + PHRASES[p].text() + " ";
+            int state = 0;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                int next = -1;
+                char[] edges = chars.get(state);
+                for (int e = 0; e < edges.length; e++) {
+                    if (edges[e] == c) {
+                        next = targets.get(state)[e];
+                    }
+                }
+                if (next < 0) {
+                    next = chars.size();
+                    chars.add(new char[0]);
+                    targets.add(new int[0]);
+                    outputs.add(-1);
+                    chars.set(state, append(chars.get(state), c));
+                    targets.set(state, append(targets.get(state), next));
+                }
+                state = next;
+            }
+            outputs.set(state, p);
+        }
+
+        int nodeCount = chars.size();
+        edgeChars = chars.toArray(new char[0][]);
+        edgeTargets = targets.toArray(new int[0][]);
+        output = outputs.stream().mapToInt(Integer::intValue).toArray();
+        failure = new int[nodeCount];
+        outputLink = new int[nodeCount];
+        Arrays.fill(outputLink, -1);
+
+        // Breadth-first failure links.
+        int[] queue = new int[nodeCount];
+        int head = 0;
+        int tail = 0;
+        for (int child : edgeTargets[0]) {
+            failure[child] = 0;
+            queue[tail++] = child;
+        }
+        while (head < tail) {
+            int node = queue[head++];
+            for (int e = 0; e < edgeChars[node].length; e++) {
+                char c = edgeChars[node][e];
+                int child = edgeTargets[node][e];
+                int fallback = failure[node];
+                while (fallback != 0 && transition(fallback, c) < 0) {
+                    fallback = failure[fallback];
+                }
+                int target = transition(fallback, c);
+                failure[child] = target >= 0 && target != child ? target : 0;
+                int linked = failure[child];
+                outputLink[child] = output[linked] >= 0 ? linked : outputLink[linked];
+                queue[tail++] = child;
+            }
+        }
+    }
+
+    private static char[] append(char[] array, char value) {
+        char[] copy = Arrays.copyOf(array, array.length + 1);
+        copy[array.length] = value;
+        return copy;
+    }
+
+    private static int[] append(int[] array, int value) {
+        int[] copy = Arrays.copyOf(array, array.length + 1);
+        copy[array.length] = value;
+        return copy;
+    }
+
+    private record Phrase(String text, IntentType intent, Integer followUpDays) {
+    }
+
+    /**
+     * Rule verdict. Confidence is 0 when phrases disagree or a negation qualifies the match, otherwise 0.5 plus half the share of the reply
+     * covered by matched phrases (1.0 for an exact phrase like "pay now").
+     */
+    public record RuleMatch(IntentType intent, Integer followUpDays, double confidence) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.yoga_reminder.service.ai;
+
+/**
+ * Assembles streamed text up to a word limit. {@link #append} reports when the limit is exceeded so the
+ * caller can cancel the stream; {@link #text} then ends at the last full sentence within the limit, or at
+ * the limit itself when no sentence ended before it. A sentence end is only used when it keeps at least half
+ * the limit, so a message is never cut back to its greeting.
+ */
+public final class WordCap {
+
+    private final int maxWords;
+    private final int minSentenceWords;
+    private final StringBuilder text = new StringBuilder();
+    private int words;
+    private boolean inWord;
+    private int cutAt = -1;
+    private int lastSentenceEnd = -1;
+    private int wordsAtSentenceEnd;
+
+    public WordCap(int maxWords) {
+        if (maxWords < 1) {
+            throw new IllegalArgumentException("Word cap must be positive");
+        }
+        this.maxWords = maxWords;
+        this.minSentenceWords = (maxWords + 1) / 2;
+    }
+
+    /**
+     * Appends one streamed chunk. Returns true once the limit is exceeded; later chunks are not needed.
+     */
+    public boolean append(String chunk) {
+        if (cutAt >= 0) {
+            return true;
+        }
+        for (int i = 0; i < chunk.length(); i++) {
+            char c = chunk.charAt(i);
+            if (Character.isWhitespace(c)) {
+                inWord = false;
+            } else if (!inWord) {
+                inWord = true;
+                if (++words > maxWords) {
+                    cutAt = text.length();
+                    return true;
+                }
+            }
+            text.append(c);
+            if (c == '.' || c == '!' || c == '?') {
+                lastSentenceEnd = text.length();
+                wordsAtSentenceEnd = words;
+            }
+        }
+        return false;
+    }
+
+    public boolean isTruncated() {
+        return cutAt >= 0;
+    }
+
+    public String text() {
+        if (cutAt < 0) {
+            return text.toString().strip();
+        }
+        boolean sentenceKeepsEnough = lastSentenceEnd > 0 && wordsAtSentenceEnd >= minSentenceWords;
+        return text.substring(0, sentenceKeepsEnough ? lastSentenceEnd : cutAt).strip();
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.yoga_reminder.service.concurrency;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import com.example.yoga_reminder.config.InvoiceConcurrencyProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Concurrency control for invoice read-modify-write operations. Within this JVM, work on one invoice is
+ * serialized through a striped lock, so hot invoices queue cheaply instead of failing their version check.
+ * Across JVMs (or against direct update statements), the {@code @Version} column catches lost updates and
+ * the operation is retried with jittered backoff.
+ *
+ * Meters: reminder.invoice.lock.contended, reminder.invoice.lock.wait,
+ * reminder.invoice.optimistic.conflicts{operation}, reminder.invoice.optimistic.exhausted{operation}.
+ */
+@Component
+@Slf4j
+public class InvoiceConcurrencyControl {
+
+    private final ReentrantLock[] stripes;
+    private final int stripeMask;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    private final MeterRegistry meterRegistry;
+    private final Counter lockContended;
+    private final Timer lockWait;
+
+    public InvoiceConcurrencyControl(InvoiceConcurrencyProperties properties, MeterRegistry meterRegistry) {
+        int size = Integer.highestOneBit(Math.max(1, properties.getLockStripes() - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.stripeMask = size - 1;
+        this.maxAttempts = Math.max(1, properties.getMaxAttempts());
+        this.backoffMillis = properties.getRetryBackoff().toMillis();
+
+        this.meterRegistry = meterRegistry;
+        this.lockContended = meterRegistry.counter("reminder.invoice.lock.contended");
+        this.lockWait = meterRegistry.timer("reminder.invoice.lock.wait");
+    }
+
+    /**
+     * Runs the operation under the invoice's stripe lock, retrying it when the optimistic version check
+     * fails. The operation must open its own transaction so every attempt re-reads the invoice. The lock is
+     * held per attempt only; the backoff between attempts sleeps without it, so other invoices on the same
+     * stripe are not held up.
+     */
+    public <T> T execute(Long invoiceId, String operation, Supplier<T> work) {
+        ReentrantLock lock = stripes[stripeIndex(invoiceId)];
+        for (int attempt = 1; ; attempt++) {
+            lock(lock);
+            try {
+                return work.get();
+            } catch (OptimisticLockingFailureException ex) {
+                recordConflict(operation);
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("reminder.invoice.optimistic.exhausted", "operation", operation)
+                            .increment();
+                    log.warn("Giving up {} on invoice {} after {} version conflicts", operation, invoiceId, attempt);
+                    throw ex;
+                }
+                log.info("Version conflict on invoice {} during {} (attempt {}), retrying", invoiceId, operation,
+                        attempt);
+            } finally {
+                lock.unlock();
+            }
+            sleepBeforeRetry(attempt);
+        }
+    }
+
+    /**
+     * Counts a version conflict detected outside {@link #execute} (e.g. a compare-and-set update that
+     * matched no row).
+     */
+    public void recordConflict(String operation) {
+        meterRegistry.counter("reminder.invoice.optimistic.conflicts", "operation", operation).increment();
+    }
+
+    private void lock(ReentrantLock lock) {
+        if (!lock.tryLock()) {
+            lockContended.increment();
+            long start = System.nanoTime();
+            lock.lock();
+            lockWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void sleepBeforeRetry(int attempt) {
+        long delay = backoffMillis << (attempt - 1);
+        long jitter = delay == 0 ? 0 : ThreadLocalRandom.current().nextLong(delay + 1);
+        try {
+            Thread.sleep(delay + jitter);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying invoice update", ex);
+        }
+    }
+
+    private int stripeIndex(Long invoiceId) {
+        long id = invoiceId == null ? 0L : invoiceId;
+        int hash = Long.hashCode(id);
+        return (hash ^ (hash >>> 16)) & stripeMask;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.yoga_reminder.service.dispatch;
+
+public enum DispatchOutcome {
+    SENT,       // recorded and queued in the outbox for delivery
+    CONFLICT,   // not queued: the invoice had already been advanced by someone else
+    DUPLICATE,  // invoice already in flight, or this step was already claimed today; not sent again
+    FAILED      // generation or persistence failed; invoice stays due for the next run
+}
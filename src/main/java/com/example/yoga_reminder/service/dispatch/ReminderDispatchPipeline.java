@@ -0,0 +1,254 @@
+package com.example.yoga_reminder.service.dispatch;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Component;
+
+import com.example.yoga_reminder.config.PregenerationProperties;
+import com.example.yoga_reminder.config.ReminderDispatchProperties;
+import com.example.yoga_reminder.dto.RenewalCandidate;
+import com.example.yoga_reminder.dto.SentReminder;
+import com.example.yoga_reminder.repository.PregeneratedMessageRepository;
+import com.example.yoga_reminder.service.AiService;
+import com.example.yoga_reminder.service.logging.ReminderEvent;
+import com.example.yoga_reminder.service.logging.ReminderEventLog;
+import com.example.yoga_reminder.service.run.ReminderRunStore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Dispatches due reminders on virtual threads. Each reminder runs generation -> persistence, and every stage
+ * is gated by its own limit (a semaphore here, flush permits in {@link ReminderWriteBuffer}) so slow AI calls
+ * overlap without flooding the downstream stage. Persistence commits the invoice transition together with
+ * an outbox row; the WhatsApp send itself happens later in {@code ReminderOutboxRelay}. {@link #submit}
+ * blocks once maxInFlight reminders are admitted, which pushes back on the selection stage (the scheduler's
+ * keyset loop). Every reminder is claimed in {@link ReminderRunStore} before it is queued, so a step already
+ * queued or sent today is not queued again by a resumed or overlapping pass.
+ */
+@Component
+@Slf4j
+public class ReminderDispatchPipeline {
+
+    private final AiService aiService;
+    private final ReminderWriteBuffer writeBuffer;
+    private final ReminderEventLog eventLog;
+    private final PregeneratedMessageRepository pregeneratedMessageRepository;
+    private final ReminderRunStore runStore;
+    private final MeterRegistry meterRegistry;
+    private final boolean pregenerationEnabled;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore inFlight;
+    private final Semaphore generationPermits;
+    private final Set<Long> activeInvoices = ConcurrentHashMap.newKeySet();
+
+    private final ReentrantLock idleLock = new ReentrantLock();
+    private final Condition idle = idleLock.newCondition();
+    private int pending; // guarded by idleLock
+
+    public ReminderDispatchPipeline(AiService aiService,
+                                    ReminderWriteBuffer writeBuffer,
+                                    ReminderEventLog eventLog,
+                                    PregeneratedMessageRepository pregeneratedMessageRepository,
+                                    ReminderRunStore runStore,
+                                    MeterRegistry meterRegistry,
+                                    ReminderDispatchProperties properties,
+                                    PregenerationProperties pregenerationProperties) {
+        this.aiService = aiService;
+        this.writeBuffer = writeBuffer;
+        this.eventLog = eventLog;
+        this.pregeneratedMessageRepository = pregeneratedMessageRepository;
+        this.runStore = runStore;
+        this.meterRegistry = meterRegistry;
+        this.pregenerationEnabled = pregenerationProperties.isEnabled();
+        this.inFlight = new Semaphore(properties.getMaxInFlight());
+        this.generationPermits = new Semaphore(properties.getGenerationConcurrency());
+    }
+
+    /**
+     * Admits a due candidate outside a checkpointed pass (the reminder timer).
+     */
+    public CompletableFuture<DispatchOutcome> submit(RenewalCandidate candidate) {
+        return submit(candidate, null, LocalDate.now());
+    }
+
+    /**
+     * Admits a due candidate of the given run. An invoice already in flight is not dispatched twice.
+     */
+    public CompletableFuture<DispatchOutcome> submit(RenewalCandidate candidate, String runId, LocalDate runDate) {
+        Long invoiceId = candidate.invoiceId();
+        if (!activeInvoices.add(invoiceId)) {
+            return CompletableFuture.completedFuture(DispatchOutcome.DUPLICATE);
+        }
+
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException ex) {
+            activeInvoices.remove(invoiceId);
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(DispatchOutcome.FAILED);
+        }
+
+        changePending(1);
+        CompletableFuture<DispatchOutcome> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            DispatchOutcome outcome = dispatch(candidate, runId, runDate);
+            activeInvoices.remove(invoiceId);
+            inFlight.release();
+            // Complete before dropping pending so callbacks attached by the caller have run by awaitIdle().
+            result.complete(outcome);
+            changePending(-1);
+        });
+        return result;
+    }
+
+    /**
+     * Blocks until every admitted reminder has completed.
+     */
+    public void awaitIdle() throws InterruptedException {
+        idleLock.lock();
+        try {
+            while (pending > 0) {
+                idle.await();
+            }
+        } finally {
+            idleLock.unlock();
+        }
+    }
+
+    /**
+     * Like {@link #awaitIdle()}, but gives up after timeout. Returns true once idle.
+     */
+    public boolean awaitIdle(Duration timeout) throws InterruptedException {
+        long remaining = timeout.toNanos();
+        idleLock.lock();
+        try {
+            while (pending > 0) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = idle.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            idleLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private DispatchOutcome dispatch(RenewalCandidate candidate, String runId, LocalDate runDate) {
+        Long invoiceId = candidate.invoiceId();
+        String message;
+        try {
+            // AI crafts a short, personalized WhatsApp reminder.
+            String staged = pregenerated(candidate);
+            // Streamed: the model request is cancelled once the text runs past the word cap.
+            message = staged != null ? staged : withPermit(generationPermits, () ->
+                    aiService.streamReminderMessage(candidate.userName(), candidate.subscriptionEndDate())
+                            .toFuture().get());
+        } catch (Exception ex) {
+            logFailure(candidate, ex);
+            return DispatchOutcome.FAILED;
+        }
+
+        boolean recorded;
+        try {
+            if (!runStore.claimSend(runId, runDate, candidate)) {
+                return DispatchOutcome.DUPLICATE;
+            }
+        } catch (RuntimeException ex) {
+            logFailure(candidate, ex);
+            return DispatchOutcome.FAILED;
+        }
+        try {
+            recorded = writeBuffer.add(new SentReminder(candidate, message, LocalDateTime.now(), runDate)).get();
+        } catch (Exception ex) {
+            // Rolled back with its batch, so nothing was queued.
+            releaseClaim(runDate, candidate);
+            logFailure(candidate, ex);
+            return DispatchOutcome.FAILED;
+        }
+        if (!recorded) {
+            releaseClaim(runDate, candidate);
+            return DispatchOutcome.CONFLICT;
+        }
+        log.debug("Reminder body for invoice {}: {}", invoiceId, message);
+        return DispatchOutcome.SENT;
+    }
+
+    private void logFailure(RenewalCandidate candidate, Exception ex) {
+        eventLog.failure(ReminderEvent.REMINDER_FAILED)
+                .addKeyValue("invoiceId", candidate.invoiceId())
+                .addKeyValue("phone", ReminderEventLog.maskPhone(candidate.userPhone()))
+                .addKeyValue("reason", ex.getMessage())
+                .log("Reminder dispatch failed; it stays due");
+    }
+
+    private void releaseClaim(LocalDate runDate, RenewalCandidate candidate) {
+        try {
+            runStore.markFailed(runDate, candidate.invoiceId(), candidate.sentCount());
+        } catch (RuntimeException ex) {
+            log.warn("Could not release send claim of invoice {}: {}", candidate.invoiceId(), ex.getMessage());
+        }
+    }
+
+    /**
+     * Text staged overnight for this exact step and invoice version, or null.
+     */
+    private String pregenerated(RenewalCandidate candidate) {
+        if (!pregenerationEnabled) {
+            return null;
+        }
+        String message;
+        try {
+            message = pregeneratedMessageRepository
+                    .findMessage(candidate.invoiceId(), candidate.sentCount(), candidate.version())
+                    .orElse(null);
+        } catch (RuntimeException ex) {
+            log.warn("Could not read staged message for invoice {}; generating it. reason={}",
+                    candidate.invoiceId(), ex.getMessage());
+            message = null;
+        }
+        meterRegistry.counter("reminder.pregeneration.lookups", "result", message == null ? "miss" : "hit")
+                .increment();
+        return message;
+    }
+
+    private <T> T withPermit(Semaphore permits, Callable<T> stage) throws Exception {
+        permits.acquire();
+        try {
+            return stage.call();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void changePending(int delta) {
+        idleLock.lock();
+        try {
+            pending += delta;
+            if (pending == 0) {
+                idle.signalAll();
+            }
+        } finally {
+            idleLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.yoga_reminder.service.dispatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Component;
+
+import com.example.yoga_reminder.config.ReminderDispatchProperties;
+import com.example.yoga_reminder.dto.SentReminder;
+import com.example.yoga_reminder.service.ReminderService;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persistence stage of the dispatch pipeline. Generated reminders are buffered and written through
+ * {@link ReminderService#recordRemindersSent} once a batch fills up or the oldest entry has waited
+ * for the flush interval. Each caller gets a future telling whether its invoice transition was applied.
+ */
+@Component
+@Slf4j
+public class ReminderWriteBuffer {
+
+    private final ReminderService reminderService;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Semaphore flushPermits;
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private List<PendingWrite> buffer = new ArrayList<>(); // guarded by lock
+    private long oldestEnqueuedAt;                         // guarded by lock
+
+    public ReminderWriteBuffer(ReminderService reminderService, ReminderDispatchProperties properties) {
+        this.reminderService = reminderService;
+        this.batchSize = properties.getPersistenceBatchSize();
+        this.flushIntervalNanos = properties.getPersistenceFlushInterval().toNanos();
+        this.flushPermits = new Semaphore(properties.getPersistenceConcurrency());
+        long periodMillis = Math.max(1, properties.getPersistenceFlushInterval().toMillis() / 2);
+        flusher.scheduleAtFixedRate(this::flushIfStale, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public CompletableFuture<Boolean> add(SentReminder reminder) {
+        PendingWrite pending = new PendingWrite(reminder, new CompletableFuture<>());
+        List<PendingWrite> full = null;
+        lock.lock();
+        try {
+            if (buffer.isEmpty()) {
+                oldestEnqueuedAt = System.nanoTime();
+            }
+            buffer.add(pending);
+            if (buffer.size() >= batchSize) {
+                full = drain();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (full != null) {
+            flush(full);
+        }
+        return pending.result();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flusher.shutdown();
+        List<PendingWrite> remaining;
+        lock.lock();
+        try {
+            remaining = drain();
+        } finally {
+            lock.unlock();
+        }
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    private void flushIfStale() {
+        List<PendingWrite> stale = null;
+        lock.lock();
+        try {
+            if (!buffer.isEmpty() && System.nanoTime() - oldestEnqueuedAt >= flushIntervalNanos) {
+                stale = drain();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (stale != null) {
+            flush(stale);
+        }
+    }
+
+    private List<PendingWrite> drain() {
+        List<PendingWrite> drained = buffer;
+        buffer = new ArrayList<>(batchSize);
+        return drained;
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        try {
+            flushPermits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            batch.forEach(pending -> pending.result().completeExceptionally(ex));
+            return;
+        }
+
+        try {
+            boolean[] applied = reminderService.recordRemindersSent(
+                    batch.stream().map(PendingWrite::reminder).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(applied[i]);
+            }
+        } catch (Exception ex) {
+            // One bad row rolls back the whole batch; retry row by row so the others are still recorded.
+            log.warn("Batched reminder write of {} row(s) failed, retrying individually. reason={}",
+                    batch.size(), ex.getMessage());
+            batch.forEach(this::flushSingle);
+        } finally {
+            flushPermits.release();
+        }
+    }
+
+    private void flushSingle(PendingWrite pending) {
+        SentReminder reminder = pending.reminder();
+        try {
+            pending.result().complete(reminderService.recordRemindersSent(List.of(reminder))[0]);
+        } catch (Exception ex) {
+            pending.result().completeExceptionally(ex);
+        }
+    }
+
+    private record PendingWrite(SentReminder reminder, CompletableFuture<Boolean> result) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.yoga_reminder.service.inbound;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.yoga_reminder.domain.entity.InboundReply;
+import com.example.yoga_reminder.domain.enums.InboundReplyStatus;
+import com.example.yoga_reminder.dto.response.WhatsAppResponse;
+import com.example.yoga_reminder.repository.InboundReplyRepository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write side of the inbound reply queue, plus its depth/lag gauges. Gauges read values refreshed by the
+ * worker each drain cycle, so a metrics scrape never hits the database.
+ */
+@Component
+@Slf4j
+public class InboundReplyQueue {
+
+    private static final int MAX_MESSAGE_LENGTH = 1000;
+
+    private final InboundReplyRepository inboundReplyRepository;
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    public InboundReplyQueue(InboundReplyRepository inboundReplyRepository, MeterRegistry meterRegistry) {
+        this.inboundReplyRepository = inboundReplyRepository;
+        Gauge.builder("reminder.inbound.depth", depth, AtomicLong::get)
+                .description("Replies waiting to be processed")
+                .register(meterRegistry);
+        Gauge.builder("reminder.inbound.lag", lagMillis, AtomicLong::get)
+                .description("Age of the oldest waiting reply")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Validates and appends a reply. Processing happens asynchronously in {@link InboundReplyWorker}.
+     */
+    @Transactional
+    public Long enqueue(WhatsAppResponse dto) {
+        if (dto.getInvoiceId() == null) {
+            throw new IllegalArgumentException("Invoice id is required");
+        }
+        if (dto.getMessage() != null && dto.getMessage().length() > MAX_MESSAGE_LENGTH) {
+            throw new IllegalArgumentException("Reply message is too long");
+        }
+
+        InboundReply reply = new InboundReply();
+        reply.setInvoiceId(dto.getInvoiceId());
+        reply.setMessage(dto.getMessage());
+        reply.setStatus(InboundReplyStatus.RECEIVED);
+        reply.setAttempts(0);
+        reply.setReceivedAt(LocalDateTime.now());
+
+        inboundReplyRepository.save(reply);
+        log.debug("Queued reply {} for invoice {}", reply.getId(), dto.getInvoiceId());
+        return reply.getId();
+    }
+
+    void refreshGauges() {
+        depth.set(inboundReplyRepository.countByStatus(InboundReplyStatus.RECEIVED));
+        lagMillis.set(inboundReplyRepository.findFirstByStatusOrderByIdAsc(InboundReplyStatus.RECEIVED)
+                .map(oldest -> Duration.between(oldest.getReceivedAt(), LocalDateTime.now()).toMillis())
+                .orElse(0L));
+    }
+}
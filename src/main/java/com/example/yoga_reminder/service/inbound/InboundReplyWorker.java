@@ -0,0 +1,190 @@
+package com.example.yoga_reminder.service.inbound;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.yoga_reminder.config.InboundReplyProperties;
+import com.example.yoga_reminder.domain.entity.InboundReply;
+import com.example.yoga_reminder.domain.enums.InboundReplyStatus;
+import com.example.yoga_reminder.dto.response.WhatsAppResponse;
+import com.example.yoga_reminder.repository.InboundReplyRepository;
+import com.example.yoga_reminder.service.PaymentService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the inbound reply queue. Each cycle claims the queued replies of up to batchSize invoices,
+ * coalesces them to the newest reply per invoice (older ones are marked COALESCED) and processes the
+ * invoices concurrently on virtual threads, at most {@code workers} at a time.
+ */
+@Component
+@Slf4j
+public class InboundReplyWorker {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final InboundReplyRepository inboundReplyRepository;
+    private final InboundReplyQueue inboundReplyQueue;
+    private final PaymentService paymentService;
+    private final TransactionTemplate transactionTemplate;
+    private final InboundReplyProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore workerPermits;
+
+    public InboundReplyWorker(InboundReplyRepository inboundReplyRepository,
+                              InboundReplyQueue inboundReplyQueue,
+                              PaymentService paymentService,
+                              TransactionTemplate transactionTemplate,
+                              InboundReplyProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.inboundReplyRepository = inboundReplyRepository;
+        this.inboundReplyQueue = inboundReplyQueue;
+        this.paymentService = paymentService;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.workerPermits = new Semaphore(properties.getWorkers());
+    }
+
+    @Scheduled(fixedDelayString = "${reminder.inbound.poll-interval:PT0.2S}")
+    public void drain() {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status ->
+                inboundReplyRepository.releaseStaleClaims(now.minus(properties.getClaimTimeout())));
+
+        List<InboundReply> claimed = claimBatch(now);
+        if (!claimed.isEmpty()) {
+            processBatch(claimed);
+        }
+        inboundReplyQueue.refreshGauges();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private List<InboundReply> claimBatch(LocalDateTime now) {
+        String claimToken = UUID.randomUUID().toString();
+        Integer claimedRows = transactionTemplate.execute(status -> {
+            List<Long> invoiceIds = inboundReplyRepository.findQueuedInvoiceIds(
+                    PageRequest.of(0, properties.getBatchSize()));
+            return invoiceIds.isEmpty() ? 0 : inboundReplyRepository.claim(invoiceIds, claimToken, now);
+        });
+        if (claimedRows == null || claimedRows == 0) {
+            return List.of();
+        }
+        return inboundReplyRepository.findByClaimTokenOrderByIdAsc(claimToken);
+    }
+
+    private void processBatch(List<InboundReply> claimed) {
+        // Ordered by id, so the last reply seen per invoice is the newest one.
+        Map<Long, List<InboundReply>> byInvoice = new LinkedHashMap<>();
+        for (InboundReply reply : claimed) {
+            byInvoice.computeIfAbsent(reply.getInvoiceId(), id -> new ArrayList<>()).add(reply);
+        }
+
+        List<Future<?>> running = new ArrayList<>(byInvoice.size());
+        for (List<InboundReply> replies : byInvoice.values()) {
+            running.add(executor.submit(() -> processInvoiceReplies(replies)));
+        }
+        for (Future<?> task : running) {
+            try {
+                task.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                log.error("Inbound reply task failed unexpectedly", ex);
+            }
+        }
+    }
+
+    private void processInvoiceReplies(List<InboundReply> replies) {
+        InboundReply latest = replies.get(replies.size() - 1);
+        List<Long> superseded = replies.subList(0, replies.size() - 1).stream().map(InboundReply::getId).toList();
+
+        try {
+            workerPermits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return; // claim goes stale and is requeued
+        }
+
+        try {
+            WhatsAppResponse dto = new WhatsAppResponse();
+            dto.setInvoiceId(latest.getInvoiceId());
+            dto.setMessage(latest.getMessage());
+            paymentService.processReply(dto);
+
+            complete(List.of(latest.getId()), InboundReplyStatus.PROCESSED, null);
+            recordEndToEnd(latest, InboundReplyStatus.PROCESSED);
+            if (!superseded.isEmpty()) {
+                complete(superseded, InboundReplyStatus.COALESCED, null);
+                log.info("Coalesced {} older reply(ies) for invoice {} into reply {}", superseded.size(),
+                        latest.getInvoiceId(), latest.getId());
+            }
+        } catch (IllegalArgumentException ex) {
+            // Validation failure (e.g. unknown invoice): retrying will not help.
+            log.warn("Dropping replies for invoice {}: {}", latest.getInvoiceId(), ex.getMessage());
+            complete(replies.stream().map(InboundReply::getId).toList(), InboundReplyStatus.FAILED,
+                    ex.getMessage());
+            recordEndToEnd(latest, InboundReplyStatus.FAILED);
+        } catch (Exception ex) {
+            handleFailure(replies, latest, ex);
+        } finally {
+            workerPermits.release();
+        }
+    }
+
+    private void handleFailure(List<InboundReply> replies, InboundReply latest, Exception ex) {
+        List<Long> ids = replies.stream().map(InboundReply::getId).toList();
+        String error = truncate(ex.getMessage());
+        if (latest.getAttempts() >= properties.getMaxAttempts()) {
+            log.error("Giving up on replies for invoice {} after {} attempts", latest.getInvoiceId(),
+                    latest.getAttempts(), ex);
+            complete(ids, InboundReplyStatus.FAILED, error);
+            recordEndToEnd(latest, InboundReplyStatus.FAILED);
+        } else {
+            log.warn("Processing replies for invoice {} failed (attempt {}), requeueing. reason={}",
+                    latest.getInvoiceId(), latest.getAttempts(), ex.getMessage());
+            transactionTemplate.executeWithoutResult(status -> inboundReplyRepository.requeue(ids, error));
+        }
+    }
+
+    private void complete(List<Long> ids, InboundReplyStatus status, String error) {
+        transactionTemplate.executeWithoutResult(tx ->
+                inboundReplyRepository.complete(ids, status, LocalDateTime.now(), truncate(error)));
+    }
+
+    /**
+     * Webhook receipt to final status, including queueing and any requeued attempts.
+     */
+    private void recordEndToEnd(InboundReply reply, InboundReplyStatus status) {
+        meterRegistry.timer("reminder.inbound.end_to_end", "status", status.name().toLowerCase(Locale.ROOT))
+                .record(Duration.between(reply.getReceivedAt(), LocalDateTime.now()));
+    }
+
+    private static String truncate(String error) {
+        return error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.yoga_reminder.service.logging;
+
+/**
+ * Pipeline event types. The key is written as the {@code event} field of each JSON line.
+ */
+public enum ReminderEvent {
+
+    CANDIDATE_SKIPPED("candidate.skipped"),
+    REMINDER_NOT_DUE("reminder.not_due"),
+    REMINDER_DUE("reminder.due"),
+    REMINDER_DEFERRED("reminder.deferred"),
+    REMINDER_SENT("reminder.sent"),
+    REMINDER_FAILED("reminder.failed"),
+    REPLY_APPLIED("reply.applied"),
+    REPLY_IGNORED("reply.ignored");
+
+    private final String key;
+
+    ReminderEvent(String key) {
+        this.key = key;
+    }
+
+    public String key() {
+        return key;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.yoga_reminder.service.logging;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.slf4j.spi.NOPLoggingEventBuilder;
+import org.springframework.stereotype.Component;
+
+import com.example.yoga_reminder.config.EventLogProperties;
+import com.example.yoga_reminder.service.whatsapp.TokenBucket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Structured, sampled event log for the per-invoice hot path. Events go to the {@code reminder.events}
+ * logger, which logback-spring.xml routes through its own async JSON appender.
+ *
+ * <pre>{@code
+ * eventLog.routine(ReminderEvent.REMINDER_SENT).addKeyValue("invoiceId", id).log("Reminder sent");
+ * }</pre>
+ *
+ * A routine event that loses the sampling draw or exceeds its rate cap gets a no-op builder, so the caller
+ * pays for neither formatting nor the appender; dropped events are still counted in
+ * {@code reminder.events.suppressed{event}}. Failures are never sampled.
+ */
+@Component
+public class ReminderEventLog {
+
+    private static final Logger EVENTS = LoggerFactory.getLogger("reminder.events");
+
+    private final Map<ReminderEvent, Gate> gates = new EnumMap<>(ReminderEvent.class);
+
+    public ReminderEventLog(EventLogProperties properties, MeterRegistry meterRegistry) {
+        for (ReminderEvent event : ReminderEvent.values()) {
+            EventLogProperties.Limit limit = properties.getEvents().get(event);
+            double sampleRate = limit != null && limit.getSampleRate() != null
+                    ? limit.getSampleRate()
+                    : properties.getSampleRate();
+            double maxPerSecond = limit != null && limit.getMaxPerSecond() != null
+                    ? limit.getMaxPerSecond()
+                    : properties.getMaxPerSecond();
+            if (sampleRate < 0 || sampleRate > 1) {
+                throw new IllegalArgumentException("Sample rate for " + event + " must be between 0 and 1");
+            }
+            Counter suppressed = Counter.builder("reminder.events.suppressed")
+                    .description("Routine events dropped by sampling or rate caps")
+                    .tag("event", event.key())
+                    .register(meterRegistry);
+            TokenBucket cap = maxPerSecond > 0 ? new TokenBucket(maxPerSecond, (int) Math.ceil(maxPerSecond)) : null;
+            gates.put(event, new Gate(sampleRate, cap, suppressed));
+        }
+    }
+
+    /**
+     * INFO builder for a high-volume event, or a no-op builder when this one is sampled out or capped.
+     */
+    public LoggingEventBuilder routine(ReminderEvent event) {
+        if (!EVENTS.isInfoEnabled()) {
+            return NOPLoggingEventBuilder.singleton();
+        }
+        Gate gate = gates.get(event);
+        if (!gate.admit()) {
+            gate.suppressed().increment();
+            return NOPLoggingEventBuilder.singleton();
+        }
+        return EVENTS.atInfo().addKeyValue("event", event.key());
+    }
+
+    /**
+     * WARN builder that bypasses sampling and rate caps.
+     */
+    public LoggingEventBuilder failure(ReminderEvent event) {
+        return EVENTS.atWarn().addKeyValue("event", event.key());
+    }
+
+    /**
+     * Keeps the last four digits, enough to tell recipients apart in a log without exposing the number.
+     */
+    public static String maskPhone(String phoneNumber) {
+        if (phoneNumber == null || phoneNumber.length() <= 4) {
+            return "****";
+        }
+        return "****" + phoneNumber.substring(phoneNumber.length() - 4);
+    }
+
+    private record Gate(double sampleRate, TokenBucket cap, Counter suppressed) {
+
+        boolean admit() {
+            if (sampleRate < 1 && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+                return false;
+            }
+            return cap == null || cap.tryAcquire() == 0L;
+        }
+    }
+}
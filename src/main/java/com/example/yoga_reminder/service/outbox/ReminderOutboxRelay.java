@@ -0,0 +1,277 @@
+package com.example.yoga_reminder.service.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.yoga_reminder.config.ReminderOutboxProperties;
+import com.example.yoga_reminder.domain.entity.ReminderOutbox;
+import com.example.yoga_reminder.domain.enums.OutboxStatus;
+import com.example.yoga_reminder.dto.DeliveryResult;
+import com.example.yoga_reminder.dto.OutboundMessage;
+import com.example.yoga_reminder.repository.ReminderOutboxRepository;
+import com.example.yoga_reminder.service.WhatsAppService;
+import com.example.yoga_reminder.service.logging.ReminderEvent;
+import com.example.yoga_reminder.service.logging.ReminderEventLog;
+import com.example.yoga_reminder.service.run.ReminderRunStore;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains reminder_outbox to {@link WhatsAppService}. Each cycle claims as many ready rows as there is
+ * in-flight room for and sends them as one batch; every result is written back on its own (delivered,
+ * retried with exponential backoff, or failed) as soon as the provider answers, so a slow message never
+ * holds up the rest. The relay's concurrency is independent of the dispatch pipeline's.
+ */
+@Component
+@Slf4j
+public class ReminderOutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+    private static final String IN_DOUBT = "relay stopped mid-send; delivery unknown";
+
+    private final ReminderOutboxRepository outboxRepository;
+    private final WhatsAppService whatsAppService;
+    private final ReminderRunStore runStore;
+    private final ReminderEventLog eventLog;
+    private final TransactionTemplate transactionTemplate;
+    private final ReminderOutboxProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore inFlight;
+    /**
+     * Claim token to the number of its rows still waiting for a result on this relay.
+     */
+    private final Map<String, Integer> ownClaims = new ConcurrentHashMap<>();
+    private final AtomicLong depth = new AtomicLong();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private volatile boolean stopping;
+
+    public ReminderOutboxRelay(ReminderOutboxRepository outboxRepository,
+                               WhatsAppService whatsAppService,
+                               ReminderRunStore runStore,
+                               ReminderEventLog eventLog,
+                               TransactionTemplate transactionTemplate,
+                               ReminderOutboxProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.whatsAppService = whatsAppService;
+        this.runStore = runStore;
+        this.eventLog = eventLog;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.inFlight = new Semaphore(properties.getMaxInFlight());
+        Gauge.builder("reminder.outbox.depth", depth, AtomicLong::get)
+                .description("Reminders waiting in the outbox")
+                .register(meterRegistry);
+        Gauge.builder("reminder.outbox.lag", lagMillis, AtomicLong::get)
+                .description("Age of the oldest waiting reminder")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${reminder.outbox.poll-interval:PT0.2S}")
+    public void drain() {
+        if (stopping) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        failStaleClaims(now.minus(properties.getClaimTimeout()));
+
+        int room = Math.min(properties.getBatchSize(), inFlight.availablePermits());
+        if (room > 0) {
+            List<ReminderOutbox> claimed = claimBatch(now, room);
+            if (!claimed.isEmpty()) {
+                relay(claimed);
+            }
+        }
+        refreshGauges(now);
+    }
+
+    @Scheduled(cron = "${reminder.outbox.purge-cron:0 30 3 * * *}")
+    public void purge() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getRetention());
+        Integer purged = transactionTemplate.execute(status -> outboxRepository.deleteFinishedBefore(cutoff));
+        log.info("Purged {} finished outbox row(s) created before {}", purged, cutoff);
+    }
+
+    /**
+     * Stops claiming and gives messages already handed to WhatsApp a moment to report back, so their rows
+     * are not left in SENDING (which would make them in doubt).
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        stopping = true;
+        if (!inFlight.tryAcquire(properties.getMaxInFlight(), 10, TimeUnit.SECONDS)) {
+            log.warn("Outbox relay stopped with messages still in flight; their rows stay in SENDING");
+        }
+        executor.shutdown();
+    }
+
+    private List<ReminderOutbox> claimBatch(LocalDateTime now, int limit) {
+        String claimToken = UUID.randomUUID().toString();
+        Integer claimedRows = transactionTemplate.execute(status -> {
+            List<Long> ids = outboxRepository.findReadyIds(now, PageRequest.of(0, limit));
+            return ids.isEmpty() ? 0 : outboxRepository.claim(ids, claimToken, now);
+        });
+        if (claimedRows == null || claimedRows == 0) {
+            return List.of();
+        }
+        return outboxRepository.findByClaimTokenOrderByIdAsc(claimToken);
+    }
+
+    private void relay(List<ReminderOutbox> claimed) {
+        // Only this scheduled thread acquires, so the permits counted in drain() are still there.
+        inFlight.acquireUninterruptibly(claimed.size());
+        ownClaims.put(claimed.get(0).getClaimToken(), claimed.size());
+        List<CompletableFuture<DeliveryResult>> results;
+        try {
+            results = whatsAppService.sendBatch(claimed.stream()
+                    .map(row -> new OutboundMessage(row.getPhoneNumber(), row.getMessage()))
+                    .toList());
+        } catch (RuntimeException ex) {
+            log.warn("Outbox batch of {} row(s) could not be handed to WhatsApp: {}", claimed.size(),
+                    ex.getMessage());
+            for (ReminderOutbox row : claimed) {
+                executor.execute(() -> complete(row, null, ex));
+            }
+            return;
+        }
+        for (int i = 0; i < claimed.size(); i++) {
+            ReminderOutbox row = claimed.get(i);
+            // Written back on a virtual thread rather than on the sender's callback thread.
+            results.get(i).whenComplete((result, error) -> executor.execute(() -> complete(row, result, error)));
+        }
+    }
+
+    private void complete(ReminderOutbox row, DeliveryResult result, Throwable error) {
+        try {
+            if (error == null && result != null && result.accepted()) {
+                delivered(row, result.providerMessageId());
+            } else {
+                failedAttempt(row, error != null ? error.getMessage() : result == null ? null : result.error());
+            }
+        } catch (RuntimeException ex) {
+            // The row stays in SENDING and is failed as in doubt once its claim times out.
+            log.error("Could not record outbox result for row {} (invoice {})", row.getId(), row.getInvoiceId(),
+                    ex);
+        } finally {
+            ownClaims.computeIfPresent(row.getClaimToken(), (token, waiting) -> waiting == 1 ? null : waiting - 1);
+            inFlight.release();
+        }
+    }
+
+    private void delivered(ReminderOutbox row, String providerMessageId) {
+        LocalDateTime now = LocalDateTime.now();
+        Boolean recorded = transactionTemplate.execute(status -> {
+            if (outboxRepository.markDelivered(row.getId(), row.getClaimToken(), providerMessageId, now) == 0) {
+                return false;
+            }
+            runStore.markSent(row.getRunDate(), row.getInvoiceId(), row.getReminderStep());
+            return true;
+        });
+        if (!Boolean.TRUE.equals(recorded)) {
+            log.warn("Outbox row {} (invoice {}) was delivered after its claim was failed as in doubt; "
+                    + "keeping the failure", row.getId(), row.getInvoiceId());
+            return;
+        }
+        meterRegistry.counter("reminder.outbox.relayed", "outcome", "delivered").increment();
+        meterRegistry.timer("reminder.outbox.end_to_end").record(Duration.between(row.getCreatedAt(), now));
+        eventLog.routine(ReminderEvent.REMINDER_SENT)
+                .addKeyValue("invoiceId", row.getInvoiceId())
+                .addKeyValue("phone", ReminderEventLog.maskPhone(row.getPhoneNumber()))
+                .addKeyValue("messageLength", row.getMessage().length())
+                .addKeyValue("attempt", row.getAttempts())
+                .log("Reminder sent");
+    }
+
+    private void failedAttempt(ReminderOutbox row, String reason) {
+        String error = truncate(reason);
+        if (row.getAttempts() >= properties.getMaxAttempts()) {
+            if (!fail(row, error, true)) {
+                return;
+            }
+            eventLog.failure(ReminderEvent.REMINDER_FAILED)
+                    .addKeyValue("invoiceId", row.getInvoiceId())
+                    .addKeyValue("phone", ReminderEventLog.maskPhone(row.getPhoneNumber()))
+                    .addKeyValue("reason", reason)
+                    .log("Giving up on reminder after {} attempts", row.getAttempts());
+            return;
+        }
+        Duration backoff = properties.getRetryBackoff().multipliedBy(1L << Math.min(row.getAttempts() - 1, 16));
+        Integer requeued = transactionTemplate.execute(status -> outboxRepository.retry(row.getId(),
+                row.getClaimToken(), LocalDateTime.now().plus(backoff), error));
+        if (requeued == null || requeued == 0) {
+            // Already failed as in doubt; putting it back to PENDING would send it a second time.
+            log.warn("Outbox row {} (invoice {}) failed after its claim was failed as in doubt; not retrying",
+                    row.getId(), row.getInvoiceId());
+            return;
+        }
+        meterRegistry.counter("reminder.outbox.relayed", "outcome", "retried").increment();
+        log.warn("Reminder for invoice {} not delivered (attempt {}), retrying in {}. reason={}",
+                row.getInvoiceId(), row.getAttempts(), backoff, reason);
+    }
+
+    /**
+     * releaseClaim is false for in-doubt rows: their run item stays SENDING so the step is never resent.
+     * Returns false when the row had already left this claim (a result or the in-doubt sweep came first).
+     */
+    private boolean fail(ReminderOutbox row, String error, boolean releaseClaim) {
+        Boolean failed = transactionTemplate.execute(status -> {
+            if (outboxRepository.markFailed(row.getId(), row.getClaimToken(), error) == 0) {
+                return false;
+            }
+            if (releaseClaim) {
+                runStore.markFailed(row.getRunDate(), row.getInvoiceId(), row.getReminderStep());
+            }
+            return true;
+        });
+        if (!Boolean.TRUE.equals(failed)) {
+            return false;
+        }
+        meterRegistry.counter("reminder.outbox.relayed", "outcome", "failed").increment();
+        return true;
+    }
+
+    private void failStaleClaims(LocalDateTime cutoff) {
+        // This relay's own claims are skipped: their results are still on the way and are recorded here.
+        List<ReminderOutbox> stale = outboxRepository.findStaleClaims(cutoff, Set.copyOf(ownClaims.keySet()));
+        for (ReminderOutbox row : stale) {
+            if (fail(row, IN_DOUBT, false)) {
+                log.warn("Outbox row {} (invoice {}) was claimed at {} and never answered; not resending",
+                        row.getId(), row.getInvoiceId(), row.getClaimedAt());
+            }
+        }
+    }
+
+    private void refreshGauges(LocalDateTime now) {
+        depth.set(outboxRepository.countByStatus(OutboxStatus.PENDING));
+        lagMillis.set(outboxRepository.findFirstByStatusOrderByIdAsc(OutboxStatus.PENDING)
+                .map(oldest -> Duration.between(oldest.getCreatedAt(), now).toMillis())
+                .orElse(0L));
+    }
+
+    private static String truncate(String error) {
+        return error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.yoga_reminder.service.run;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.stereotype.Component;
+
+import com.example.yoga_reminder.domain.entity.ReminderRun;
+import com.example.yoga_reminder.domain.enums.ReminderRunStatus;
+import com.example.yoga_reminder.dto.response.ReminderRunResponse;
+import com.example.yoga_reminder.scheduler.RenewalReminderScheduler;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs the renewal pass for the admin API in the background. A trigger while an earlier one is still
+ * running on this node joins it; a pass already live on another node is joined through its checkpoint
+ * (the scheduler reports its id and leaves it to its owner). Progress is read from the checkpoint rows, so
+ * a pass id keeps answering after the trigger that started it has been forgotten or the node restarted.
+ */
+@Component
+@Slf4j
+public class ReminderRunLauncher {
+
+    private static final Duration TRIGGER_RETENTION = Duration.ofHours(24);
+
+    private final RenewalReminderScheduler scheduler;
+    private final ReminderRunStore runStore;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Cache<String, Trigger> triggers = Caffeine.newBuilder()
+            .expireAfterWrite(TRIGGER_RETENTION)
+            .maximumSize(100)
+            .build();
+    private final ReentrantLock lock = new ReentrantLock();
+    private Trigger active; // guarded by lock
+
+    public ReminderRunLauncher(RenewalReminderScheduler scheduler, ReminderRunStore runStore) {
+        this.scheduler = scheduler;
+        this.runStore = runStore;
+    }
+
+    /**
+     * Starts a pass in the background, or joins the one this node is already running.
+     */
+    public Launch launch() {
+        lock.lock();
+        try {
+            if (active != null && active.finishedAt == null) {
+                return new Launch(active.id, true);
+            }
+            Trigger trigger = new Trigger();
+            triggers.put(trigger.id, trigger);
+            active = trigger;
+            executor.execute(() -> run(trigger));
+            return new Launch(trigger.id, false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Progress of a trigger (as returned by {@link #launch}) or of a single checkpointed pass.
+     */
+    public Optional<ReminderRunResponse> progress(String id) {
+        Trigger trigger = triggers.getIfPresent(id);
+        if (trigger != null) {
+            return Optional.of(report(trigger.id, List.copyOf(trigger.passIds), trigger));
+        }
+        return runStore.findRun(id).map(run -> report(run.getRunId(), List.of(run.getRunId()), null));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // Interrupting the pass suspends it at its last checkpoint; the next trigger resumes it.
+        executor.shutdownNow();
+    }
+
+    private void run(Trigger trigger) {
+        try {
+            scheduler.processRenewals(trigger.passIds::addIfAbsent);
+        } catch (RuntimeException ex) {
+            log.error("Admin-triggered renewal run {} failed", trigger.id, ex);
+            trigger.error = ex.getMessage();
+        } finally {
+            trigger.finishedAt = LocalDateTime.now();
+        }
+    }
+
+    private ReminderRunResponse report(String id, List<String> passIds, Trigger trigger) {
+        List<ReminderRun> passes = passIds.stream()
+                .map(runStore::findRun)
+                .flatMap(Optional::stream)
+                .toList();
+
+        long windowSize = 0;
+        long scanned = 0;
+        long due = 0;
+        long sent = 0;
+        long failed = 0;
+        for (ReminderRun pass : passes) {
+            windowSize += pass.getWindowSize() == null ? 0 : pass.getWindowSize();
+            scanned += pass.getScanned();
+            due += pass.getDue();
+            long[] settled = runStore.countSentAndFailed(pass.getRunId());
+            sent += settled[0];
+            failed += settled[1];
+        }
+
+        String status = status(trigger, passes);
+        LocalDateTime startedAt = trigger != null
+                ? trigger.startedAt
+                : passes.stream().map(ReminderRun::getStartedAt).min(Comparator.naturalOrder()).orElse(null);
+        LocalDateTime finishedAt = ReminderRunStatus.RUNNING.name().equals(status) ? null : finishedAt(trigger, passes);
+        long elapsedSeconds = startedAt == null ? 0
+                : Duration.between(startedAt, finishedAt != null ? finishedAt : LocalDateTime.now()).toSeconds();
+        double seconds = Math.max(1, elapsedSeconds);
+        double scannedPerSecond = scanned / seconds;
+        double sentPerSecond = sent / seconds;
+
+        return ReminderRunResponse.builder()
+                .runId(id)
+                .status(status)
+                .passIds(passIds)
+                .windowSize(windowSize)
+                .scanned(scanned)
+                .due(due)
+                .sent(sent)
+                .failed(failed)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .elapsedSeconds(elapsedSeconds)
+                .scannedPerSecond(scannedPerSecond)
+                .sentPerSecond(sentPerSecond)
+                .etaSeconds(finishedAt != null ? null
+                        : eta(windowSize, scanned, due, sent + failed, scannedPerSecond, sentPerSecond))
+                .error(trigger == null ? null : trigger.error)
+                .build();
+    }
+
+    private String status(Trigger trigger, List<ReminderRun> passes) {
+        if (trigger != null && trigger.error != null) {
+            return "FAILED";
+        }
+        boolean passRunning = passes.stream().anyMatch(pass -> pass.getStatus() == ReminderRunStatus.RUNNING);
+        if (passRunning || (trigger != null && trigger.finishedAt == null)) {
+            return ReminderRunStatus.RUNNING.name();
+        }
+        if (passes.isEmpty()) {
+            return "SKIPPED"; // nothing to walk here, e.g. the reminder timer does the sending
+        }
+        boolean suspended = passes.stream().anyMatch(pass -> pass.getStatus() == ReminderRunStatus.SUSPENDED);
+        return (suspended ? ReminderRunStatus.SUSPENDED : ReminderRunStatus.COMPLETED).name();
+    }
+
+    private LocalDateTime finishedAt(Trigger trigger, List<ReminderRun> passes) {
+        List<LocalDateTime> candidates = new ArrayList<>();
+        passes.stream().map(ReminderRun::getFinishedAt).filter(Objects::nonNull).forEach(candidates::add);
+        if (trigger != null && trigger.finishedAt != null) {
+            candidates.add(trigger.finishedAt);
+        }
+        return candidates.stream().max(Comparator.naturalOrder()).orElse(null);
+    }
+
+    /**
+     * The later of "rest of the window at the current scan rate" and "due reminders still to settle at the
+     * current send rate", where the due total is extrapolated from the share of the window scanned so far.
+     * Null until both rates are known.
+     */
+    private static Long eta(long windowSize, long scanned, long due, long settled, double scannedPerSecond,
+                            double sentPerSecond) {
+        long remainingScan = Math.max(0, windowSize - scanned);
+        long projectedDue = scanned > 0 && windowSize > scanned ? due * windowSize / scanned : due;
+        long remainingSends = Math.max(0, projectedDue - settled);
+        if ((remainingScan > 0 && scannedPerSecond == 0) || (remainingSends > 0 && sentPerSecond == 0)) {
+            return null;
+        }
+        double scanSeconds = remainingScan == 0 ? 0 : remainingScan / scannedPerSecond;
+        double sendSeconds = remainingSends == 0 ? 0 : remainingSends / sentPerSecond;
+        return (long) Math.ceil(Math.max(scanSeconds, sendSeconds));
+    }
+
+    public record Launch(String runId, boolean joined) {
+    }
+
+    private static final class Trigger {
+
+        private final String id = UUID.randomUUID().toString();
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final CopyOnWriteArrayList<String> passIds = new CopyOnWriteArrayList<>();
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.yoga_reminder.service.run;
+
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.yoga_reminder.config.ReminderRunProperties;
+import com.example.yoga_reminder.domain.entity.ReminderRun;
+import com.example.yoga_reminder.domain.enums.ReminderRunStatus;
+import com.example.yoga_reminder.dto.RenewalCandidate;
+import com.example.yoga_reminder.repository.ReminderRunRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Durable state of renewal passes. A pass checkpoints its keyset position together with the reminders it
+ * selected (as PENDING items) in each chunk's transaction, so a restarted pass skips the part of the window
+ * it already walked and only re-dispatches what was selected but not sent.
+ * <p>
+ * Sends are claimed per (day, invoice, reminder step): moving the item to SENDING is what entitles a caller
+ * to queue the reminder in the outbox, whichever pass, node or the reminder timer it is. The outbox relay
+ * settles the item as SENT, or FAILED once it gives up. An item whose delivery is unknown stays in SENDING
+ * and is never claimed again, which keeps sends at-most-once.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReminderRunStore {
+
+    private static final String ADMIT_SQL = """
+            insert into reminder_run_items (id, run_id, run_date, invoice_id, reminder_step, state, updated_at)
+            values (nextval('reminder_run_items_seq'), ?, ?, ?, ?, 'PENDING', ?)
+            on conflict (run_date, invoice_id, reminder_step) do update
+            set run_id = excluded.run_id,
+                state = 'PENDING',
+                updated_at = excluded.updated_at
+            where reminder_run_items.state in ('PENDING', 'FAILED')
+            """;
+    private static final int[] ADMIT_TYPES = {Types.VARCHAR, Types.DATE, Types.BIGINT, Types.INTEGER,
+            Types.TIMESTAMP};
+    private static final String CLAIM_SQL = """
+            insert into reminder_run_items (id, run_id, run_date, invoice_id, reminder_step, state, updated_at)
+            values (nextval('reminder_run_items_seq'), ?, ?, ?, ?, 'SENDING', ?)
+            on conflict (run_date, invoice_id, reminder_step) do update
+            set run_id = coalesce(excluded.run_id, reminder_run_items.run_id),
+                state = 'SENDING',
+                updated_at = excluded.updated_at
+            where reminder_run_items.state in ('PENDING', 'FAILED')
+            """;
+    private static final String MARK_SQL = """
+            update reminder_run_items
+            set state = ?, updated_at = ?
+            where run_date = ? and invoice_id = ? and reminder_step = ? and state = 'SENDING'
+            """;
+    private static final String PENDING_SQL = """
+            select invoice_id from reminder_run_items
+            where run_id = ? and state in ('PENDING', 'FAILED')
+            order by invoice_id
+            """;
+    // No conflict target: the insert is skipped on uk_reminder_run_date_scope_mode, and on a database where
+    // that constraint could not be added (older duplicate runs) it still succeeds as before.
+    private static final String START_SQL = """
+            insert into reminder_runs (run_id, run_date, scope, mode, status, node_id, last_key, window_size,
+                                       scanned, due, sent, failed, started_at, updated_at)
+            values (?, ?, ?, ?, 'RUNNING', ?, 0, ?, 0, 0, 0, 0, ?, ?)
+            on conflict do nothing
+            """;
+    private static final String COUNT_SQL = """
+            select
+                count(*) filter (where state = 'SENT'),
+                count(*) filter (where state = 'FAILED')
+            from reminder_run_items
+            where run_id = ?
+            """;
+
+    private final ReminderRunRepository runRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReminderRunProperties properties;
+
+    /**
+     * Resumes this date, scope and mode's pass, or starts it. A completed pass is reopened from the start of
+     * the window. Returns null while the pass is still checkpointing elsewhere (another node, or an
+     * overlapping trigger on this one). Two nodes starting at once insert one run; the loser resumes it,
+     * which fails while the winner is live. windowSize is only evaluated for a new or reopened run.
+     */
+    public ReminderRun startOrResume(LocalDate runDate, String scope, String mode, String nodeId,
+                                     LongSupplier windowSize) {
+        LocalDateTime now = LocalDateTime.now();
+        return transactionTemplate.execute(status -> {
+            Optional<ReminderRun> existing = findPass(runDate, scope, mode);
+            if (existing.isEmpty()) {
+                purge(runDate.minusDays(properties.getRetention().toDays()));
+                String runId = UUID.randomUUID().toString();
+                if (jdbcTemplate.update(START_SQL, runId, runDate, scope, mode, nodeId, windowSize.getAsLong(), now,
+                        now) > 0) {
+                    return runRepository.findById(runId).orElseThrow();
+                }
+                // Another node inserted it since the lookup; the insert waited for that commit.
+                existing = findPass(runDate, scope, mode);
+            }
+            return existing.map(run -> resume(run, nodeId, now, windowSize)).orElse(null);
+        });
+    }
+
+    private Optional<ReminderRun> findPass(LocalDate runDate, String scope, String mode) {
+        return runRepository.findFirstByRunDateAndScopeAndModeOrderByStartedAtDesc(runDate, scope, mode);
+    }
+
+    private ReminderRun resume(ReminderRun run, String nodeId, LocalDateTime now, LongSupplier windowSize) {
+        if (run.getStatus() == ReminderRunStatus.COMPLETED) {
+            if (runRepository.reopen(run.getRunId(), nodeId, windowSize.getAsLong(), now) == 0) {
+                return null;
+            }
+            log.info("Reopening completed reminder run {} for another pass", run.getRunId());
+        } else {
+            if (runRepository.claim(run.getRunId(), nodeId, now, now.minus(properties.getStaleAfter())) == 0) {
+                return null;
+            }
+            log.info("Resuming reminder run {} after key {} (scanned={}, due={})", run.getRunId(),
+                    run.getLastKey(), run.getScanned(), run.getDue());
+        }
+        return runRepository.findById(run.getRunId()).orElseThrow();
+    }
+
+    public Optional<ReminderRun> findUnfinished(LocalDate runDate, String scope, String mode) {
+        return runRepository.findFirstByRunDateAndScopeAndModeAndStatusInOrderByStartedAtDesc(runDate, scope, mode,
+                EnumSet.of(ReminderRunStatus.RUNNING, ReminderRunStatus.SUSPENDED));
+    }
+
+    public Optional<ReminderRun> findRun(String runId) {
+        return runRepository.findById(runId);
+    }
+
+    /**
+     * Live sent and failed counts of a run, read from its items (the run row only catches up on heartbeats).
+     */
+    public long[] countSentAndFailed(String runId) {
+        return jdbcTemplate.queryForObject(COUNT_SQL, (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)},
+                runId);
+    }
+
+    /**
+     * Invoice ids selected by the run in an earlier attempt and not yet sent: still PENDING, or FAILED (the
+     * claim was released because the reminder was definitely not delivered) and so due for another try.
+     */
+    public List<Long> pendingInvoiceIds(String runId) {
+        return jdbcTemplate.queryForList(PENDING_SQL, Long.class, runId);
+    }
+
+    /**
+     * Records a chunk in the caller's transaction: admits its due reminders as PENDING items and moves the
+     * checkpoint to lastKey. Returns the candidates admitted; reminders already sent today (or in doubt)
+     * for the same step are dropped.
+     */
+    public List<RenewalCandidate> recordChunk(String runId, LocalDate runDate, long lastKey, int scanned,
+                                              List<RenewalCandidate> due) {
+        LocalDateTime now = LocalDateTime.now();
+        List<RenewalCandidate> admitted = new ArrayList<>(due.size());
+        if (!due.isEmpty()) {
+            List<Object[]> rows = new ArrayList<>(due.size());
+            for (RenewalCandidate candidate : due) {
+                rows.add(new Object[]{runId, runDate, candidate.invoiceId(), candidate.sentCount(), now});
+            }
+            int[] updated = jdbcTemplate.batchUpdate(ADMIT_SQL, rows, ADMIT_TYPES);
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] > 0 || updated[i] == Statement.SUCCESS_NO_INFO) {
+                    admitted.add(due.get(i));
+                }
+            }
+        }
+        runRepository.checkpoint(runId, lastKey, scanned, admitted.size(), now);
+        return admitted;
+    }
+
+    /**
+     * Claims the send of one reminder step. runId is null for sends outside a checkpointed pass.
+     */
+    public boolean claimSend(String runId, LocalDate runDate, RenewalCandidate candidate) {
+        return jdbcTemplate.update(CLAIM_SQL, runId, runDate, candidate.invoiceId(), candidate.sentCount(),
+                LocalDateTime.now()) > 0;
+    }
+
+    public void markSent(LocalDate runDate, Long invoiceId, int reminderStep) {
+        mark("SENT", runDate, invoiceId, reminderStep);
+    }
+
+    /**
+     * Releases a claim whose reminder was definitely not delivered, so a later pass may retry it.
+     */
+    public void markFailed(LocalDate runDate, Long invoiceId, int reminderStep) {
+        mark("FAILED", runDate, invoiceId, reminderStep);
+    }
+
+    /**
+     * Refreshes the run's sent/failed counters and its liveness timestamp.
+     */
+    public void heartbeat(String runId) {
+        long[] counts = countSentAndFailed(runId);
+        transactionTemplate.executeWithoutResult(status ->
+                runRepository.touch(runId, counts[0], counts[1], LocalDateTime.now()));
+    }
+
+    public void finish(String runId, ReminderRunStatus status) {
+        long[] counts = countSentAndFailed(runId);
+        transactionTemplate.executeWithoutResult(tx ->
+                runRepository.finish(runId, status, counts[0], counts[1], LocalDateTime.now()));
+    }
+
+    private void mark(String state, LocalDate runDate, Long invoiceId, int reminderStep) {
+        jdbcTemplate.update(MARK_SQL, state, LocalDateTime.now(), runDate, invoiceId, reminderStep);
+    }
+
+    private void purge(LocalDate before) {
+        int items = jdbcTemplate.update("delete from reminder_run_items where run_date < ?", before);
+        int runs = jdbcTemplate.update("delete from reminder_runs where run_date < ?", before);
+        if (items > 0 || runs > 0) {
+            log.info("Purged {} reminder run(s) and {} run item(s) before {}", runs, items, before);
+        }
+    }
+}
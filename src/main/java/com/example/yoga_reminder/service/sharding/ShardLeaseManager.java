@@ -0,0 +1,195 @@
+package com.example.yoga_reminder.service.sharding;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.yoga_reminder.config.ShardingProperties;
+import com.example.yoga_reminder.domain.entity.ShardNode;
+import com.example.yoga_reminder.repository.ShardLeaseRepository;
+import com.example.yoga_reminder.repository.ShardNodeRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains this node's shard leases. Every heartbeat renews the leases it holds, then moves towards a fair
+ * share of ceil(shardCount / liveNodes): surplus shards are released for newly joined nodes, and free or
+ * expired shards (e.g. of a dead node) are claimed with a conditional update so only one node wins each.
+ */
+@Component
+@Slf4j
+public class ShardLeaseManager {
+
+    private final ShardLeaseRepository shardLeaseRepository;
+    private final ShardNodeRepository shardNodeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardingProperties properties;
+    private final String nodeId;
+
+    private volatile Set<Integer> ownedShards = Set.of();
+    private volatile boolean seeded;
+
+    public ShardLeaseManager(ShardLeaseRepository shardLeaseRepository,
+                             ShardNodeRepository shardNodeRepository,
+                             TransactionTemplate transactionTemplate,
+                             ShardingProperties properties) {
+        if (properties.getShardCount() < 1) {
+            throw new IllegalArgumentException("reminder.sharding.shard-count must be positive");
+        }
+        this.shardLeaseRepository = shardLeaseRepository;
+        this.shardNodeRepository = shardNodeRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.nodeId = resolveNodeId(properties.getNodeId());
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public int getShardCount() {
+        return properties.getShardCount();
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public boolean owns(int shardId) {
+        return ownedShards.contains(shardId);
+    }
+
+    public List<Long> ownedShardIds() {
+        return ownedShards.stream().sorted().map(Integer::longValue).toList();
+    }
+
+    @Scheduled(fixedDelayString = "${reminder.sharding.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            if (!seeded) {
+                seedShards();
+            }
+            rebalance();
+        } catch (RuntimeException ex) {
+            // Leases simply lapse if the database is unreachable; other nodes take the shards over.
+            log.warn("Shard heartbeat failed for node {}: {}", nodeId, ex.getMessage());
+        }
+    }
+
+    /**
+     * Owned shards whose renewal pass has not completed today, in shard order.
+     */
+    public List<Integer> pendingShards(LocalDate runDate) {
+        List<Integer> pending = shardLeaseRepository.findPendingShardIds(nodeId, LocalDateTime.now(), runDate);
+        pending.removeIf(shardId -> !owns(shardId));
+        return pending;
+    }
+
+    /**
+     * True once any node completed a shard for the given day, i.e. the daily run has started cluster-wide.
+     */
+    public boolean hasRunStarted(LocalDate runDate) {
+        return shardLeaseRepository.existsByLastRunDate(runDate);
+    }
+
+    public boolean markRun(int shardId, LocalDate runDate) {
+        Integer updated = transactionTemplate.execute(status ->
+                shardLeaseRepository.markRun(shardId, nodeId, runDate));
+        return updated != null && updated > 0;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                shardLeaseRepository.releaseAll(nodeId);
+                shardNodeRepository.deleteById(nodeId);
+            });
+            log.info("Node {} released its shard leases", nodeId);
+        } catch (RuntimeException ex) {
+            log.warn("Could not release shard leases of node {}; they expire after {}", nodeId,
+                    properties.getLeaseDuration());
+        }
+    }
+
+    private void seedShards() {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int shardId = 0; shardId < properties.getShardCount(); shardId++) {
+                shardLeaseRepository.insertIfAbsent(shardId);
+            }
+        });
+        seeded = true;
+    }
+
+    private void rebalance() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(properties.getLeaseDuration());
+
+        Set<Integer> owned = transactionTemplate.execute(status -> {
+            shardNodeRepository.save(new ShardNode(nodeId, now));
+            shardLeaseRepository.renew(nodeId, now, until);
+
+            long liveNodes = Math.max(1, shardNodeRepository.countByLastHeartbeatAfter(
+                    now.minus(properties.getLeaseDuration())));
+            int fairShare = (int) ((properties.getShardCount() + liveNodes - 1) / liveNodes);
+
+            TreeSet<Integer> current = new TreeSet<>(shardLeaseRepository.findOwnedShardIds(nodeId, now));
+            if (current.size() > fairShare) {
+                List<Integer> surplus = new ArrayList<>();
+                while (current.size() > fairShare) {
+                    surplus.add(current.pollLast());
+                }
+                shardLeaseRepository.release(nodeId, surplus);
+                log.info("Node {} released shards {} (fair share {} across {} node(s))", nodeId, surplus,
+                        fairShare, liveNodes);
+            } else if (current.size() < fairShare) {
+                for (Integer shardId : shardLeaseRepository.findClaimableShardIds(now)) {
+                    if (current.size() >= fairShare) {
+                        break;
+                    }
+                    if (shardLeaseRepository.tryAcquire(shardId, nodeId, now, until) == 1) {
+                        current.add(shardId);
+                    }
+                }
+            }
+            return current;
+        });
+
+        Set<Integer> previous = ownedShards;
+        ownedShards = owned == null ? Set.of() : Set.copyOf(owned);
+        if (!ownedShards.equals(previous)) {
+            log.info("Node {} now owns {} shard(s): {}", nodeId, ownedShards.size(), new TreeSet<>(ownedShards));
+        }
+    }
+
+    private static String resolveNodeId(String configured) {
+        if (configured != null && !configured.isBlank()) {
+            return configured;
+        }
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException ex) {
+            host = "node";
+        }
+        // Suffix keeps two processes on one host apart.
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
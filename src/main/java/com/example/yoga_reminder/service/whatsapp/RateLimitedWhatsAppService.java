@@ -0,0 +1,277 @@
+package com.example.yoga_reminder.service.whatsapp;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import com.example.yoga_reminder.config.WhatsAppSendProperties;
+import com.example.yoga_reminder.dto.DeliveryResult;
+import com.example.yoga_reminder.dto.OutboundMessage;
+import com.example.yoga_reminder.service.WhatsAppService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sending engine in front of the WhatsApp provider. Messages go onto a bounded async queue; one dispatcher
+ * thread releases them as the global and per-recipient token buckets allow, and provider calls run on
+ * virtual threads. A throttled send (429) is re-queued with jittered exponential backoff, honouring the
+ * provider's retry-after hint. Every caller of {@link WhatsAppService} goes through here.
+ */
+@Service
+@Primary
+@Slf4j
+public class RateLimitedWhatsAppService implements WhatsAppService {
+
+    /**
+     * Bean name of the active provider implementation (exactly one, selected by reminder.whatsapp.provider).
+     */
+    public static final String PROVIDER_BEAN = "whatsAppProvider";
+
+    private final WhatsAppService provider;
+    private final WhatsAppSendProperties properties;
+    private final TokenBucket globalLimit;
+    private final Cache<String, TokenBucket> recipientLimits = Caffeine.newBuilder()
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .build();
+
+    private final DelayQueue<SendTask> queue = new DelayQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Semaphore inFlight;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Thread dispatcher;
+
+    private final Counter sent;
+    private final Counter throttled;
+    private final Counter failed;
+    private final Timer acceptedLatency;
+    private final Timer throttledLatency;
+    private final Timer failedLatency;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitedWhatsAppService(@Qualifier(PROVIDER_BEAN) WhatsAppService provider,
+                                      WhatsAppSendProperties properties,
+                                      MeterRegistry meterRegistry) {
+        this.provider = provider;
+        this.properties = properties;
+        this.globalLimit = new TokenBucket(properties.getGlobalPermitsPerSecond(), properties.getGlobalBurst());
+        this.inFlight = new Semaphore(properties.getMaxInFlight());
+        this.meterRegistry = meterRegistry;
+        this.sent = Counter.builder("reminder.whatsapp.sent")
+                .description("Messages accepted by the provider")
+                .register(meterRegistry);
+        this.throttled = Counter.builder("reminder.whatsapp.throttled")
+                .description("Sends the provider throttled and that were retried")
+                .register(meterRegistry);
+        this.failed = Counter.builder("reminder.whatsapp.failed")
+                .description("Sends that failed for reasons other than throttling")
+                .register(meterRegistry);
+        this.acceptedLatency = sendTimer("accepted", meterRegistry);
+        this.throttledLatency = sendTimer("throttled", meterRegistry);
+        this.failedLatency = sendTimer("failed", meterRegistry);
+        Gauge.builder("reminder.whatsapp.queue.depth", queued, AtomicInteger::get)
+                .description("Messages waiting to be sent, including scheduled retries")
+                .register(meterRegistry);
+        this.dispatcher = Thread.ofPlatform().daemon().name("whatsapp-dispatcher").start(this::dispatchLoop);
+    }
+
+    /**
+     * Blocking send for existing callers; waits until the message was accepted or finally rejected.
+     */
+    @Override
+    public void sendMessage(String phoneNumber, String message) {
+        try {
+            sendAsync(phoneNumber, message).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    @Override
+    public CompletableFuture<String> send(OutboundMessage outbound) {
+        return sendAsync(outbound.phoneNumber(), outbound.message());
+    }
+
+    /**
+     * Queues every message at once; each future completes as its message clears the limiter and the provider,
+     * carrying the provider's message id.
+     */
+    @Override
+    public List<CompletableFuture<DeliveryResult>> sendBatch(List<OutboundMessage> messages) {
+        return messages.stream()
+                .map(outbound -> sendAsync(outbound.phoneNumber(), outbound.message())
+                        .handle((messageId, ex) -> ex == null
+                                ? DeliveryResult.accepted(outbound, messageId)
+                                : DeliveryResult.failed(outbound, ex)))
+                .toList();
+    }
+
+    /**
+     * Queues a message. The future completes with the provider's message id, and fails immediately with
+     * {@link WhatsAppRejectedException} when the queue is full, and later when retries on throttling are
+     * exhausted or the provider fails.
+     */
+    public CompletableFuture<String> sendAsync(String phoneNumber, String message) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        if (queued.incrementAndGet() > properties.getQueueCapacity()) {
+            queued.decrementAndGet();
+            reject("queue_full");
+            result.completeExceptionally(new WhatsAppRejectedException("WhatsApp send queue is full"));
+            return result;
+        }
+        queue.put(new SendTask(phoneNumber, message, result, 1, System.nanoTime()));
+        return result;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.interrupt();
+        executor.shutdown();
+    }
+
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            SendTask task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+
+            long recipientWait = recipientLimits
+                    .get(task.phoneNumber(), phone -> new TokenBucket(properties.getRecipientPermitsPerSecond(),
+                            properties.getRecipientBurst()))
+                    .tryAcquire();
+            if (recipientWait > 0) {
+                // This recipient is saturated; park only this message, others keep flowing.
+                queue.put(task.after(recipientWait));
+                continue;
+            }
+
+            long globalWait;
+            while ((globalWait = globalLimit.tryAcquire()) > 0) {
+                LockSupport.parkNanos(globalWait);
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+            }
+
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queued.decrementAndGet();
+            executor.execute(() -> attempt(task));
+        }
+    }
+
+    private static Timer sendTimer(String outcome, MeterRegistry meterRegistry) {
+        return Timer.builder("reminder.whatsapp.send")
+                .description("Provider call latency per attempt, excluding time spent queued")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private void attempt(SendTask task) {
+        long start = System.nanoTime();
+        try {
+            // The provider's own async path, so its message id (e.g. the Cloud API's wamid) is kept.
+            String messageId = awaitProvider(provider.send(new OutboundMessage(task.phoneNumber(), task.message())));
+            acceptedLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            sent.increment();
+            task.result().complete(messageId);
+        } catch (WhatsAppThrottledException ex) {
+            throttledLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            retryOrReject(task, ex);
+        } catch (RuntimeException ex) {
+            failedLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            failed.increment();
+            task.result().completeExceptionally(ex);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    private static String awaitProvider(CompletableFuture<String> call) {
+        try {
+            return call.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    private void retryOrReject(SendTask task, WhatsAppThrottledException ex) {
+        if (task.attempt() >= properties.getMaxAttempts()) {
+            reject("throttled");
+            task.result().completeExceptionally(new WhatsAppRejectedException(
+                    "WhatsApp kept throttling after " + task.attempt() + " attempt(s): " + ex.getMessage()));
+            return;
+        }
+        throttled.increment();
+
+        long backoff = Math.min(properties.getMaxBackoff().toNanos(),
+                properties.getRetryBackoff().toNanos() << Math.min(task.attempt() - 1, 20));
+        // Equal jitter: half fixed, half random, so retries of one throttled burst spread out.
+        long delay = backoff / 2 + ThreadLocalRandom.current().nextLong(backoff / 2 + 1);
+        if (ex.getRetryAfter() != null) {
+            delay = Math.max(delay, ex.getRetryAfter().toNanos());
+        }
+        queued.incrementAndGet();
+        queue.put(task.retry(delay));
+    }
+
+    private void reject(String reason) {
+        meterRegistry.counter("reminder.whatsapp.rejected", "reason", reason).increment();
+    }
+
+    private record SendTask(String phoneNumber, String message, CompletableFuture<String> result, int attempt,
+                            long notBeforeNanos) implements Delayed {
+
+        SendTask after(long delayNanos) {
+            return new SendTask(phoneNumber, message, result, attempt, System.nanoTime() + delayNanos);
+        }
+
+        SendTask retry(long delayNanos) {
+            return new SendTask(phoneNumber, message, result, attempt + 1, System.nanoTime() + delayNanos);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(notBeforeNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+}
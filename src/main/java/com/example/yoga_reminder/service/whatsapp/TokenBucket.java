@@ -0,0 +1,42 @@
+package com.example.yoga_reminder.service.whatsapp;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole state is one "theoretical arrival time" updated with
+ * compare-and-set, so concurrent senders never block each other. A bucket with rate r and burst b admits
+ * b calls at once and then one call every 1/r seconds.
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Token bucket needs a positive rate and burst");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        this.theoreticalArrival = new AtomicLong(System.nanoTime() - toleranceNanos);
+    }
+
+    /**
+     * Takes one token if available. Returns 0 on success, otherwise the nanos until one will be.
+     */
+    public long tryAcquire() {
+        while (true) {
+            long now = System.nanoTime();
+            long arrival = theoreticalArrival.get();
+            long earliest = arrival - toleranceNanos;
+            if (now - earliest < 0) {
+                return earliest - now;
+            }
+            long next = Math.max(arrival, now) + intervalNanos;
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0L;
+            }
+        }
+    }
+}
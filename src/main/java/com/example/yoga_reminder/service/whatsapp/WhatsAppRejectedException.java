@@ -0,0 +1,11 @@
+package com.example.yoga_reminder.service.whatsapp;
+
+/**
+ * The sending engine gave up on a message (queue full or throttled too often); the reminder stays due.
+ */
+public class WhatsAppRejectedException extends RuntimeException {
+
+    public WhatsAppRejectedException(String message) {
+        super(message);
+    }
+}
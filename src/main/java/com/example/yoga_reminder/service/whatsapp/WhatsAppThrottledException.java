@@ -0,0 +1,21 @@
+package com.example.yoga_reminder.service.whatsapp;
+
+import java.time.Duration;
+
+/**
+ * Thrown by a provider when WhatsApp rejected a send because of rate limits (HTTP 429 or equivalent).
+ * retryAfter is the provider's hint, or null when it gave none.
+ */
+public class WhatsAppThrottledException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public WhatsAppThrottledException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
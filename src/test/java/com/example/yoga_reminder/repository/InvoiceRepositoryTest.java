@@ -0,0 +1,97 @@
+package com.example.yoga_reminder.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@link InvoiceRepository#insertMissingInvoices} against PostgreSQL.
+ */
+class InvoiceRepositoryTest extends PostgresRepositoryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 17);
+    private static final LocalDate NOTICE_DATE = TODAY.plusDays(5);
+    private static final int FIRST_STEP = 5;
+
+    @Autowired
+    private InvoiceRepository invoiceRepository;
+
+    @Test
+    void createsOnePendingInvoicePerActiveSubscriptionInTheWindow() {
+        long plan = insertPlan();
+        long firstStepToday = insertSubscription(plan, "+919000000001", TODAY.plusDays(5), "ACTIVE");
+        long caughtUp = insertSubscription(plan, "+919000000002", TODAY.plusDays(2), "ACTIVE");
+        long expiresToday = insertSubscription(plan, "+919000000003", TODAY, "ACTIVE");
+        insertSubscription(plan, "+919000000004", TODAY.plusDays(10), "ACTIVE");
+        insertSubscription(plan, "+919000000005", TODAY.plusDays(3), "CANCELLED");
+
+        int created = invoiceRepository.insertMissingInvoices(TODAY, NOTICE_DATE, FIRST_STEP, 1L, List.of(0L),
+                LocalDateTime.now());
+
+        assertThat(created).isEqualTo(3);
+        Map<Long, LocalDate> nextReminderDates = nextReminderDatesBySubscription();
+        assertThat(nextReminderDates).containsOnlyKeys(firstStepToday, caughtUp, expiresToday);
+        assertThat(nextReminderDates.get(firstStepToday)).isEqualTo(TODAY);
+        // end - firstStep lies in the past: caught up to today.
+        assertThat(nextReminderDates.get(caughtUp)).isEqualTo(TODAY);
+        // Today is the expiry day itself: no reminder step left.
+        assertThat(nextReminderDates.get(expiresToday)).isNull();
+        assertThat(jdbcTemplate.queryForList(
+                "select distinct payment_status from invoices", String.class)).containsExactly("PENDING");
+    }
+
+    @Test
+    void schedulesTheFirstStepWhenItIsStillAhead() {
+        long plan = insertPlan();
+        long later = insertSubscription(plan, "+919000000011", TODAY.plusDays(5), "ACTIVE");
+
+        invoiceRepository.insertMissingInvoices(TODAY.minusDays(2), NOTICE_DATE, FIRST_STEP, 1L, List.of(0L),
+                LocalDateTime.now());
+
+        assertThat(nextReminderDatesBySubscription()).containsEntry(later, TODAY);
+    }
+
+    @Test
+    void reRunningCreatesNothingAndKeepsExistingInvoices() {
+        long plan = insertPlan();
+        insertSubscription(plan, "+919000000021", TODAY.plusDays(4), "ACTIVE");
+        invoiceRepository.insertMissingInvoices(TODAY, NOTICE_DATE, FIRST_STEP, 1L, List.of(0L), LocalDateTime.now());
+        List<Long> ids = jdbcTemplate.queryForList("select id from invoices", Long.class);
+
+        int createdAgain = invoiceRepository.insertMissingInvoices(TODAY, NOTICE_DATE, FIRST_STEP, 1L, List.of(0L),
+                LocalDateTime.now());
+
+        assertThat(createdAgain).isZero();
+        assertThat(jdbcTemplate.queryForList("select id from invoices", Long.class)).isEqualTo(ids);
+    }
+
+    @Test
+    void onlyCoversTheRequestedShards() {
+        long plan = insertPlan();
+        long first = insertSubscription(plan, "+919000000031", TODAY.plusDays(3), "ACTIVE");
+        insertSubscription(plan, "+919000000032", TODAY.plusDays(3), "ACTIVE");
+
+        int created = invoiceRepository.insertMissingInvoices(TODAY, NOTICE_DATE, FIRST_STEP, 2L,
+                List.of(Math.floorMod(first, 2L)), LocalDateTime.now());
+
+        assertThat(created).isEqualTo(1);
+        assertThat(nextReminderDatesBySubscription()).containsOnlyKeys(first);
+    }
+
+    private Map<Long, LocalDate> nextReminderDatesBySubscription() {
+        Map<Long, LocalDate> dates = new HashMap<>();
+        jdbcTemplate.query("select subscription_id, next_reminder_date from invoices", rs -> {
+            Date date = rs.getDate("next_reminder_date");
+            dates.put(rs.getLong("subscription_id"), date == null ? null : date.toLocalDate());
+        });
+        return dates;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.yoga_reminder.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Repository tests for native SQL that only runs on PostgreSQL (nextval, ON CONFLICT, date arithmetic).
+ * One container is shared by every subclass for the whole test run; the schema comes from the entities.
+ * Skipped when no Docker daemon is available.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=create-drop")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresRepositoryTest {
+
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static {
+        POSTGRES.start();
+    }
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    protected long insertPlan() {
+        return jdbcTemplate.queryForObject("""
+                insert into plans (name, duration_in_days, price) values ('Monthly', 30, 1500.00) returning id
+                """, Long.class);
+    }
+
+    protected long insertSubscription(long planId, String phoneNumber, LocalDate endDate, String status) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Long userId = jdbcTemplate.queryForObject("""
+                insert into users (name, phone_number, created_at) values (?, ?, ?) returning id
+                """, Long.class, "Student " + phoneNumber, phoneNumber, now);
+        return jdbcTemplate.queryForObject("""
+                insert into subscriptions (user_id, plan_id, start_date, end_date, status, renewal_notice_sent,
+                                           created_at)
+                values (?, ?, ?, ?, ?, false, ?)
+                returning id
+                """, Long.class, userId, planId, Date.valueOf(endDate.minusDays(30)), Date.valueOf(endDate), status,
+                now);
+    }
+
+    protected long insertInvoice(long subscriptionId, LocalDate nextReminderDate) {
+        return jdbcTemplate.queryForObject("""
+                insert into invoices (id, subscription_id, payment_status, next_reminder_date, reminder_count,
+                                      created_at, version)
+                values (nextval('invoices_seq'), ?, 'PENDING', ?, 0, ?, 0)
+                returning id
+                """, Long.class, subscriptionId, Date.valueOf(nextReminderDate),
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.yoga_reminder.repository;
+
+import com.example.yoga_reminder.domain.entity.ReminderOutbox;
+import com.example.yoga_reminder.domain.enums.OutboxStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that outbox results only apply to a row still in SENDING under the caller's claim.
+ */
+class ReminderOutboxRepositoryTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private ReminderOutboxRepository outboxRepository;
+
+    @Test
+    void lateResultsDoNotReopenARowFailedAsInDoubt() {
+        long id = insertSending(1L, "claim-a", LocalDateTime.now().minusMinutes(10));
+
+        assertThat(outboxRepository.markFailed(id, "claim-a", "delivery unknown")).isEqualTo(1);
+        assertThat(outboxRepository.retry(id, "claim-a", LocalDateTime.now(), "timeout")).isZero();
+        assertThat(outboxRepository.markDelivered(id, "claim-a", "wamid.1", LocalDateTime.now())).isZero();
+
+        assertThat(status(id)).isEqualTo("FAILED");
+    }
+
+    @Test
+    void ignoresResultsForAnotherClaim() {
+        long id = insertSending(2L, "claim-a", LocalDateTime.now());
+
+        assertThat(outboxRepository.markDelivered(id, "claim-b", "wamid.2", LocalDateTime.now())).isZero();
+        assertThat(outboxRepository.markFailed(id, "claim-b", "rejected")).isZero();
+        assertThat(status(id)).isEqualTo("SENDING");
+
+        assertThat(outboxRepository.markDelivered(id, "claim-a", "wamid.2", LocalDateTime.now())).isEqualTo(1);
+        assertThat(status(id)).isEqualTo("DELIVERED");
+    }
+
+    @Test
+    void staleClaimsSkipTheCallersOwnTokens() {
+        LocalDateTime claimedAt = LocalDateTime.now().minusMinutes(10);
+        long mine = insertSending(3L, "claim-mine", claimedAt);
+        long orphaned = insertSending(4L, "claim-orphaned", claimedAt);
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(5);
+
+        assertThat(ids(outboxRepository.findStaleClaims(cutoff, Set.of()))).containsExactlyInAnyOrder(mine, orphaned);
+        assertThat(ids(outboxRepository.findStaleClaims(cutoff, Set.of("claim-mine")))).containsExactly(orphaned);
+    }
+
+    private long insertSending(long invoiceId, String claimToken, LocalDateTime claimedAt) {
+        return outboxRepository.saveAndFlush(ReminderOutbox.builder()
+                .invoiceId(invoiceId)
+                .reminderStep(0)
+                .runDate(LocalDate.now())
+                .phoneNumber("+919000000000")
+                .message("Hi Student, your yoga plan expires soon.")
+                .status(OutboxStatus.SENDING)
+                .attempts(1)
+                .nextAttemptAt(claimedAt)
+                .claimToken(claimToken)
+                .claimedAt(claimedAt)
+                .createdAt(claimedAt)
+                .build()).getId();
+    }
+
+    private String status(long id) {
+        return jdbcTemplate.queryForObject("select status from reminder_outbox where id = ?", String.class, id);
+    }
+
+    private static List<Long> ids(List<ReminderOutbox> rows) {
+        return rows.stream().map(ReminderOutbox::getId).toList();
+    }
+}
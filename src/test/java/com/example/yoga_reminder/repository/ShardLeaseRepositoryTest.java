@@ -0,0 +1,41 @@
+package com.example.yoga_reminder.repository;
+
+import com.example.yoga_reminder.domain.entity.ShardLease;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@link ShardLeaseRepository#insertIfAbsent} against PostgreSQL.
+ */
+class ShardLeaseRepositoryTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private ShardLeaseRepository shardLeaseRepository;
+
+    @Test
+    void insertsAFreeLeaseOnce() {
+        assertThat(shardLeaseRepository.insertIfAbsent(3)).isEqualTo(1);
+        assertThat(shardLeaseRepository.insertIfAbsent(3)).isZero();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from shard_leases where shard_id = 3", Long.class))
+                .isEqualTo(1);
+        ShardLease lease = shardLeaseRepository.findById(3).orElseThrow();
+        assertThat(lease.getOwner()).isNull();
+        assertThat(lease.getLeaseUntil()).isNull();
+    }
+
+    @Test
+    void leavesAnExistingLeaseUntouched() {
+        shardLeaseRepository.insertIfAbsent(1);
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        assertThat(shardLeaseRepository.tryAcquire(1, "node-a", now, now.plusMinutes(1))).isEqualTo(1);
+
+        assertThat(shardLeaseRepository.insertIfAbsent(1)).isZero();
+
+        assertThat(shardLeaseRepository.findOwnedShardIds("node-a", now)).containsExactly(1);
+    }
+}
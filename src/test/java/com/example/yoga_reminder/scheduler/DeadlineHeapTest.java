@@ -0,0 +1,62 @@
+package com.example.yoga_reminder.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadlineHeapTest {
+
+    @Test
+    void pollsDueIdsEarliestFirst() {
+        DeadlineHeap heap = new DeadlineHeap();
+        heap.schedule(3, 300);
+        heap.schedule(1, 100);
+        heap.schedule(2, 200);
+
+        assertThat(heap.pollDue(250, 10)).containsExactly(1L, 2L);
+        assertThat(heap.peekDeadline()).isEqualTo(300);
+        assertThat(heap.liveSize()).isEqualTo(1);
+    }
+
+    @Test
+    void reschedulingAndRemovalSupersedeEarlierEntries() {
+        DeadlineHeap heap = new DeadlineHeap();
+        assertThat(heap.schedule(1, 100)).isTrue();
+        assertThat(heap.schedule(2, 200)).isFalse();
+        assertThat(heap.schedule(2, 200)).isFalse();
+
+        heap.schedule(1, 500);
+        heap.remove(2);
+
+        assertThat(heap.peekDeadline()).isEqualTo(500);
+        assertThat(heap.pollDue(400, 10)).isEmpty();
+        assertThat(heap.pollDue(500, 10)).containsExactly(1L);
+        assertThat(heap.peekDeadline()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void keepsEveryLiveIdThroughGrowthAndCompaction() {
+        DeadlineHeap heap = new DeadlineHeap();
+        int ids = 20_000;
+        for (int round = 0; round < 3; round++) {
+            for (long id = 0; id < ids; id++) {
+                heap.schedule(id * 1024, 10_000 + round * ids + id);
+            }
+        }
+        for (long id = 0; id < ids; id += 2) {
+            heap.remove(id * 1024);
+        }
+
+        assertThat(heap.liveSize()).isEqualTo(ids / 2);
+        List<Long> due = heap.pollDue(Long.MAX_VALUE - 1, Integer.MAX_VALUE);
+        List<Long> expected = new ArrayList<>();
+        for (long id = 1; id < ids; id += 2) {
+            expected.add(id * 1024);
+        }
+        assertThat(due).containsExactlyElementsOf(expected);
+        assertThat(heap.liveSize()).isZero();
+    }
+}
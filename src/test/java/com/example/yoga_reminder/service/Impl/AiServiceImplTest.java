@@ -0,0 +1,124 @@
+package com.example.yoga_reminder.service.Impl;
+
+import com.example.yoga_reminder.config.AiResilienceProperties;
+import com.example.yoga_reminder.config.ReminderTemplateProperties;
+import com.example.yoga_reminder.config.ReplyIntentProperties;
+import com.example.yoga_reminder.service.ai.ChatClientGuard;
+import com.example.yoga_reminder.service.ai.PromptTemplates;
+import com.example.yoga_reminder.service.ai.ReminderTemplateCache;
+import com.example.yoga_reminder.service.ai.ReminderTemplateCache.TemplateKey;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.beans.factory.ObjectProvider;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reminder generation against a mocked ChatClient. Templates are off unless a test turns them on, so every
+ * message is a model call.
+ */
+class AiServiceImplTest {
+
+    private static final LocalDate EXPIRY = LocalDate.of(2026, 11, 1);
+    private static final String FALLBACK = "Hi Asha, your yoga plan expires on 2026-11-01. Reply PAY NOW to renew "
+            + "or PAY LATER to choose a new reminder date.";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ChatClient client = mock(ChatClient.class, RETURNS_DEEP_STUBS);
+    private final AiResilienceProperties resilience = new AiResilienceProperties();
+    private final ReminderTemplateProperties templates = new ReminderTemplateProperties();
+    private final ReminderTemplateCache templateCache = new ReminderTemplateCache(templates, meterRegistry);
+    private AiServiceImpl aiService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void newService() {
+        ObjectProvider<ChatClient> clientProvider = mock(ObjectProvider.class);
+        when(clientProvider.getIfAvailable()).thenReturn(client);
+        templates.setEnabled(false);
+        resilience.getDeadlines().put("generate", Duration.ofMillis(100));
+
+        aiService = new AiServiceImpl(clientProvider, new ObjectMapper(), templateCache, templates, null, null,
+                new ReplyIntentProperties(), meterRegistry, new ChatClientGuard(resilience, meterRegistry), null);
+    }
+
+    @Test
+    void usesTheModelAnswerWithinTheDeadline() {
+        when(client.prompt().system(anyString()).user(anyString()).call().content())
+                .thenReturn("Hi Asha, time to renew!");
+
+        assertThat(aiService.generateReminderMessage("Asha", EXPIRY)).isEqualTo("Hi Asha, time to renew!");
+        assertThat(meterRegistry.counter("reminder.ai.generated", "source", "llm").count()).isEqualTo(1);
+    }
+
+    @Test
+    void fallsBackWhenTheModelMissesItsDeadline() {
+        when(client.prompt().system(anyString()).user(anyString()).call().content()).thenAnswer(invocation -> {
+            Thread.sleep(Duration.ofSeconds(5));
+            return "too late";
+        });
+
+        long start = System.nanoTime();
+        String message = aiService.generateReminderMessage("Asha", EXPIRY);
+
+        assertThat(message).isEqualTo(FALLBACK);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2_000);
+        assertThat(meterRegistry.counter("reminder.ai.generated", "source", "fallback").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("reminder.ai.deadline_exceeded", "operation", "generate").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void streamedReminderIsCappedAndTimed() {
+        when(client.prompt().system(anyString()).user(anyString()).stream().content())
+                .thenReturn(Flux.just("Hi Asha! ", "word ".repeat(PromptTemplates.MAX_REMINDER_WORDS)));
+
+        String message = aiService.streamReminderMessage("Asha", EXPIRY).block(Duration.ofSeconds(2));
+
+        assertThat(message).startsWith("Hi Asha! word");
+        assertThat(message.split(" ")).hasSize(PromptTemplates.MAX_REMINDER_WORDS);
+        assertThat(meterRegistry.timer("reminder.ai.stream.first_token").count()).isEqualTo(1);
+        assertThat(meterRegistry.timer("reminder.ai.stream.duration", "truncated", "true").count()).isEqualTo(1);
+    }
+
+    @Test
+    void templateMissStreamsThisReminderAndLoadsThePoolInTheBackground() throws Exception {
+        templates.setEnabled(true);
+        when(client.prompt().system(anyString()).user(anyString()).stream().content())
+                .thenReturn(Flux.just("Hi Asha, ", "please renew."));
+        when(client.prompt().system(anyString()).user(anyString()).call().content())
+                .thenReturn("[\"Hello {name}, renew by {date}.\"]");
+
+        assertThat(aiService.streamReminderMessage("Asha", EXPIRY).block(Duration.ofSeconds(2)))
+                .isEqualTo("Hi Asha, please renew.");
+        assertThat(meterRegistry.timer("reminder.ai.stream.first_token").count()).isEqualTo(1);
+
+        TemplateKey key = new TemplateKey(ChronoUnit.DAYS.between(LocalDate.now(), EXPIRY),
+                templates.getLocale(), templates.getTone());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (templateCache.getIfPresent(key) == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(templateCache.getIfPresent(key)).containsExactly("Hello {name}, renew by {date}.");
+
+        // Once the pool is in, reminders render locally without another stream.
+        assertThat(aiService.streamReminderMessage("Ravi", EXPIRY).block(Duration.ofSeconds(2)))
+                .isEqualTo("Hello Ravi, renew by 2026-11-01.");
+        assertThat(meterRegistry.timer("reminder.ai.stream.first_token").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("reminder.ai.generated", "source", "template").count()).isEqualTo(1);
+    }
+}
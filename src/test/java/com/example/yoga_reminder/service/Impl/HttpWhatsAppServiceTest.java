@@ -0,0 +1,133 @@
+package com.example.yoga_reminder.service.Impl;
+
+import com.example.yoga_reminder.config.WhatsAppSendProperties;
+import com.example.yoga_reminder.dto.DeliveryResult;
+import com.example.yoga_reminder.dto.OutboundMessage;
+import com.example.yoga_reminder.service.whatsapp.WhatsAppThrottledException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the provider against an embedded stub of the Cloud API messages endpoint. The stub answers by
+ * recipient: "429..." numbers are throttled, "slow..." numbers answer late, everything else is accepted
+ * with a message id derived from the number.
+ */
+class HttpWhatsAppServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private HttpServer server;
+    private HttpWhatsAppService service;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/123/messages", this::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+
+        WhatsAppSendProperties properties = new WhatsAppSendProperties();
+        properties.getHttp().setBaseUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        properties.getHttp().setPhoneNumberId("123");
+        properties.getHttp().setAccessToken("test-token");
+        properties.getHttp().setRequestTimeout(Duration.ofSeconds(5));
+        service = new HttpWhatsAppService(objectMapper, properties);
+    }
+
+    @AfterEach
+    void stopStub() {
+        service.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    void acceptedResponseYieldsProviderMessageId() throws Exception {
+        String messageId = service.send(new OutboundMessage("15550001", "hello")).get(5, TimeUnit.SECONDS);
+
+        assertThat(messageId).isEqualTo("wamid.15550001");
+    }
+
+    @Test
+    void tooManyRequestsBecomesThrottledExceptionWithRetryAfter() {
+        CompletableFuture<String> result = service.send(new OutboundMessage("4290001", "hello"));
+
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .isInstanceOfSatisfying(WhatsAppThrottledException.class,
+                        ex -> assertThat(ex.getRetryAfter()).isEqualTo(Duration.ofSeconds(7)));
+    }
+
+    @Test
+    void sendMessageRethrowsThrottling() {
+        assertThatThrownBy(() -> service.sendMessage("4290002", "hello"))
+                .isInstanceOf(WhatsAppThrottledException.class);
+    }
+
+    @Test
+    void sendBatchReturnsResultsInInputOrder() {
+        // The slow first message completes last, but its result must still come first.
+        List<OutboundMessage> messages = List.of(
+                new OutboundMessage("slow0001", "a"),
+                new OutboundMessage("15550002", "b"),
+                new OutboundMessage("4290003", "c"),
+                new OutboundMessage("15550003", "d"));
+
+        List<DeliveryResult> results = service.sendBatch(messages).stream()
+                .map(CompletableFuture::join)
+                .toList();
+
+        assertThat(results).extracting(DeliveryResult::message).containsExactlyElementsOf(messages);
+        assertThat(results).extracting(DeliveryResult::accepted).containsExactly(true, true, false, true);
+        assertThat(results).extracting(DeliveryResult::providerMessageId)
+                .containsExactly("wamid.slow0001", "wamid.15550002", null, "wamid.15550003");
+        assertThat(results.get(2).error()).contains("429");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        Map<?, ?> body = objectMapper.readValue(exchange.getRequestBody(), Map.class);
+        String to = String.valueOf(body.get("to"));
+        if (!"Bearer test-token".equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+            respond(exchange, 401, "{}");
+        } else if (to.startsWith("429")) {
+            exchange.getResponseHeaders().add("Retry-After", "7");
+            respond(exchange, 429, "{\"error\":{\"code\":130429}}");
+        } else {
+            if (to.startsWith("slow")) {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            respond(exchange, 200, "{\"messaging_product\":\"whatsapp\",\"messages\":[{\"id\":\"wamid." + to + "\"}]}");
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.yoga_reminder.service.Impl;
+
+import com.example.yoga_reminder.domain.enums.PaymentStatus;
+import com.example.yoga_reminder.domain.enums.SubscriptionStatus;
+import com.example.yoga_reminder.dto.RenewalCandidate;
+import com.example.yoga_reminder.dto.SentReminder;
+import com.example.yoga_reminder.repository.PostgresRepositoryTest;
+import com.example.yoga_reminder.service.concurrency.InvoiceConcurrencyControl;
+import com.example.yoga_reminder.service.logging.ReminderEventLog;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the batched persistence step, including the native outbox insert, against PostgreSQL.
+ */
+@Import({ReminderServiceImpl.class, ReminderServiceImplTest.Metrics.class})
+class ReminderServiceImplTest extends PostgresRepositoryTest {
+
+    private static final LocalDate RUN_DATE = LocalDate.of(2026, 10, 17);
+
+    @Autowired
+    private ReminderServiceImpl reminderService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockitoBean
+    private InvoiceConcurrencyControl concurrencyControl;
+
+    @MockitoBean
+    private ReminderEventLog eventLog;
+
+    @Test
+    void queuesOneOutboxRowPerRecordedReminder() {
+        long plan = insertPlan();
+        RenewalCandidate first = candidate(plan, "+919000000101");
+        RenewalCandidate second = candidate(plan, "+919000000102");
+        LocalDateTime sentAt = LocalDateTime.now().withNano(0);
+
+        boolean[] applied = reminderService.recordRemindersSent(List.of(
+                new SentReminder(first, "Hi first", sentAt, RUN_DATE),
+                new SentReminder(second, "Hi second", sentAt, RUN_DATE)));
+        entityManager.flush();
+
+        assertThat(applied).containsExactly(true, true);
+        List<Map<String, Object>> outbox = jdbcTemplate.queryForList("""
+                select id, invoice_id, reminder_step, run_date, phone_number, message, status, attempts
+                from reminder_outbox
+                order by invoice_id
+                """);
+        assertThat(outbox).hasSize(2);
+        assertThat(outbox).extracting(row -> row.get("id")).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(outbox.get(0))
+                .containsEntry("invoice_id", first.invoiceId())
+                .containsEntry("reminder_step", 0)
+                .containsEntry("run_date", Date.valueOf(RUN_DATE))
+                .containsEntry("phone_number", "+919000000101")
+                .containsEntry("message", "Hi first")
+                .containsEntry("status", "PENDING")
+                .containsEntry("attempts", 0);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from reminder_logs", Long.class)).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("select reminder_count from invoices where id = ?", Integer.class,
+                first.invoiceId())).isEqualTo(1);
+    }
+
+    @Test
+    void queuesNothingForAnInvoiceThatChangedMeanwhile() {
+        long plan = insertPlan();
+        RenewalCandidate stale = candidate(plan, "+919000000111");
+        jdbcTemplate.update("update invoices set version = version + 1 where id = ?", stale.invoiceId());
+
+        boolean[] applied = reminderService.recordRemindersSent(List.of(
+                new SentReminder(stale, "Hi", LocalDateTime.now(), RUN_DATE)));
+        entityManager.flush();
+
+        assertThat(applied).containsExactly(false);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from reminder_outbox", Long.class)).isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from reminder_logs", Long.class)).isZero();
+    }
+
+    private RenewalCandidate candidate(long plan, String phoneNumber) {
+        LocalDate endDate = RUN_DATE.plusDays(5);
+        long subscription = insertSubscription(plan, phoneNumber, endDate, "ACTIVE");
+        long invoice = insertInvoice(subscription, RUN_DATE);
+        return new RenewalCandidate(subscription, SubscriptionStatus.ACTIVE, endDate, "Student", phoneNumber,
+                invoice, PaymentStatus.PENDING, 0, RUN_DATE, null, 0L, false);
+    }
+
+    @TestConfiguration
+    static class Metrics {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.yoga_reminder.service.ai;
+
+import com.example.yoga_reminder.config.AiResilienceProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ChatClientGuardTest {
+
+    private static final String OPERATION = "generate";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AiResilienceProperties properties;
+    private ChatClientGuard guard;
+
+    @BeforeEach
+    void newGuard() {
+        properties = new AiResilienceProperties();
+        properties.setDefaultDeadline(Duration.ofSeconds(5));
+        properties.getCircuit().setWindowSize(4);
+        properties.getCircuit().setMinimumCalls(4);
+        properties.getCircuit().setOpenDuration(Duration.ofMinutes(1));
+        guard = new ChatClientGuard(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void stopGuard() {
+        guard.shutdown();
+    }
+
+    @Test
+    void deadlineAbandonsTheCallAndInterruptsIt() throws Exception {
+        properties.getDeadlines().put(OPERATION, Duration.ofMillis(100));
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> guard.call(OPERATION, () -> sleep(Duration.ofSeconds(5), interrupted)))
+                .isInstanceOf(AiUnavailableException.class)
+                .hasMessageContaining("deadline");
+
+        assertThat(elapsedMillis(start)).isLessThan(2_000);
+        assertThat(interrupted.await(2, TimeUnit.SECONDS)).as("abandoned request is interrupted").isTrue();
+        assertThat(meterRegistry.counter("reminder.ai.deadline_exceeded", "operation", OPERATION).count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void streamedCallHitsTheDeadlineToo() {
+        properties.getDeadlines().put(OPERATION, Duration.ofMillis(100));
+
+        String message = guard.stream(OPERATION, () -> Mono.just("late").delayElement(Duration.ofSeconds(5)))
+                .onErrorResume(AiUnavailableException.class, ex -> Mono.just("fallback"))
+                .block(Duration.ofSeconds(2));
+
+        assertThat(message).isEqualTo("fallback");
+        assertThat(meterRegistry.counter("reminder.ai.deadline_exceeded", "operation", OPERATION).count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void openCircuitShortCircuitsWithoutCallingTheModel() {
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> guard.call(OPERATION, () -> {
+                throw new IllegalStateException("model error");
+            })).isInstanceOf(IllegalStateException.class);
+        }
+
+        AtomicInteger calls = new AtomicInteger();
+        assertThatThrownBy(() -> guard.call(OPERATION, () -> {
+            calls.incrementAndGet();
+            return "unused";
+        })).isInstanceOf(AiUnavailableException.class).hasMessageContaining("Circuit open");
+
+        assertThat(calls).hasValue(0);
+        assertThat(meterRegistry.counter("reminder.ai.short_circuited", "operation", OPERATION).count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("reminder.ai.circuit.state").tag("operation", OPERATION).gauge().value())
+                .isEqualTo(CircuitBreaker.State.OPEN.ordinal());
+    }
+
+    @Test
+    void hedgedSecondRequestWinsWhileTheFirstIsSlow() throws Exception {
+        properties.getHedge().setEnabled(true);
+        properties.getHedge().setMinSamples(4);
+
+        // Teach the guard a p95 of roughly 20 ms.
+        for (int i = 0; i < 4; i++) {
+            assertThat(guard.call(OPERATION, () -> sleep(Duration.ofMillis(20), new CountDownLatch(1))))
+                    .isEqualTo("done");
+        }
+
+        AtomicInteger attempts = new AtomicInteger();
+        CountDownLatch loserInterrupted = new CountDownLatch(1);
+        long start = System.nanoTime();
+        String result = guard.call(OPERATION, () -> attempts.incrementAndGet() == 1
+                ? sleep(Duration.ofSeconds(3), loserInterrupted)
+                : "hedge");
+
+        assertThat(result).isEqualTo("hedge");
+        assertThat(elapsedMillis(start)).isLessThan(1_500);
+        assertThat(attempts).hasValue(2);
+        assertThat(meterRegistry.counter("reminder.ai.hedged", "operation", OPERATION).count()).isEqualTo(1);
+        assertThat(loserInterrupted.await(2, TimeUnit.SECONDS)).as("losing attempt is cancelled").isTrue();
+    }
+
+    @Test
+    void noHedgeBeforeEnoughSamples() {
+        properties.getHedge().setEnabled(true);
+        properties.getHedge().setMinSamples(100);
+
+        AtomicInteger attempts = new AtomicInteger();
+        String result = guard.call(OPERATION, () -> {
+            attempts.incrementAndGet();
+            return sleep(Duration.ofMillis(50), new CountDownLatch(1));
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(attempts).hasValue(1);
+    }
+
+    /**
+     * Stands in for a model call of the given latency; counts down the latch if it is cut short.
+     */
+    private static String sleep(Duration latency, CountDownLatch interrupted) {
+        try {
+            Thread.sleep(latency);
+            return "done";
+        } catch (InterruptedException ex) {
+            interrupted.countDown();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted", ex);
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.yoga_reminder.service.ai;
+
+import com.example.yoga_reminder.config.AiResilienceProperties;
+import com.example.yoga_reminder.service.ai.CircuitBreaker.Permit;
+import com.example.yoga_reminder.service.ai.CircuitBreaker.State;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the breaker with synthetic timestamps, so no test sleeps through openDuration.
+ */
+class CircuitBreakerTest {
+
+    private static final long FAST = Duration.ofMillis(10).toNanos();
+    private static final long SLOW = Duration.ofSeconds(2).toNanos();
+    private static final long OPEN = Duration.ofSeconds(30).toNanos();
+
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void newBreaker() {
+        AiResilienceProperties.Circuit circuit = new AiResilienceProperties.Circuit();
+        circuit.setWindowSize(4);
+        circuit.setMinimumCalls(4);
+        circuit.setFailureRateThreshold(0.5);
+        circuit.setSlowCallRateThreshold(0.75);
+        circuit.setSlowCallDuration(Duration.ofSeconds(1));
+        circuit.setOpenDuration(Duration.ofNanos(OPEN));
+        circuit.setHalfOpenProbes(2);
+        breaker = new CircuitBreaker(circuit);
+    }
+
+    @Test
+    void goesFromClosedToOpenToHalfOpenAndBackToClosed() {
+        long now = 0;
+        assertThat(record(false, FAST, now)).isNull();
+        assertThat(record(true, FAST, now)).isNull();
+        assertThat(record(false, FAST, now)).isNull();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+
+        // Two failures in a window of four reach the 50 % threshold.
+        assertThat(record(true, FAST, now)).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire(now + OPEN - 1)).isEqualTo(Permit.DENIED);
+
+        now += OPEN;
+        assertThat(breaker.tryAcquire(now)).isEqualTo(Permit.PROBE);
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+        assertThat(breaker.tryAcquire(now)).isEqualTo(Permit.PROBE);
+        assertThat(breaker.tryAcquire(now)).as("only halfOpenProbes calls while half-open")
+                .isEqualTo(Permit.DENIED);
+
+        assertThat(breaker.onResult(Permit.PROBE, false, FAST, now)).isNull();
+        assertThat(breaker.onResult(Permit.PROBE, false, FAST, now)).isEqualTo(State.CLOSED);
+        assertThat(breaker.tryAcquire(now)).isEqualTo(Permit.CALL);
+
+        // The window starts empty again: three failures alone stay below minimumCalls.
+        for (int i = 0; i < 3; i++) {
+            assertThat(record(true, FAST, now)).isNull();
+        }
+    }
+
+    @Test
+    void failedProbeReopens() {
+        openAt(0);
+
+        assertThat(breaker.tryAcquire(OPEN)).isEqualTo(Permit.PROBE);
+        assertThat(breaker.onResult(Permit.PROBE, true, FAST, OPEN)).isEqualTo(State.OPEN);
+        assertThat(breaker.tryAcquire(OPEN + 1)).as("open duration restarts from the failed probe")
+                .isEqualTo(Permit.DENIED);
+        assertThat(breaker.tryAcquire(2 * OPEN)).isEqualTo(Permit.PROBE);
+    }
+
+    @Test
+    void slowProbeReopens() {
+        openAt(0);
+
+        assertThat(breaker.tryAcquire(OPEN)).isEqualTo(Permit.PROBE);
+        assertThat(breaker.onResult(Permit.PROBE, false, SLOW, OPEN)).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void opensOnSlowCallRateWithoutFailures() {
+        assertThat(record(false, SLOW, 0)).isNull();
+        assertThat(record(false, SLOW, 0)).isNull();
+        assertThat(record(false, FAST, 0)).isNull();
+        assertThat(record(false, SLOW, 0)).isEqualTo(State.OPEN);
+    }
+
+    @Test
+    void slidingWindowForgetsOldFailures() {
+        record(true, FAST, 0);
+        for (int i = 0; i < 3; i++) {
+            record(false, FAST, 0);
+        }
+        // The early failure drops out of the window; one new failure is 1 in 4.
+        record(false, FAST, 0);
+        assertThat(record(true, FAST, 0)).isNull();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void resultsOfCallsAdmittedBeforeOpeningAreIgnored() {
+        openAt(0);
+
+        assertThat(breaker.onResult(Permit.CALL, false, FAST, 1)).isNull();
+        assertThat(breaker.onResult(Permit.CALL, true, FAST, 1)).isNull();
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+
+    private State record(boolean failure, long latency, long now) {
+        assertThat(breaker.tryAcquire(now)).isEqualTo(Permit.CALL);
+        return breaker.onResult(Permit.CALL, failure, latency, now);
+    }
+
+    private void openAt(long now) {
+        for (int i = 0; i < 4; i++) {
+            record(true, FAST, now);
+        }
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+}
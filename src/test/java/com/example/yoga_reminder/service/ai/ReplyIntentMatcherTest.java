@@ -0,0 +1,52 @@
+package com.example.yoga_reminder.service.ai;
+
+import com.example.yoga_reminder.config.ReplyIntentProperties;
+import com.example.yoga_reminder.domain.enums.IntentType;
+import com.example.yoga_reminder.service.ai.ReplyIntentMatcher.RuleMatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplyIntentMatcherTest {
+
+    private static final double THRESHOLD = new ReplyIntentProperties().getRuleConfidenceThreshold();
+
+    private final ReplyIntentMatcher matcher = new ReplyIntentMatcher(new ReplyIntentProperties());
+
+    @Test
+    void resolvesExactPhrasesLocally() {
+        assertThat(matcher.match("Pay now")).isEqualTo(new RuleMatch(IntentType.PAY_NOW, null, 1.0));
+        assertThat(matcher.match("tomorrow")).isEqualTo(new RuleMatch(IntentType.PAY_LATER, 1, 1.0));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"can't pay now", "I can't pay now", "cannot pay now", "can not pay now", "not done",
+            "not paid", "haven't paid", "didn't pay now", "I can\u2019t pay later"})
+    void negatedRepliesAreLeftToTheAi(String reply) {
+        RuleMatch match = matcher.match(reply);
+
+        assertThat(match).isNotNull();
+        assertThat(match.confidence()).isLessThan(THRESHOLD);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"not interested", "I will not pay", "don't want it", "won't pay"})
+    void negationInsideADeclinePhraseStillDeclines(String reply) {
+        RuleMatch match = matcher.match(reply);
+
+        assertThat(match.intent()).isEqualTo(IntentType.DECLINE);
+        assertThat(match.confidence()).isGreaterThanOrEqualTo(THRESHOLD);
+    }
+
+    @Test
+    void negatedDeclineIsLeftToTheAi() {
+        assertThat(matcher.match("don't cancel").confidence()).isLessThan(THRESHOLD);
+    }
+
+    @Test
+    void aNegationAloneIsNoMatch() {
+        assertThat(matcher.match("not now")).isNull();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.yoga_reminder.service.ai;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WordCapTest {
+
+    @Test
+    void keepsShortTextUntouched() {
+        WordCap cap = new WordCap(10);
+
+        assertThat(cap.append("Hi Asha, ")).isFalse();
+        assertThat(cap.append("your plan ends soon. ")).isFalse();
+
+        assertThat(cap.isTruncated()).isFalse();
+        assertThat(cap.text()).isEqualTo("Hi Asha, your plan ends soon.");
+    }
+
+    @Test
+    void cutsAtTheLastSentenceEndWhenItKeepsEnoughWords() {
+        WordCap cap = new WordCap(10);
+
+        assertThat(cap.append("Hi Asha, your yoga plan ends on Friday. Renew today to keep ")).isTrue();
+
+        assertThat(cap.isTruncated()).isTrue();
+        assertThat(cap.text()).isEqualTo("Hi Asha, your yoga plan ends on Friday.");
+    }
+
+    @Test
+    void cutsAtTheWordCapWhenTheOnlySentenceEndIsTheGreeting() {
+        WordCap cap = new WordCap(10);
+
+        assertThat(cap.append("Hi Asha! Your yoga plan ends on Friday, so renew today to keep")).isTrue();
+
+        // Cutting at "Hi Asha!" would keep 2 of 10 words; the cap keeps the first 10 instead.
+        assertThat(cap.text()).isEqualTo("Hi Asha! Your yoga plan ends on Friday, so renew");
+    }
+
+    @Test
+    void cutsAtTheWordCapWithoutAnySentenceEnd() {
+        WordCap cap = new WordCap(3);
+
+        assertThat(cap.append("one two ")).isFalse();
+        assertThat(cap.append("three four five")).isTrue();
+
+        assertThat(cap.text()).isEqualTo("one two three");
+    }
+
+    @Test
+    void countsWordsSplitAcrossChunksOnce() {
+        WordCap cap = new WordCap(2);
+
+        assertThat(cap.append("yo")).isFalse();
+        assertThat(cap.append("ga cla")).isFalse();
+        assertThat(cap.append("ss")).isFalse();
+        assertThat(cap.append(" now")).isTrue();
+
+        assertThat(cap.text()).isEqualTo("yoga class");
+    }
+
+    @Test
+    void ignoresChunksAfterTheCap() {
+        WordCap cap = new WordCap(1);
+
+        assertThat(cap.append("one two")).isTrue();
+        assertThat(cap.append(" three")).isTrue();
+
+        assertThat(cap.text()).isEqualTo("one");
+    }
+
+    @Test
+    void rejectsNonPositiveCap() {
+        assertThatThrownBy(() -> new WordCap(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.yoga_reminder.service.concurrency;
+
+import com.example.yoga_reminder.config.InvoiceConcurrencyProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InvoiceConcurrencyControlTest {
+
+    @Test
+    void retriesVersionConflictsUntilTheOperationSucceeds() {
+        InvoiceConcurrencyControl control = control(1024, Duration.ZERO);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = control.execute(7L, "test", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException("Invoice", 7L);
+            }
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void rethrowsOnceAttemptsAreExhausted() {
+        InvoiceConcurrencyControl control = control(1024, Duration.ZERO);
+
+        assertThatThrownBy(() -> control.execute(7L, "test", () -> {
+            throw new ObjectOptimisticLockingFailureException("Invoice", 7L);
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+    }
+
+    @Test
+    void releasesTheStripeWhileBackingOff() throws Exception {
+        // lockStripes=1 rounds up to two stripes; invoices 0 and 2 share the first.
+        InvoiceConcurrencyControl control = control(1, Duration.ofSeconds(1));
+        CountDownLatch conflicted = new CountDownLatch(1);
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> retrying = CompletableFuture.supplyAsync(() -> control.execute(0L, "test", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                conflicted.countDown();
+                throw new ObjectOptimisticLockingFailureException("Invoice", 0L);
+            }
+            return "retried";
+        }));
+        assertThat(conflicted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Runs while invoice 0 sleeps out its backoff (at least one second).
+        CompletableFuture<String> neighbour = CompletableFuture.supplyAsync(
+                () -> control.execute(2L, "test", () -> "neighbour"));
+        assertThat(neighbour.get(500, TimeUnit.MILLISECONDS)).isEqualTo("neighbour");
+        assertThat(retrying.isDone()).isFalse();
+
+        assertThat(retrying.get(5, TimeUnit.SECONDS)).isEqualTo("retried");
+    }
+
+    private static InvoiceConcurrencyControl control(int lockStripes, Duration retryBackoff) {
+        InvoiceConcurrencyProperties properties = new InvoiceConcurrencyProperties();
+        properties.setLockStripes(lockStripes);
+        properties.setRetryBackoff(retryBackoff);
+        return new InvoiceConcurrencyControl(properties, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.yoga_reminder.service.run;
+
+import com.example.yoga_reminder.config.ReminderRunProperties;
+import com.example.yoga_reminder.domain.entity.ReminderRun;
+import com.example.yoga_reminder.domain.enums.PaymentStatus;
+import com.example.yoga_reminder.domain.enums.ReminderRunStatus;
+import com.example.yoga_reminder.domain.enums.SubscriptionStatus;
+import com.example.yoga_reminder.dto.RenewalCandidate;
+import com.example.yoga_reminder.repository.PostgresRepositoryTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the run checkpoint SQL (ON CONFLICT admits and claims, count filters) against PostgreSQL.
+ */
+@Import({ReminderRunStore.class, ReminderRunStoreTest.Properties.class})
+class ReminderRunStoreTest extends PostgresRepositoryTest {
+
+    private static final LocalDate RUN_DATE = LocalDate.of(2026, 10, 17);
+    private static final String SCOPE = "1:0";
+    private static final String MODE = "WINDOW";
+
+    @Autowired
+    private ReminderRunStore runStore;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void keepsOneRunPerDateScopeAndMode() {
+        ReminderRun first = runStore.startOrResume(RUN_DATE, SCOPE, MODE, "node-a", () -> 10);
+
+        // Live on node-a, so node-b neither resumes it nor starts a second run.
+        assertThat(runStore.startOrResume(RUN_DATE, SCOPE, MODE, "node-b", () -> 10)).isNull();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from reminder_runs", Long.class)).isEqualTo(1L);
+        assertThat(first.getStatus()).isEqualTo(ReminderRunStatus.RUNNING);
+    }
+
+    @Test
+    void reopensACompletedRunFromTheStartOfTheWindow() {
+        ReminderRun first = runStore.startOrResume(RUN_DATE, SCOPE, MODE, "node-a", () -> 10);
+        runStore.recordChunk(first.getRunId(), RUN_DATE, 42L, 10, List.of());
+        runStore.finish(first.getRunId(), ReminderRunStatus.COMPLETED);
+        entityManager.clear();
+
+        ReminderRun reopened = runStore.startOrResume(RUN_DATE, SCOPE, MODE, "node-b", () -> 12);
+
+        assertThat(reopened.getRunId()).isEqualTo(first.getRunId());
+        assertThat(reopened.getStatus()).isEqualTo(ReminderRunStatus.RUNNING);
+        assertThat(reopened.getNodeId()).isEqualTo("node-b");
+        assertThat(reopened.getLastKey()).isZero();
+        assertThat(reopened.getWindowSize()).isEqualTo(12L);
+    }
+
+    @Test
+    void resumesFailedItemsAlongWithPendingOnes() {
+        ReminderRun run = runStore.startOrResume(RUN_DATE, SCOPE, MODE, "node-a", () -> 3);
+        List<RenewalCandidate> due = List.of(candidate(101L), candidate(102L), candidate(103L));
+        assertThat(runStore.recordChunk(run.getRunId(), RUN_DATE, 103L, 3, due)).hasSize(3);
+
+        assertThat(runStore.claimSend(run.getRunId(), RUN_DATE, due.get(0))).isTrue();
+        runStore.markSent(RUN_DATE, 101L, 0);
+        assertThat(runStore.claimSend(run.getRunId(), RUN_DATE, due.get(1))).isTrue();
+        runStore.markFailed(RUN_DATE, 102L, 0);
+
+        assertThat(runStore.pendingInvoiceIds(run.getRunId())).containsExactly(102L, 103L);
+        assertThat(runStore.countSentAndFailed(run.getRunId())).containsExactly(1L, 1L);
+        // A failed step can be claimed again; the sent one cannot.
+        assertThat(runStore.claimSend(run.getRunId(), RUN_DATE, due.get(1))).isTrue();
+        assertThat(runStore.claimSend(run.getRunId(), RUN_DATE, due.get(0))).isFalse();
+    }
+
+    private static RenewalCandidate candidate(long invoiceId) {
+        LocalDate endDate = RUN_DATE.plusDays(5);
+        return new RenewalCandidate(invoiceId, SubscriptionStatus.ACTIVE, endDate, "Student", "+919000000000",
+                invoiceId, PaymentStatus.PENDING, 0, RUN_DATE, null, 0L, false);
+    }
+
+    @TestConfiguration
+    @EnableConfigurationProperties(ReminderRunProperties.class)
+    static class Properties {
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.yoga_reminder.service.whatsapp;
+
+import com.example.yoga_reminder.config.WhatsAppSendProperties;
+import com.example.yoga_reminder.service.Impl.MockWhatsAppService;
+import com.example.yoga_reminder.service.WhatsAppService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives the sending engine against {@link MockWhatsAppService} with simulated provider limits. Timing
+ * assertions only use lower bounds (plus generous completion timeouts), so slow CI machines do not flake.
+ */
+class RateLimitedWhatsAppServiceTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimitedWhatsAppService engine;
+
+    @AfterEach
+    void stopEngine() {
+        if (engine != null) {
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    void globalLimitPacesMessagesAcrossRecipients() {
+        WhatsAppSendProperties properties = unlimited();
+        properties.setGlobalPermitsPerSecond(20);
+        properties.setGlobalBurst(1);
+        engine = start(properties);
+
+        long start = System.nanoTime();
+        List<CompletableFuture<String>> sends = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            sends.add(engine.sendAsync("1555000" + i, "hello"));
+        }
+        awaitAll(sends);
+
+        // Burst 1 at 20/s: the first goes at once, the other five 50 ms apart.
+        assertThat(elapsedMillis(start)).isGreaterThanOrEqualTo(240);
+    }
+
+    @Test
+    void recipientLimitOnlyHoldsBackThatRecipient() {
+        WhatsAppSendProperties properties = unlimited();
+        properties.setRecipientPermitsPerSecond(10);
+        properties.setRecipientBurst(1);
+        engine = start(properties);
+
+        long start = System.nanoTime();
+        List<CompletableFuture<String>> sameRecipient = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            sameRecipient.add(engine.sendAsync("15550000", "hello " + i));
+        }
+        List<CompletableFuture<String>> others = new ArrayList<>();
+        for (int i = 1; i <= 4; i++) {
+            others.add(engine.sendAsync("1555000" + i, "hello"));
+        }
+
+        awaitAll(others);
+        long othersDone = elapsedMillis(start);
+        awaitAll(sameRecipient);
+        long sameDone = elapsedMillis(start);
+
+        // Four messages to one number at 10/s take at least 300 ms; the others are not queued behind them.
+        assertThat(sameDone).isGreaterThanOrEqualTo(290);
+        assertThat(othersDone).isLessThan(sameDone);
+    }
+
+    @Test
+    void throttledSendIsRetriedWithBackoffUntilAccepted() throws Exception {
+        WhatsAppSendProperties properties = unlimited();
+        properties.getMock().setRecipientPermitsPerSecond(5); // provider answers 429 within 200 ms
+        properties.setRetryBackoff(Duration.ofMillis(20));
+        properties.setMaxBackoff(Duration.ofMillis(100));
+        properties.setMaxAttempts(20);
+        engine = start(properties);
+
+        long start = System.nanoTime();
+        CompletableFuture<String> first = engine.sendAsync("15550000", "one");
+        CompletableFuture<String> second = engine.sendAsync("15550000", "two");
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        assertThat(meterRegistry.counter("reminder.whatsapp.throttled").count()).isPositive();
+        assertThat(elapsedMillis(start)).isGreaterThanOrEqualTo(150);
+    }
+
+    @Test
+    void retryWaitsAtLeastTheProvidersRetryAfter() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        WhatsAppService provider = (phone, message) -> {
+            if (calls.getAndIncrement() == 0) {
+                throw new WhatsAppThrottledException("429", Duration.ofMillis(300));
+            }
+        };
+        WhatsAppSendProperties properties = unlimited();
+        properties.setRetryBackoff(Duration.ofMillis(1));
+        engine = new RateLimitedWhatsAppService(provider, properties, meterRegistry);
+
+        long start = System.nanoTime();
+        engine.sendAsync("15550000", "hello").get(5, TimeUnit.SECONDS);
+
+        assertThat(calls).hasValue(2);
+        assertThat(elapsedMillis(start)).isGreaterThanOrEqualTo(290);
+    }
+
+    @Test
+    void givesUpAfterMaxAttemptsOfThrottling() {
+        WhatsAppSendProperties properties = unlimited();
+        properties.getMock().setRecipientPermitsPerSecond(0.1); // second message stays throttled for 10 s
+        properties.setRetryBackoff(Duration.ofMillis(10));
+        properties.setMaxAttempts(3);
+        engine = start(properties);
+
+        engine.sendAsync("15550000", "one").join();
+        CompletableFuture<String> second = engine.sendAsync("15550000", "two");
+
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(WhatsAppRejectedException.class);
+        assertThat(meterRegistry.counter("reminder.whatsapp.rejected", "reason", "throttled").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void rejectsWithQueueFullOnceCapacityIsReached() {
+        WhatsAppSendProperties properties = unlimited();
+        properties.setGlobalPermitsPerSecond(0.5); // one message now, the next one only after 2 s
+        properties.setGlobalBurst(1);
+        properties.setQueueCapacity(1);
+        engine = start(properties);
+
+        List<CompletableFuture<String>> sends = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            sends.add(engine.sendAsync("1555000" + i, "hello"));
+        }
+
+        // Rejection is immediate: the caller learns about it without waiting for the limiter.
+        List<CompletableFuture<String>> rejected = sends.stream()
+                .filter(CompletableFuture::isCompletedExceptionally)
+                .toList();
+        assertThat(rejected).isNotEmpty();
+        assertThatThrownBy(rejected.get(0)::join).hasCauseInstanceOf(WhatsAppRejectedException.class);
+        assertThat(meterRegistry.counter("reminder.whatsapp.rejected", "reason", "queue_full").count())
+                .isEqualTo(rejected.size());
+    }
+
+    /**
+     * Engine limits high enough not to interfere; each test tightens the one it exercises.
+     */
+    private static WhatsAppSendProperties unlimited() {
+        WhatsAppSendProperties properties = new WhatsAppSendProperties();
+        properties.setGlobalPermitsPerSecond(10_000);
+        properties.setGlobalBurst(10_000);
+        properties.setRecipientPermitsPerSecond(10_000);
+        properties.setRecipientBurst(10_000);
+        return properties;
+    }
+
+    private RateLimitedWhatsAppService start(WhatsAppSendProperties properties) {
+        return new RateLimitedWhatsAppService(new MockWhatsAppService(properties), properties, meterRegistry);
+    }
+
+    private static void awaitAll(List<CompletableFuture<String>> sends) {
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).orTimeout(10, TimeUnit.SECONDS).join();
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
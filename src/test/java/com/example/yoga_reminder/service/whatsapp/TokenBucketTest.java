@@ -0,0 +1,78 @@
+package com.example.yoga_reminder.service.whatsapp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketTest {
+
+    private static final long INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100); // 10 permits per second
+
+    @Test
+    void admitsBurstThenReportsWaitOfAboutOneInterval() {
+        TokenBucket bucket = new TokenBucket(10, 3);
+
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isZero();
+
+        long wait = bucket.tryAcquire();
+        assertThat(wait).isPositive().isLessThanOrEqualTo(INTERVAL_NANOS).isGreaterThan(INTERVAL_NANOS / 2);
+    }
+
+    @Test
+    void deniedCallDoesNotConsumeAToken() {
+        TokenBucket bucket = new TokenBucket(10, 1);
+        assertThat(bucket.tryAcquire()).isZero();
+
+        long first = bucket.tryAcquire();
+        long second = bucket.tryAcquire();
+
+        // Both denials report the same slot (minus the time between the calls), not a growing debt.
+        assertThat(second).isPositive().isLessThanOrEqualTo(first);
+    }
+
+    @Test
+    void acquireSucceedsAfterWaitingTheReportedTime() {
+        TokenBucket bucket = new TokenBucket(20, 1);
+        assertThat(bucket.tryAcquire()).isZero();
+
+        long wait = bucket.tryAcquire();
+        assertThat(wait).isPositive();
+        long deadline = System.nanoTime() + wait;
+        for (long left = wait; left > 0; left = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(left); // may return early, hence the loop
+        }
+
+        assertThat(bucket.tryAcquire()).isZero();
+    }
+
+    @Test
+    void sustainedRateIsOnePermitPerInterval() {
+        TokenBucket bucket = new TokenBucket(50, 1);
+        long start = System.nanoTime();
+        int admitted = 0;
+        while (admitted < 11) {
+            long wait = bucket.tryAcquire();
+            if (wait == 0) {
+                admitted++;
+            } else {
+                LockSupport.parkNanos(wait);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+
+        // 11 permits at 50/s with burst 1: the first is free, the other ten take 20 ms each.
+        assertThat(elapsed).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(195));
+    }
+
+    @Test
+    void rejectsNonPositiveRateOrBurst() {
+        assertThatThrownBy(() -> new TokenBucket(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}